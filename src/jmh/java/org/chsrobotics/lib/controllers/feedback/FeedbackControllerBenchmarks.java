@@ -0,0 +1,67 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.controllers.feedback;
+
+import java.util.Map;
+import org.chsrobotics.lib.math.filters.DifferentiatingFilter;
+import org.chsrobotics.lib.math.filters.IntegratingFilter;
+import org.chsrobotics.lib.math.filters.NullFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks of the per-call cost of the feedback controllers. */
+@State(Scope.Thread)
+public class FeedbackControllerBenchmarks {
+    @Param({"0", "50", "1000"})
+    public int integrationWindow;
+
+    private PID pid;
+    private ComposedFeedbackController composed;
+
+    private double measurement = 0;
+
+    @Setup
+    public void setup() {
+        pid = new PID(1, 0.1, 0.01, integrationWindow, 10);
+
+        composed =
+                new ComposedFeedbackController(
+                        Map.of(
+                                new NullFilter(), 1.0,
+                                new IntegratingFilter(integrationWindow), 0.1,
+                                new DifferentiatingFilter(), 0.01));
+
+        composed.setSetpoint(10);
+    }
+
+    @Benchmark
+    public double pidCalculate() {
+        measurement = (measurement + 0.37) % 20;
+
+        return pid.calculate(measurement, 0.02);
+    }
+
+    @Benchmark
+    public double composedCalculate() {
+        measurement = (measurement + 0.37) % 20;
+
+        return composed.calculate(measurement, 0.02);
+    }
+}
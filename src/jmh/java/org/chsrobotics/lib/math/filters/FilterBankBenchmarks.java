@@ -0,0 +1,74 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import java.util.Random;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks of filter banks against the same number of separate Filters. */
+@State(Scope.Thread)
+public class FilterBankBenchmarks {
+    @Param({"ExponentialMovingAverage", "RateLimiter"})
+    public String filterType;
+
+    @Param({"8", "64"})
+    public int channelCount;
+
+    private FilterBank bank;
+    private Filter[] filters;
+
+    private double[] values;
+    private double[] outputs;
+
+    @Setup
+    public void setup() {
+        filters = new Filter[channelCount];
+
+        if (filterType.equals("RateLimiter")) {
+            bank = new RateLimiterBank(channelCount, 5);
+            for (int i = 0; i < channelCount; i++) filters[i] = new RateLimiter(5);
+        } else {
+            bank = new ExponentialMovingAverageBank(channelCount, 0.2);
+            for (int i = 0; i < channelCount; i++) filters[i] = new ExponentialMovingAverage(0.2);
+        }
+
+        Random random = new Random(997);
+
+        values = new double[channelCount];
+        outputs = new double[channelCount];
+
+        for (int i = 0; i < channelCount; i++) values[i] = random.nextDouble() * 10;
+    }
+
+    @Benchmark
+    public double[] bank() {
+        bank.calculate(values, 0.02, outputs);
+
+        return outputs;
+    }
+
+    @Benchmark
+    public double[] separateFilters() {
+        for (int i = 0; i < channelCount; i++) outputs[i] = filters[i].calculate(values[i], 0.02);
+
+        return outputs;
+    }
+}
@@ -0,0 +1,145 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import java.util.List;
+import java.util.Random;
+import org.chsrobotics.lib.math.filters.MovingAverageFilter.MEAN_IMPLEMENTATION;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks of the per-sample and batch cost of every Filter. */
+@State(Scope.Thread)
+public class FilterBenchmarks {
+    private static final int batchSize = 1024;
+
+    @Param({
+        "ExponentialMovingAverage",
+        "RateLimiter",
+        "DifferentiatingFilter",
+        "IntegratingFilter",
+        "IntegratingFilterIndefinite",
+        "MovingAverageArithmetic",
+        "MovingAverageGeometric",
+        "MovingAverageHarmonic",
+        "ThresholdFilter",
+        "NullFilter",
+        "ComposedFilter",
+        "FusedComposedFilter",
+        "ButterworthLowPass4",
+        "MovingMedianFilter",
+        "MovingMaxFilter",
+        "MovingMinFilter",
+        "SavitzkyGolayVelocity",
+        "ConstantVelocityKalmanFilter",
+        "AdaptiveKalmanFilter"
+    })
+    public String filterType;
+
+    @Param({"50"})
+    public int window;
+
+    private Filter filter;
+
+    private final double[] values = new double[batchSize];
+    private final double[] dts = new double[batchSize];
+    private final double[] outputs = new double[batchSize];
+
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        filter = createFilter(filterType, window);
+
+        Random random = new Random(997);
+
+        for (int i = 0; i < batchSize; i++) {
+            // positive, so the geometric mean is defined
+            values[i] = 0.1 + random.nextDouble() * 10;
+            dts[i] = 0.02;
+        }
+    }
+
+    static Filter createFilter(String filterType, int window) {
+        switch (filterType) {
+            case "ExponentialMovingAverage":
+                return new ExponentialMovingAverage(0.2);
+            case "RateLimiter":
+                return new RateLimiter(5);
+            case "DifferentiatingFilter":
+                return new DifferentiatingFilter();
+            case "IntegratingFilter":
+                return new IntegratingFilter(window);
+            case "IntegratingFilterIndefinite":
+                return new IntegratingFilter();
+            case "MovingAverageArithmetic":
+                return new MovingAverageFilter(window, MEAN_IMPLEMENTATION.ARITHMETIC);
+            case "MovingAverageGeometric":
+                return new MovingAverageFilter(window, MEAN_IMPLEMENTATION.GEOMETRIC);
+            case "MovingAverageHarmonic":
+                return new MovingAverageFilter(window, MEAN_IMPLEMENTATION.HARMONIC);
+            case "ThresholdFilter":
+                return new ThresholdFilter(5, false);
+            case "NullFilter":
+                return new NullFilter();
+            case "ComposedFilter":
+                return new ComposedFilter(
+                        List.of(
+                                new RateLimiter(5),
+                                new ExponentialMovingAverage(0.2),
+                                new MovingAverageFilter(window, MEAN_IMPLEMENTATION.ARITHMETIC)));
+            case "FusedComposedFilter":
+                return FusedFilter.compile(createFilter("ComposedFilter", window));
+            case "ButterworthLowPass4":
+                return BiquadFilter.butterworthLowPass(4, 5, 50);
+            case "MovingMedianFilter":
+                return new MovingMedianFilter(window);
+            case "MovingMaxFilter":
+                return new MovingMaxFilter(window);
+            case "MovingMinFilter":
+                return new MovingMinFilter(window);
+            case "SavitzkyGolayVelocity":
+                return new SavitzkyGolayFilter(window, 2, 1);
+            case "ConstantVelocityKalmanFilter":
+                return new ConstantVelocityKalmanFilter(1, 0.01);
+            case "AdaptiveKalmanFilter":
+                return new AdaptiveKalmanFilter(1, 0.01, 0.01);
+            default:
+                throw new IllegalArgumentException("Unknown filter type: " + filterType);
+        }
+    }
+
+    @Benchmark
+    public double calculate() {
+        double value = values[index];
+        index = (index + 1) & (batchSize - 1);
+
+        return filter.calculate(value, 0.02);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(batchSize)
+    public double[] calculateBatch() {
+        filter.calculate(values, dts, outputs);
+
+        return outputs;
+    }
+}
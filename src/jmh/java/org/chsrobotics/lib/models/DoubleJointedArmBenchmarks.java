@@ -0,0 +1,119 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.models;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.Vector;
+import edu.wpi.first.math.numbers.N2;
+import edu.wpi.first.math.system.plant.DCMotor;
+import org.chsrobotics.lib.models.DoubleJointedArmKinematics.RRConfiguration;
+import org.chsrobotics.lib.util.Tuple2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks of the double-jointed arm dynamics and kinematics. */
+@State(Scope.Thread)
+public class DoubleJointedArmBenchmarks {
+    private DoubleJointedArmModel model;
+    private DoubleJointedArmKinematics kinematics;
+
+    private Matrix<N2, N2> state;
+    private Vector<N2> voltages;
+
+    private Vector<N2> position;
+    private Vector<N2> velocity;
+    private Vector<N2> acceleration;
+
+    private final double[] primitiveState = new double[4];
+    private final double[] primitiveVoltages = new double[2];
+
+    private double angle = 0;
+
+    @Setup
+    public void setup() {
+        model =
+                new DoubleJointedArmModel(
+                        3,
+                        0.4,
+                        0.2,
+                        0.9,
+                        DCMotor.getNEO(2).withReduction(100),
+                        2,
+                        0.3,
+                        0.1,
+                        DCMotor.getNEO(1).withReduction(60),
+                        1);
+
+        kinematics = new DoubleJointedArmKinematics(0.9, 0.7);
+
+        state = new Matrix<>(N2.instance, N2.instance);
+        state.set(0, 0, 0.3);
+        state.set(0, 1, -0.5);
+
+        voltages = VecBuilder.fill(4, -2);
+
+        position = VecBuilder.fill(0.3, -0.5);
+        velocity = VecBuilder.fill(1, 0.5);
+        acceleration = VecBuilder.fill(2, -1);
+    }
+
+    @Benchmark
+    public Matrix<N2, N2> simulate() {
+        return model.simulate(state, voltages, 0.02);
+    }
+
+    @Benchmark
+    public double[] simulatePrimitive() {
+        primitiveState[0] = 0.3;
+        primitiveState[1] = -0.5;
+        primitiveState[2] = 0;
+        primitiveState[3] = 0;
+
+        model.simulate(primitiveState, 4, -2, 0.02, primitiveState);
+
+        return primitiveState;
+    }
+
+    @Benchmark
+    public Vector<N2> feedforward() {
+        return model.feedforward(position, velocity, acceleration);
+    }
+
+    @Benchmark
+    public double[] feedforwardPrimitive() {
+        model.feedforward(0.3, -0.5, 1, 0.5, 2, -1, primitiveVoltages);
+
+        return primitiveVoltages;
+    }
+
+    @Benchmark
+    public RRConfiguration forwardKinematics() {
+        angle += 0.01;
+
+        return kinematics.forwardKinematics(angle, -angle);
+    }
+
+    @Benchmark
+    public Tuple2<RRConfiguration> inverseKinematics() {
+        angle += 0.01;
+
+        return kinematics.inverseKinematics(1 + 0.3 * Math.cos(angle), 0.3 * Math.sin(angle));
+    }
+}
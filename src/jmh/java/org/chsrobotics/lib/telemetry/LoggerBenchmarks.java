@@ -0,0 +1,87 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.telemetry;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.util.datalog.DataLog;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks of the cost of logger updates on the calling thread, with values which change every
+ * update (so change detection never skips a write).
+ */
+@State(Scope.Thread)
+public class LoggerBenchmarks {
+    private DataLog log;
+
+    private Logger<Double> genericDoubleLogger;
+    private Logger<Pose2d> poseLogger;
+    private DoubleLogger doubleLogger;
+
+    private Pose2d[] poses;
+
+    private double value = 0;
+    private int index = 0;
+
+    @Setup
+    public void setup() throws IOException {
+        log = new DataLog(Files.createTempDirectory("loggerBenchmarks").toString(), "bench.wpilog");
+
+        genericDoubleLogger = new Logger<>(log, "genericDouble", "benchmarks", true, true);
+        poseLogger = new Logger<>(log, "pose", "benchmarks", true, true);
+        doubleLogger = new DoubleLogger(log, "double", "benchmarks", true, true);
+
+        poses = new Pose2d[64];
+
+        for (int i = 0; i < poses.length; i++) {
+            poses[i] = new Pose2d(i * 0.1, i * -0.2, new Rotation2d(i * 0.05));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        log.close();
+    }
+
+    @Benchmark
+    public void genericLoggerUpdate() {
+        value += 1;
+
+        genericDoubleLogger.update(value);
+    }
+
+    @Benchmark
+    public void poseLoggerUpdate() {
+        index = (index + 1) & (poses.length - 1);
+
+        poseLogger.update(poses[index]);
+    }
+
+    @Benchmark
+    public void doubleLoggerUpdate() {
+        value += 1;
+
+        doubleLogger.update(value);
+    }
+}
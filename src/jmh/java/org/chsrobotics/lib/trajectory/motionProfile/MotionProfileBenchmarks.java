@@ -0,0 +1,150 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.trajectory.motionProfile;
+
+import org.chsrobotics.lib.trajectory.motionProfile.MotionProfile.MutableState;
+import org.chsrobotics.lib.trajectory.motionProfile.MotionProfile.State;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+
+/** Benchmarks of sampling motion profiles. */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+public class MotionProfileBenchmarks {
+    private static final int batchSize = 1024;
+
+    private AsymmetricTrapezoidProfile asymmetricProfile;
+    private TrapezoidProfile trapezoidProfile;
+    private TrapezoidProfile tabledTrapezoidProfile;
+
+    private AsymmetricTrapezoidGenerator asymmetricGenerator;
+
+    private SynchronizedProfile synchronizedProfile;
+    private final MutableState[] synchronizedOut = {new MutableState(), new MutableState()};
+
+    private final MutableState out = new MutableState();
+
+    private final double[] batchTimes = new double[batchSize];
+    private final double[] batchPositions = new double[batchSize];
+    private final double[] batchVelocities = new double[batchSize];
+
+    private double time = 0;
+
+    @Setup
+    public void setup() {
+        asymmetricProfile =
+                new AsymmetricTrapezoidProfile(
+                        new AsymmetricTrapezoidProfile.Constraints(3, 2, 4),
+                        new State(10, 0),
+                        new State(-1, 0.5));
+
+        trapezoidProfile =
+                new TrapezoidProfile(new TrapezoidProfile.Constraints(3, 2), new State(10, 0));
+
+        tabledTrapezoidProfile =
+                new TrapezoidProfile(new TrapezoidProfile.Constraints(3, 2), new State(10, 0));
+        tabledTrapezoidProfile.precomputeLookupTable(0.1);
+
+        asymmetricGenerator =
+                new AsymmetricTrapezoidGenerator(
+                        new AsymmetricTrapezoidProfile.Constraints(3, 2, 4));
+
+        synchronizedProfile =
+                new SynchronizedProfile(
+                        trapezoidProfile,
+                        new TrapezoidProfile(
+                                new TrapezoidProfile.Constraints(1, 4), new State(-2, 0)));
+
+        double step = trapezoidProfile.totalTime() / batchSize;
+        for (int i = 0; i < batchSize; i++) batchTimes[i] = i * step;
+    }
+
+    private double nextTime(MotionProfile profile) {
+        time += 0.02;
+        if (time > profile.totalTime()) time = 0;
+
+        return time;
+    }
+
+    @Benchmark
+    public State asymmetricTrapezoidSample() {
+        return asymmetricProfile.sample(nextTime(asymmetricProfile));
+    }
+
+    @Benchmark
+    public State trapezoidSample() {
+        return trapezoidProfile.sample(nextTime(trapezoidProfile));
+    }
+
+    @Benchmark
+    public MutableState trapezoidSampleMutable() {
+        return trapezoidProfile.sample(nextTime(trapezoidProfile), out);
+    }
+
+    @Benchmark
+    public MutableState trapezoidSampleLookupTable() {
+        return tabledTrapezoidProfile.sample(nextTime(tabledTrapezoidProfile), out);
+    }
+
+    @Benchmark
+    public MutableState[] synchronizedSample() {
+        synchronizedProfile.sample(nextTime(trapezoidProfile), synchronizedOut);
+
+        return synchronizedOut;
+    }
+
+    @Benchmark
+    public double trapezoidTimeAtPosition() {
+        return trapezoidProfile.timeAtPosition(nextTime(trapezoidProfile));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(batchSize)
+    public double[] trapezoidSampleBatch() {
+        trapezoidProfile.sample(batchTimes, batchPositions, batchVelocities);
+
+        return batchPositions;
+    }
+
+    @Benchmark
+    public SCurveProfile sCurveConstruct() {
+        return new SCurveProfile(
+                new SCurveProfile.Constraints(3, 2, 5), new State(10, 0), new State(-1, 0.5));
+    }
+
+    @Benchmark
+    public AsymmetricTrapezoidProfile asymmetricTrapezoidConstruct() {
+        return new AsymmetricTrapezoidProfile(
+                new AsymmetricTrapezoidProfile.Constraints(3, 2, 4),
+                new State(10, 0),
+                new State(-1, 0.5));
+    }
+
+    @Benchmark
+    public MutableState asymmetricTrapezoidReplan() {
+        asymmetricGenerator.replan(-1, 0.5, 10, 0);
+
+        return asymmetricGenerator.sample(0.02, out);
+    }
+
+    @Benchmark
+    public WaypointProfile waypointConstruct() {
+        return new WaypointProfile(
+                new TrapezoidProfile.Constraints(3, 2), new State(-1, 0.5), 2, 5, 4, 10);
+    }
+}
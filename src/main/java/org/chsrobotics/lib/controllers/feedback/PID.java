@@ -19,11 +19,13 @@ package org.chsrobotics.lib.controllers.feedback;
 import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.util.datalog.DataLog;
 import java.util.Objects;
+import org.chsrobotics.lib.math.CompensatedSum;
 import org.chsrobotics.lib.math.UtilityMath;
+import org.chsrobotics.lib.telemetry.BooleanLogger;
+import org.chsrobotics.lib.telemetry.DoubleLogger;
 import org.chsrobotics.lib.telemetry.IntrinsicLoggable;
-import org.chsrobotics.lib.telemetry.Logger;
 import org.chsrobotics.lib.telemetry.Logger.LoggerFactory;
-import org.chsrobotics.lib.util.SizedStack;
+import org.chsrobotics.lib.util.DoubleRingBuffer;
 
 /**
  * Implementation of a simple Proportional-Integral-Derivative feedback controller.
@@ -164,33 +166,44 @@ public class PID implements FeedbackController, IntrinsicLoggable {
 
     private double currentValue = 0;
 
-    private final SizedStack<Double> integrationStack;
+    // null if the integration window is infinite, as then only the running sum is needed
+    private final DoubleRingBuffer integrationBuffer;
+
+    private final CompensatedSum integrationSum = new CompensatedSum();
+
+    // non-finite values are counted instead of summed, so that they can leave the window without
+    // recomputing the sum
+    private int nanIntegrationCount = 0;
+    private int positiveInfiniteIntegrationCount = 0;
+    private int negativeInfiniteIntegrationCount = 0;
+
+    private int pushesSinceResync = 0;
 
     private boolean logsConstructed = false;
 
-    private Logger<Double> pGainLogger;
-    private Logger<Double> iGainLogger;
-    private Logger<Double> dGainLogger;
+    private DoubleLogger pGainLogger;
+    private DoubleLogger iGainLogger;
+    private DoubleLogger dGainLogger;
 
-    private Logger<Double> setpointLogger;
-    private Logger<Double> measurementLogger;
-    private Logger<Double> errorLogger;
-    private Logger<Double> integralAccumulationLogger;
-    private Logger<Double> errorVelocityLogger;
+    private DoubleLogger setpointLogger;
+    private DoubleLogger measurementLogger;
+    private DoubleLogger errorLogger;
+    private DoubleLogger integralAccumulationLogger;
+    private DoubleLogger errorVelocityLogger;
 
-    private Logger<Double> totalControlEffortLogger;
-    private Logger<Double> pControlEffortLogger;
-    private Logger<Double> iControlEffortLogger;
-    private Logger<Double> dControlEffortLogger;
+    private DoubleLogger totalControlEffortLogger;
+    private DoubleLogger pControlEffortLogger;
+    private DoubleLogger iControlEffortLogger;
+    private DoubleLogger dControlEffortLogger;
 
-    private Logger<Double> maxAbsControlEffortLogger;
-    private Logger<Double> maxAbsPContributionLogger;
-    private Logger<Double> maxAbsIContributionLogger;
-    private Logger<Double> maxAbsDContributionLogger;
+    private DoubleLogger maxAbsControlEffortLogger;
+    private DoubleLogger maxAbsPContributionLogger;
+    private DoubleLogger maxAbsIContributionLogger;
+    private DoubleLogger maxAbsDContributionLogger;
 
-    private Logger<Boolean> atSetpointLogger;
-    private Logger<Double> setpointPositionToleranceLogger;
-    private Logger<Double> setpointVelocityToleranceLogger;
+    private BooleanLogger atSetpointLogger;
+    private DoubleLogger setpointPositionToleranceLogger;
+    private DoubleLogger setpointVelocityToleranceLogger;
 
     /**
      * Constructs a PID with given gains and a finite integration window.
@@ -215,7 +228,8 @@ public class PID implements FeedbackController, IntrinsicLoggable {
         this.kI = kI;
         this.kD = kD;
 
-        integrationStack = new SizedStack<>(integrationWindow);
+        integrationBuffer =
+                (integrationWindow > 0) ? new DoubleRingBuffer(integrationWindow) : null;
 
         if (angular) {
             setpoint = MathUtil.angleModulus(initialSetpoint);
@@ -338,36 +352,35 @@ public class PID implements FeedbackController, IntrinsicLoggable {
             DataLog log, String name, String subdirName, boolean publishToNT, boolean recordInLog) {
         if (!logsConstructed) {
 
-            LoggerFactory<Double> doubleLogFactory =
+            LoggerFactory<Double> logFactory =
                     new LoggerFactory<>(log, subdirName, publishToNT, recordInLog);
 
-            pGainLogger = doubleLogFactory.getLogger(name + "/pGain");
-            iGainLogger = doubleLogFactory.getLogger(name + "/iGain");
-            dGainLogger = doubleLogFactory.getLogger(name + "/dGain");
+            pGainLogger = logFactory.getDoubleLogger(name + "/pGain");
+            iGainLogger = logFactory.getDoubleLogger(name + "/iGain");
+            dGainLogger = logFactory.getDoubleLogger(name + "/dGain");
 
-            setpointLogger = doubleLogFactory.getLogger(name + "/setpoint");
-            measurementLogger = doubleLogFactory.getLogger(name + "/measurement");
-            errorLogger = doubleLogFactory.getLogger(name + "/error");
-            integralAccumulationLogger = doubleLogFactory.getLogger(name + "/integralAccumulation");
-            errorVelocityLogger = doubleLogFactory.getLogger(name + "/errorVelocity");
+            setpointLogger = logFactory.getDoubleLogger(name + "/setpoint");
+            measurementLogger = logFactory.getDoubleLogger(name + "/measurement");
+            errorLogger = logFactory.getDoubleLogger(name + "/error");
+            integralAccumulationLogger = logFactory.getDoubleLogger(name + "/integralAccumulation");
+            errorVelocityLogger = logFactory.getDoubleLogger(name + "/errorVelocity");
 
-            totalControlEffortLogger = doubleLogFactory.getLogger(name + "/totalControlEffort");
-            pControlEffortLogger = doubleLogFactory.getLogger(name + "/pControlEffort");
-            iControlEffortLogger = doubleLogFactory.getLogger(name + "/iControlEffort");
-            dControlEffortLogger = doubleLogFactory.getLogger(name + "/dControlEffort");
+            totalControlEffortLogger = logFactory.getDoubleLogger(name + "/totalControlEffort");
+            pControlEffortLogger = logFactory.getDoubleLogger(name + "/pControlEffort");
+            iControlEffortLogger = logFactory.getDoubleLogger(name + "/iControlEffort");
+            dControlEffortLogger = logFactory.getDoubleLogger(name + "/dControlEffort");
 
-            maxAbsControlEffortLogger = doubleLogFactory.getLogger(name + "/maxAbsControlEffort");
-            maxAbsPContributionLogger = doubleLogFactory.getLogger(name + "/maxAbsPControlEffort");
-            maxAbsIContributionLogger = doubleLogFactory.getLogger(name + "/maxAbsIControlEffort");
-            maxAbsDContributionLogger = doubleLogFactory.getLogger(name + "/maxAbsDControlEffort");
+            maxAbsControlEffortLogger = logFactory.getDoubleLogger(name + "/maxAbsControlEffort");
+            maxAbsPContributionLogger = logFactory.getDoubleLogger(name + "/maxAbsPControlEffort");
+            maxAbsIContributionLogger = logFactory.getDoubleLogger(name + "/maxAbsIControlEffort");
+            maxAbsDContributionLogger = logFactory.getDoubleLogger(name + "/maxAbsDControlEffort");
 
-            atSetpointLogger =
-                    new Logger<>(log, name + "/atSetpoint", subdirName, publishToNT, recordInLog);
+            atSetpointLogger = logFactory.getBooleanLogger(name + "/atSetpoint");
 
             setpointPositionToleranceLogger =
-                    doubleLogFactory.getLogger(name + "/setpointPositionTolerance");
+                    logFactory.getDoubleLogger(name + "/setpointPositionTolerance");
             setpointVelocityToleranceLogger =
-                    doubleLogFactory.getLogger(name + "/setpointVelocityTolerance");
+                    logFactory.getDoubleLogger(name + "/setpointVelocityTolerance");
 
             logsConstructed = true;
         }
@@ -480,18 +493,71 @@ public class PID implements FeedbackController, IntrinsicLoggable {
      * @return The integral of error with respect to time from the last reset to now.
      */
     public double getIntegralAccumulation() {
-        double integrationSum = 0;
+        if (nanIntegrationCount > 0
+                || (positiveInfiniteIntegrationCount > 0 && negativeInfiniteIntegrationCount > 0)) {
+            return Double.NaN;
+        } else if (positiveInfiniteIntegrationCount > 0) return Double.POSITIVE_INFINITY;
+        else if (negativeInfiniteIntegrationCount > 0) return Double.NEGATIVE_INFINITY;
+        else return integrationSum.get();
+    }
+
+    /** Resets accumulation of past error in the integral term. */
+    public void resetIntegralAccumulation() {
+        if (integrationBuffer != null) integrationBuffer.clear();
+
+        integrationSum.reset();
+        nanIntegrationCount = 0;
+        positiveInfiniteIntegrationCount = 0;
+        negativeInfiniteIntegrationCount = 0;
+        pushesSinceResync = 0;
+    }
+
+    /**
+     * Adds a value to the integration window, keeping the running sum of the window in constant
+     * time.
+     *
+     * @param value The value to add.
+     */
+    private void accumulateIntegral(double value) {
+        addToIntegral(value);
 
-        for (double entry : integrationStack) {
-            integrationSum += entry;
+        if (integrationBuffer == null) return;
+
+        if (integrationBuffer.isFull()) subtractFromIntegral(integrationBuffer.push(value));
+        else integrationBuffer.push(value);
+
+        // once per window, recompute the sum from scratch, so any error from adding and then
+        // subtracting values of different magnitudes can't persist (and early, if the sum of
+        // finite values has overflowed)
+        pushesSinceResync++;
+
+        if (pushesSinceResync >= integrationBuffer.getCapacity()
+                || !Double.isFinite(integrationSum.get())) {
+            integrationSum.reset();
+            nanIntegrationCount = 0;
+            positiveInfiniteIntegrationCount = 0;
+            negativeInfiniteIntegrationCount = 0;
+
+            for (int i = 0; i < integrationBuffer.size(); i++) {
+                addToIntegral(integrationBuffer.get(i));
+            }
+
+            pushesSinceResync = 0;
         }
+    }
 
-        return integrationSum;
+    private void addToIntegral(double value) {
+        if (Double.isNaN(value)) nanIntegrationCount++;
+        else if (value == Double.POSITIVE_INFINITY) positiveInfiniteIntegrationCount++;
+        else if (value == Double.NEGATIVE_INFINITY) negativeInfiniteIntegrationCount++;
+        else integrationSum.add(value);
     }
 
-    /** Resets accumulation of past error in the integral term. */
-    public void resetIntegralAccumulation() {
-        integrationStack.clear();
+    private void subtractFromIntegral(double value) {
+        if (Double.isNaN(value)) nanIntegrationCount--;
+        else if (value == Double.POSITIVE_INFINITY) positiveInfiniteIntegrationCount--;
+        else if (value == Double.NEGATIVE_INFINITY) negativeInfiniteIntegrationCount--;
+        else integrationSum.subtract(value);
     }
 
     /** Resets the previous measurement used for velocity approximation for the derivative term. */
@@ -549,7 +615,7 @@ public class PID implements FeedbackController, IntrinsicLoggable {
                         ? MathUtil.inputModulus(setpoint - measurement, -Math.PI, Math.PI)
                         : setpoint - measurement;
 
-        integrationStack.push(dt * error);
+        accumulateIntegral(dt * error);
 
         if (dt == 0) { // sensible way to handle dt of zero
             velocity = 0;
@@ -557,14 +623,8 @@ public class PID implements FeedbackController, IntrinsicLoggable {
             velocity = ((error - (lastSetpoint - lastMeasurement)) / dt);
         }
 
-        double integrationSum = 0;
-
-        for (double entry : integrationStack) {
-            integrationSum += entry;
-        }
-
         double rawP = kP * (error);
-        double rawI = kI * integrationSum;
+        double rawI = kI * getIntegralAccumulation();
         double rawD = kD * velocity;
 
         if (Math.abs(maxAbsPContribution) == 0) lastPContribution = rawP;
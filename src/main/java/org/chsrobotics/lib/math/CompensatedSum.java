@@ -0,0 +1,84 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math;
+
+/**
+ * Running sum of doubles which tracks the rounding error lost by each addition, using Neumaier's
+ * variant of Kahan summation.
+ *
+ * <p>The error of a naive running sum grows with the number of terms added, which matters for
+ * sums kept across an entire match (integrals, for example). The error of a compensated sum stays
+ * on the order of a single rounding, independent of the number of terms, including when terms are
+ * later subtracted back out.
+ *
+ * <p>Adding a term is constant-time and allocation-free.
+ */
+public class CompensatedSum {
+    private double sum = 0;
+    private double compensation = 0;
+
+    /** Constructs a CompensatedSum with a value of 0. */
+    public CompensatedSum() {}
+
+    /**
+     * Adds a term to the sum.
+     *
+     * @param value The term to add.
+     */
+    public void add(double value) {
+        double total = sum + value;
+
+        // recover the low-order bits lost to rounding from whichever operand was smaller
+        if (Math.abs(sum) >= Math.abs(value)) compensation += (sum - total) + value;
+        else compensation += (value - total) + sum;
+
+        sum = total;
+    }
+
+    /**
+     * Subtracts a term from the sum.
+     *
+     * @param value The term to subtract.
+     */
+    public void subtract(double value) {
+        add(-value);
+    }
+
+    /**
+     * Returns the compensated value of the sum.
+     *
+     * @return The sum of all added terms.
+     */
+    public double get() {
+        return sum + compensation;
+    }
+
+    /**
+     * Sets the sum to a value, discarding any accumulated compensation.
+     *
+     * @param value The new value of the sum.
+     */
+    public void set(double value) {
+        sum = value;
+        compensation = 0;
+    }
+
+    /** Resets the sum to 0. */
+    public void reset() {
+        set(0);
+    }
+}
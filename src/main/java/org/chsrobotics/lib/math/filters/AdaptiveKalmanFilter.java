@@ -0,0 +1,197 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import java.security.InvalidParameterException;
+
+/**
+ * Kalman filter which estimates the position and velocity of something moving at a roughly constant
+ * velocity, from measurements of its position with noise of unknown or changing magnitude. Outputs
+ * the position estimate; the velocity estimate is available from {@link #getVelocity()}.
+ *
+ * <p>Unlike a {@link ConstantVelocityKalmanFilter}, this propagates the full covariance of its
+ * estimate each update, so it handles varying update periods exactly. It also estimates the
+ * variance of the measurement noise online, by matching it to the observed variance of the
+ * residuals (the difference between each measurement and its prediction), so the filter trusts
+ * measurements less as they get noisier.
+ *
+ * <p>Each call of {@code calculate()} is a few dozen arithmetic operations on primitive fields, and
+ * allocation-free.
+ */
+public class AdaptiveKalmanFilter extends Filter {
+    private static final double defaultDtSeconds = 0.02;
+
+    // initial variance of the velocity estimate, large enough to be effectively unknown
+    private static final double initialVelocityVariance = 1e9;
+
+    // floor on the estimated measurement variance, relative to the initial estimate, so that a run
+    // of near-perfect measurements can't make the filter ignore its model entirely
+    private static final double minVarianceRatio = 1e-4;
+
+    private final double accelerationVariance;
+    private final double initialMeasurementVariance;
+    private final double adaptationRate;
+
+    private boolean initialized = false;
+
+    private double position = 0;
+    private double velocity = 0;
+
+    // covariance of the estimate
+    private double positionVariance = 0;
+    private double covariance = 0;
+    private double velocityVariance = 0;
+
+    private double measurementVariance;
+
+    /**
+     * Constructs an AdaptiveKalmanFilter.
+     *
+     * @param accelerationStdDev The standard deviation of the (unmodeled) acceleration between
+     *     updates, in units/second^2. Higher values track changes in velocity faster, but reject
+     *     less noise. Must be positive.
+     * @param initialMeasurementStdDev The initial estimate of the standard deviation of the noise
+     *     in the measurements, in units. Must be positive.
+     * @param adaptationRate How quickly the estimate of measurement noise follows the observed
+     *     residuals, in [0,1]. Roughly the reciprocal of the number of updates the estimate
+     *     averages over. If 0, the measurement noise is fixed at its initial estimate.
+     */
+    public AdaptiveKalmanFilter(
+            double accelerationStdDev, double initialMeasurementStdDev, double adaptationRate) {
+        if (accelerationStdDev <= 0 || initialMeasurementStdDev <= 0) {
+            throw new InvalidParameterException("Noise standard deviations must be positive!");
+        }
+
+        if (adaptationRate < 0 || adaptationRate > 1) {
+            throw new InvalidParameterException("Adaptation rate must be in [0,1]!");
+        }
+
+        accelerationVariance = accelerationStdDev * accelerationStdDev;
+        initialMeasurementVariance = initialMeasurementStdDev * initialMeasurementStdDev;
+        this.adaptationRate = adaptationRate;
+
+        measurementVariance = initialMeasurementVariance;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double calculate(double value) {
+        return calculate(value, defaultDtSeconds);
+    }
+
+    @Override
+    /**
+     * Updates the estimate with a new measurement of position.
+     *
+     * @param value The measured position.
+     * @param dtSeconds The change in time since the last measurement, in seconds.
+     * @return The estimated position.
+     */
+    public double calculate(double value, double dtSeconds) {
+        if (!initialized) {
+            position = value;
+
+            positionVariance = measurementVariance;
+            covariance = 0;
+            velocityVariance = initialVelocityVariance;
+
+            initialized = true;
+
+            return position;
+        }
+
+        double dt = Math.max(0, dtSeconds);
+        double dt2 = dt * dt;
+
+        // predict, with acceleration as white noise held constant over each update
+        position += velocity * dt;
+
+        positionVariance +=
+                (dt * ((2 * covariance) + (dt * velocityVariance)))
+                        + (accelerationVariance * dt2 * dt2 / 4);
+        covariance += (dt * velocityVariance) + (accelerationVariance * dt2 * dt / 2);
+        velocityVariance += accelerationVariance * dt2;
+
+        double residual = value - position;
+
+        // the expected squared residual is the variance of the prediction plus that of the
+        // measurement, so the excess over the prediction's variance estimates the measurement's
+        if (adaptationRate > 0) {
+            double observed = (residual * residual) - positionVariance;
+
+            measurementVariance =
+                    Math.max(
+                            initialMeasurementVariance * minVarianceRatio,
+                            ((1 - adaptationRate) * measurementVariance)
+                                    + (adaptationRate * observed));
+        }
+
+        // update
+        double residualVariance = positionVariance + measurementVariance;
+
+        double positionGain = positionVariance / residualVariance;
+        double velocityGain = covariance / residualVariance;
+
+        position += positionGain * residual;
+        velocity += velocityGain * residual;
+
+        velocityVariance -= velocityGain * covariance;
+        positionVariance *= 1 - positionGain;
+        covariance *= 1 - positionGain;
+
+        return position;
+    }
+
+    /**
+     * Returns the current estimate of velocity.
+     *
+     * @return The estimated velocity, in units/second.
+     */
+    public double getVelocity() {
+        return velocity;
+    }
+
+    /**
+     * Returns the current estimate of the standard deviation of the measurement noise.
+     *
+     * @return The estimated measurement noise, in units.
+     */
+    public double getMeasurementStdDev() {
+        return Math.sqrt(measurementVariance);
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void reset() {
+        initialized = false;
+
+        position = 0;
+        velocity = 0;
+
+        positionVariance = 0;
+        covariance = 0;
+        velocityVariance = 0;
+
+        measurementVariance = initialMeasurementVariance;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double getCurrentOutput() {
+        return position;
+    }
+}
@@ -0,0 +1,322 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+
+/**
+ * An IIR filter made of a cascade of second-order sections ("biquads"), each the digital transfer
+ * function {@code (b0 + b1 z^-1 + b2 z^-2) / (1 + a1 z^-1 + a2 z^-2)}.
+ *
+ * <p>Cascading second-order sections allows filters of any order which remain numerically stable,
+ * unlike a single high-order difference equation. A Butterworth low-pass of order 4 has a much
+ * sharper cutoff than a chain of {@link ExponentialMovingAverage}s, for about the same cost.
+ *
+ * <p>Designs for Butterworth low-pass, high-pass, and band-pass filters, and for notch filters, are
+ * provided by the static factory methods. Each section is evaluated in transposed direct form II,
+ * with its coefficients and state stored in primitive arrays, so {@code calculate()} never
+ * allocates.
+ *
+ * <p>The coefficients are designed for a fixed sample rate, so the change in time passed to {@code
+ * calculate()} is ignored. This filter should be updated at the rate it was designed for.
+ */
+public class BiquadFilter extends Filter {
+    private final double[] b0;
+    private final double[] b1;
+    private final double[] b2;
+    private final double[] a1;
+    private final double[] a2;
+
+    // transposed direct form II state of each section
+    private final double[] s1;
+    private final double[] s2;
+
+    private double currentOutput = 0;
+
+    /**
+     * Constructs a BiquadFilter from the coefficients of its sections.
+     *
+     * @param sections The coefficients of each second-order section, in the order they're applied,
+     *     as arrays of {@code {b0, b1, b2, a1, a2}}, normalized so that {@code a0} is 1. A
+     *     first-order section has {@code b2} and {@code a2} of 0.
+     * @throws InvalidParameterException If there are no sections, or a section does not have 5
+     *     coefficients.
+     */
+    public BiquadFilter(double[]... sections) {
+        if (sections.length == 0) {
+            throw new InvalidParameterException("BiquadFilter must have at least one section!");
+        }
+
+        b0 = new double[sections.length];
+        b1 = new double[sections.length];
+        b2 = new double[sections.length];
+        a1 = new double[sections.length];
+        a2 = new double[sections.length];
+
+        s1 = new double[sections.length];
+        s2 = new double[sections.length];
+
+        for (int i = 0; i < sections.length; i++) {
+            double[] section = sections[i];
+
+            if (section.length != 5) {
+                throw new InvalidParameterException(
+                        "Each section must have 5 coefficients {b0, b1, b2, a1, a2}!");
+            }
+
+            b0[i] = section[0];
+            b1[i] = section[1];
+            b2[i] = section[2];
+            a1[i] = section[3];
+            a2[i] = section[4];
+        }
+    }
+
+    /**
+     * Constructs a Butterworth (maximally flat passband) low-pass filter.
+     *
+     * @param order The order of the filter. Higher orders attenuate frequencies above the cutoff
+     *     more sharply, at the cost of more delay. Must be at least 1.
+     * @param cutoffHz The frequency at which the filter attenuates by 3 dB, in Hz. Must be positive
+     *     and less than half the sample rate.
+     * @param sampleRateHz The rate at which the filter will be updated, in Hz.
+     * @return A new BiquadFilter.
+     */
+    public static BiquadFilter butterworthLowPass(int order, double cutoffHz, double sampleRateHz) {
+        return new BiquadFilter(
+                butterworthSections(order, cutoffHz, sampleRateHz, false)
+                        .toArray(new double[0][]));
+    }
+
+    /**
+     * Constructs a Butterworth (maximally flat passband) high-pass filter.
+     *
+     * @param order The order of the filter. Higher orders attenuate frequencies below the cutoff
+     *     more sharply, at the cost of more delay. Must be at least 1.
+     * @param cutoffHz The frequency at which the filter attenuates by 3 dB, in Hz. Must be positive
+     *     and less than half the sample rate.
+     * @param sampleRateHz The rate at which the filter will be updated, in Hz.
+     * @return A new BiquadFilter.
+     */
+    public static BiquadFilter butterworthHighPass(
+            int order, double cutoffHz, double sampleRateHz) {
+        return new BiquadFilter(
+                butterworthSections(order, cutoffHz, sampleRateHz, true)
+                        .toArray(new double[0][]));
+    }
+
+    /**
+     * Constructs a band-pass filter, as a Butterworth high-pass at the lower edge of the band
+     * cascaded with a Butterworth low-pass at the upper edge.
+     *
+     * <p>This is best suited to bands which span at least an octave. For a narrow band around a
+     * single frequency, the edges attenuate each other and the passband gain drops below 1.
+     *
+     * @param order The order of each of the high- and low-pass halves. Must be at least 1.
+     * @param lowCutoffHz The lower edge of the band, in Hz. Must be positive.
+     * @param highCutoffHz The upper edge of the band, in Hz. Must be greater than the lower edge
+     *     and less than half the sample rate.
+     * @param sampleRateHz The rate at which the filter will be updated, in Hz.
+     * @return A new BiquadFilter.
+     */
+    public static BiquadFilter butterworthBandPass(
+            int order, double lowCutoffHz, double highCutoffHz, double sampleRateHz) {
+        if (highCutoffHz <= lowCutoffHz) {
+            throw new InvalidParameterException(
+                    "Upper edge of band must be greater than the lower edge!");
+        }
+
+        ArrayList<double[]> sections =
+                butterworthSections(order, lowCutoffHz, sampleRateHz, true);
+        sections.addAll(butterworthSections(order, highCutoffHz, sampleRateHz, false));
+
+        return new BiquadFilter(sections.toArray(new double[0][]));
+    }
+
+    /**
+     * Constructs a notch (band-stop) filter, which removes a single frequency while passing the
+     * rest of the spectrum with a gain of 1.
+     *
+     * @param centerHz The frequency to remove, in Hz. Must be positive and less than half the
+     *     sample rate.
+     * @param qualityFactor The ratio of the center frequency to the width of the notch. Higher
+     *     values give a narrower notch. Must be positive.
+     * @param sampleRateHz The rate at which the filter will be updated, in Hz.
+     * @return A new BiquadFilter.
+     */
+    public static BiquadFilter notch(double centerHz, double qualityFactor, double sampleRateHz) {
+        checkFrequency(centerHz, sampleRateHz);
+
+        if (qualityFactor <= 0) {
+            throw new InvalidParameterException("Quality factor must be positive!");
+        }
+
+        double w0 = 2 * Math.PI * centerHz / sampleRateHz;
+        double cos = Math.cos(w0);
+        double alpha = Math.sin(w0) / (2 * qualityFactor);
+        double a0 = 1 + alpha;
+
+        return new BiquadFilter(
+                new double[] {1 / a0, -2 * cos / a0, 1 / a0, -2 * cos / a0, (1 - alpha) / a0});
+    }
+
+    private static void checkFrequency(double frequencyHz, double sampleRateHz) {
+        if (sampleRateHz <= 0) throw new InvalidParameterException("Sample rate must be positive!");
+
+        if (frequencyHz <= 0 || frequencyHz >= sampleRateHz / 2) {
+            throw new InvalidParameterException(
+                    "Frequency must be positive and less than half the sample rate!");
+        }
+    }
+
+    private static ArrayList<double[]> butterworthSections(
+            int order, double cutoffHz, double sampleRateHz, boolean highPass) {
+        if (order < 1) throw new InvalidParameterException("Order must be at least 1!");
+
+        checkFrequency(cutoffHz, sampleRateHz);
+
+        ArrayList<double[]> sections = new ArrayList<>();
+
+        double w0 = 2 * Math.PI * cutoffHz / sampleRateHz;
+        double cos = Math.cos(w0);
+        double sin = Math.sin(w0);
+
+        // each conjugate pair of analog poles becomes one section, with a quality factor set by
+        // the angle of the pair, and the bilinear transform pre-warped to the cutoff
+        for (int k = 0; k < order / 2; k++) {
+            double q = 1 / (2 * Math.sin(Math.PI * (2 * k + 1) / (2 * order)));
+            double alpha = sin / (2 * q);
+            double a0 = 1 + alpha;
+
+            double b = (highPass ? (1 + cos) : (1 - cos)) / (2 * a0);
+
+            sections.add(
+                    new double[] {
+                        b, highPass ? -2 * b : 2 * b, b, -2 * cos / a0, (1 - alpha) / a0
+                    });
+        }
+
+        // odd orders have a single real pole, which becomes a first-order section
+        if (order % 2 == 1) {
+            double k = Math.tan(w0 / 2);
+            double a0 = 1 + k;
+
+            double b = (highPass ? 1 : k) / a0;
+
+            sections.add(new double[] {b, highPass ? -b : b, 0, (k - 1) / a0, 0});
+        }
+
+        return sections;
+    }
+
+    /**
+     * Returns the number of second-order sections in the filter.
+     *
+     * @return The number of sections.
+     */
+    public int getSectionCount() {
+        return b0.length;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double calculate(double value) {
+        double x = value;
+
+        for (int i = 0; i < b0.length; i++) {
+            double y = b0[i] * x + s1[i];
+
+            s1[i] = b1[i] * x - a1[i] * y + s2[i];
+            s2[i] = b2[i] * x - a2[i] * y;
+
+            x = y;
+        }
+
+        currentOutput = x;
+
+        return x;
+    }
+
+    @Override
+    /**
+     * Adds the value to the filter and calculates the current output. The change in time is
+     * ignored, as the filter is designed for a fixed sample rate.
+     *
+     * @param value The value to input to the filter.
+     * @param dtSeconds The change in time since the last call of the filter.
+     * @return The current output of the filter.
+     */
+    public double calculate(double value, double dtSeconds) {
+        return calculate(value);
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void calculate(double[] values, double[] dtSeconds, double[] outputs) {
+        checkBatchLengths(values, dtSeconds, outputs);
+
+        if (values.length == 0) return;
+
+        if (outputs != values) System.arraycopy(values, 0, outputs, 0, values.length);
+
+        // run each section over the whole series in turn, so its coefficients and state stay in
+        // registers
+        for (int i = 0; i < b0.length; i++) {
+            double sb0 = b0[i];
+            double sb1 = b1[i];
+            double sb2 = b2[i];
+            double sa1 = a1[i];
+            double sa2 = a2[i];
+
+            double z1 = s1[i];
+            double z2 = s2[i];
+
+            for (int j = 0; j < outputs.length; j++) {
+                double x = outputs[j];
+                double y = sb0 * x + z1;
+
+                z1 = sb1 * x - sa1 * y + z2;
+                z2 = sb2 * x - sa2 * y;
+
+                outputs[j] = y;
+            }
+
+            s1[i] = z1;
+            s2[i] = z2;
+        }
+
+        currentOutput = outputs[outputs.length - 1];
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void reset() {
+        for (int i = 0; i < b0.length; i++) {
+            s1[i] = 0;
+            s2[i] = 0;
+        }
+
+        currentOutput = 0;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double getCurrentOutput() {
+        return currentOutput;
+    }
+}
@@ -17,6 +17,7 @@ If not, see <https://www.gnu.org/licenses/>.
 package org.chsrobotics.lib.math.filters;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 
 /**
@@ -26,6 +27,9 @@ import java.util.List;
 public class ComposedFilter extends Filter {
     private final ArrayList<Filter> filters;
 
+    // whether a filter instance is used by more than one stage, so batches can't be run by stage
+    private final boolean hasSharedInstances;
+
     private double currentOuput = 0;
 
     /**
@@ -37,6 +41,55 @@ public class ComposedFilter extends Filter {
      */
     public ComposedFilter(List<Filter> filters) {
         this.filters = new ArrayList<>(filters);
+
+        IdentityHashMap<Filter, Integer> stages = new IdentityHashMap<>();
+        boolean shared = false;
+
+        for (int i = 0; i < this.filters.size(); i++) {
+            shared |= findSharedInstances(this.filters.get(i), i, stages);
+        }
+
+        hasSharedInstances = shared;
+    }
+
+    /**
+     * Records the stage using a filter and every filter nested inside it.
+     *
+     * @return Whether any of those filters is also used by an earlier stage.
+     */
+    private static boolean findSharedInstances(
+            Filter filter, int stage, IdentityHashMap<Filter, Integer> stages) {
+        Integer previous = stages.putIfAbsent(filter, stage);
+
+        if (previous != null) return previous != stage;
+
+        Class<?> type = filter.getClass();
+        boolean shared = false;
+
+        if (type == ComposedFilter.class) {
+            for (Filter inner : ((ComposedFilter) filter).getFilters()) {
+                shared |= findSharedInstances(inner, stage, stages);
+            }
+        } else if (type == MultipliedFilter.class) {
+            shared = findSharedInstances(((MultipliedFilter) filter).filter, stage, stages);
+        } else if (type == AddedFilter.class) {
+            AddedFilter added = (AddedFilter) filter;
+
+            shared =
+                    findSharedInstances(added.filterA, stage, stages)
+                            | findSharedInstances(added.filterB, stage, stages);
+        }
+
+        return shared;
+    }
+
+    /**
+     * Returns the filters this is composed of, innermost first.
+     *
+     * @return The composed filters.
+     */
+    List<Filter> getFilters() {
+        return filters;
     }
 
     @Override
@@ -64,6 +117,31 @@ public class ComposedFilter extends Filter {
         return currentOuput;
     }
 
+    @Override
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Each composed filter processes the whole series before the next, in place in {@code
+     * outputs}. If the same filter instance is used by more than one stage, its state would be
+     * updated out of order this way, so the series is instead processed one value at a time.
+     */
+    public void calculate(double[] values, double[] dtSeconds, double[] outputs) {
+        if (hasSharedInstances) {
+            super.calculate(values, dtSeconds, outputs);
+            return;
+        }
+
+        checkBatchLengths(values, dtSeconds, outputs);
+
+        if (filters.isEmpty()) System.arraycopy(values, 0, outputs, 0, values.length);
+
+        for (int i = 0; i < filters.size(); i++) {
+            filters.get(i).calculate((i == 0) ? values : outputs, dtSeconds, outputs);
+        }
+
+        if (outputs.length > 0) currentOuput = outputs[outputs.length - 1];
+    }
+
     @Override
     /** {@inheritDoc} */
     public void reset() {
@@ -0,0 +1,174 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import java.security.InvalidParameterException;
+
+/**
+ * Kalman filter which estimates the position and velocity of something moving at a roughly constant
+ * velocity, from noisy measurements of its position. Outputs the position estimate; the velocity
+ * estimate is available from {@link #getVelocity()}.
+ *
+ * <p>For a fixed update period, the gains of a Kalman filter converge to constants, which for this
+ * model have a closed form (an alpha-beta filter with gains from Kalata's tracking index). This
+ * filter uses those steady-state gains from the start, so each call of {@code calculate()} is only
+ * a handful of multiplies, with no covariance to propagate. This replaces a chain of an {@link
+ * ExponentialMovingAverage} and a {@link DifferentiatingFilter} with a better estimate of both
+ * position and velocity, at lower cost.
+ *
+ * <p>If the noise of the measurements changes over time, or the update period varies widely, use
+ * an {@link AdaptiveKalmanFilter} instead.
+ */
+public class ConstantVelocityKalmanFilter extends Filter {
+    private final double periodSeconds;
+
+    private final double positionGain;
+    private final double velocityGain;
+
+    private boolean initialized = false;
+
+    private double position = 0;
+    private double velocity = 0;
+
+    /**
+     * Constructs a ConstantVelocityKalmanFilter.
+     *
+     * @param accelerationStdDev The standard deviation of the (unmodeled) acceleration between
+     *     updates, in units/second^2. Higher values track changes in velocity faster, but reject
+     *     less noise. Must be positive.
+     * @param measurementStdDev The standard deviation of the noise in the measurements, in units.
+     *     Must be positive.
+     * @param periodSeconds The period the filter will be updated at, in seconds. Must be positive.
+     */
+    public ConstantVelocityKalmanFilter(
+            double accelerationStdDev, double measurementStdDev, double periodSeconds) {
+        if (accelerationStdDev <= 0 || measurementStdDev <= 0 || periodSeconds <= 0) {
+            throw new InvalidParameterException(
+                    "Noise standard deviations and period must be positive!");
+        }
+
+        this.periodSeconds = periodSeconds;
+
+        // Kalata's tracking index: the ratio of process to measurement noise, over one period
+        double trackingIndex =
+                accelerationStdDev * periodSeconds * periodSeconds / measurementStdDev;
+
+        double r =
+                (4
+                                + trackingIndex
+                                - Math.sqrt((8 * trackingIndex) + (trackingIndex * trackingIndex)))
+                        / 4;
+
+        double alpha = 1 - (r * r);
+        double beta = (2 * (2 - alpha)) - (4 * Math.sqrt(1 - alpha));
+
+        positionGain = alpha;
+        velocityGain = beta / periodSeconds;
+    }
+
+    /**
+     * Constructs a ConstantVelocityKalmanFilter for the default robot loop period of 20
+     * milliseconds.
+     *
+     * @param accelerationStdDev The standard deviation of the (unmodeled) acceleration between
+     *     updates, in units/second^2. Must be positive.
+     * @param measurementStdDev The standard deviation of the noise in the measurements, in units.
+     *     Must be positive.
+     */
+    public ConstantVelocityKalmanFilter(double accelerationStdDev, double measurementStdDev) {
+        this(accelerationStdDev, measurementStdDev, 0.02);
+    }
+
+    /**
+     * Returns the steady-state gain applied to the position residual when updating the position
+     * estimate.
+     *
+     * @return The position gain, in [0,1].
+     */
+    public double getPositionGain() {
+        return positionGain;
+    }
+
+    /**
+     * Returns the steady-state gain applied to the position residual when updating the velocity
+     * estimate.
+     *
+     * @return The velocity gain, in 1/seconds.
+     */
+    public double getVelocityGain() {
+        return velocityGain;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double calculate(double value) {
+        return calculate(value, periodSeconds);
+    }
+
+    @Override
+    /**
+     * Updates the estimate with a new measurement of position.
+     *
+     * <p>The gains are fixed for the period given at construction, so {@code dtSeconds} is only
+     * used to predict the position from the velocity estimate.
+     *
+     * @param value The measured position.
+     * @param dtSeconds The change in time since the last measurement, in seconds.
+     * @return The estimated position.
+     */
+    public double calculate(double value, double dtSeconds) {
+        if (!initialized) {
+            position = value;
+            initialized = true;
+
+            return position;
+        }
+
+        position += velocity * dtSeconds;
+
+        double residual = value - position;
+
+        position += positionGain * residual;
+        velocity += velocityGain * residual;
+
+        return position;
+    }
+
+    /**
+     * Returns the current estimate of velocity.
+     *
+     * @return The estimated velocity, in units/second.
+     */
+    public double getVelocity() {
+        return velocity;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void reset() {
+        initialized = false;
+
+        position = 0;
+        velocity = 0;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double getCurrentOutput() {
+        return position;
+    }
+}
@@ -64,6 +64,32 @@ public class DifferentiatingFilter extends Filter {
         return calculate(value, defaultRobotPeriodSeconds);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void calculate(double[] values, double[] dtSeconds, double[] outputs) {
+        checkBatchLengths(values, dtSeconds, outputs);
+
+        double previous = lastValue;
+        double deriv = currentDeriv;
+
+        for (int i = 0; i < values.length; i++) {
+            double dt = (dtSeconds == null) ? defaultRobotPeriodSeconds : dtSeconds[i];
+
+            if (dt == 0) outputs[i] = 0;
+            else {
+                double value = values[i];
+
+                deriv = (value - previous) / dt;
+                previous = value;
+
+                outputs[i] = deriv;
+            }
+        }
+
+        lastValue = previous;
+        currentDeriv = deriv;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void reset() {
@@ -16,16 +16,33 @@ If not, see <https://www.gnu.org/licenses/>.
 */
 package org.chsrobotics.lib.math.filters;
 
+import java.security.InvalidParameterException;
+
 /**
  * An IIR variation upon the moving average. Instead of moving outside of the window, a past value's
  * influence over the filter's current value approaches but never reaches zero.
+ *
+ * <p>By default, the filter blends each new value in with a fixed response constant, regardless of
+ * the time between values. A filter constructed with {@link #withTimeConstant(double)} instead
+ * computes the response constant from each {@code dt}, so its bandwidth stays the same when the
+ * loop period jitters or overruns.
  */
 public class ExponentialMovingAverage extends Filter {
+    private static final double defaultDtSeconds = 0.02;
 
     private final double responseConstant;
 
+    // 0 if this uses a fixed response constant
+    private final double timeConstantSeconds;
+
     private double lastOutput = 0;
 
+    // the response constant for the last dt seen, as loop periods rarely change between calls
+    private double cachedDtSeconds = Double.NaN;
+    private double cachedResponseConstant = 0;
+
+    private double lastTimestampSeconds = Double.NaN;
+
     /**
      * Constructs an ExponentialMovingAverage.
      *
@@ -35,27 +52,157 @@ public class ExponentialMovingAverage extends Filter {
      *     0 gives a filter that never changes from its initial value (0 in this implementation).
      */
     public ExponentialMovingAverage(double responseConstant) {
+        this(responseConstant, 0);
+    }
+
+    private ExponentialMovingAverage(double responseConstant, double timeConstantSeconds) {
         this.responseConstant = responseConstant;
+        this.timeConstantSeconds = timeConstantSeconds;
+    }
+
+    /**
+     * Constructs an ExponentialMovingAverage which accounts for the time between values.
+     *
+     * <p>The response constant for a value is {@code 1 - e^(-dt / timeConstant)}, so the filter
+     * reaches ~63% of a step input after {@code timeConstant} seconds, no matter how often it's
+     * updated. The exponential is only re-evaluated when {@code dt} changes.
+     *
+     * @param timeConstantSeconds The time constant of the filter, in seconds. Must be positive.
+     * @return A new time-based ExponentialMovingAverage.
+     */
+    public static ExponentialMovingAverage withTimeConstant(double timeConstantSeconds) {
+        if (timeConstantSeconds <= 0) {
+            throw new InvalidParameterException("Time constant must be positive!");
+        }
+
+        return new ExponentialMovingAverage(0, timeConstantSeconds);
+    }
+
+    /**
+     * Returns the response constant of the filter.
+     *
+     * @return The response constant, in [0,1].
+     */
+    double getResponseConstant() {
+        return responseConstant;
+    }
+
+    /**
+     * Returns whether this computes its response constant from the time between values.
+     *
+     * @return Whether this was constructed with a time constant.
+     */
+    public boolean isTimeBased() {
+        return timeConstantSeconds != 0;
+    }
+
+    private double responseConstantFor(double dtSeconds) {
+        if (timeConstantSeconds == 0) return responseConstant;
+
+        if (dtSeconds != cachedDtSeconds) {
+            cachedDtSeconds = dtSeconds;
+
+            // 1 - e^(-dt / tau), with negative dt treated as no time passing
+            cachedResponseConstant = -Math.expm1(-Math.max(0, dtSeconds) / timeConstantSeconds);
+        }
+
+        return cachedResponseConstant;
     }
 
     @Override
-    /** {@inheritDoc} */
+    /**
+     * Adds the value to the filter and calculates the current output. If the filter is
+     * time-based, uses 20 milliseconds (the robot loop period) for dt.
+     *
+     * @param value The value to input to the filter.
+     * @return The current output of the filter.
+     */
     public double calculate(double value) {
-        lastOutput = (value * responseConstant) + ((1 - responseConstant) * lastOutput);
+        return calculate(value, defaultDtSeconds);
+    }
+
+    @Override
+    /**
+     * Adds the value to the filter and calculates the current output. The change in time is
+     * ignored unless the filter is time-based.
+     *
+     * @param value The value to input to the filter.
+     * @param dtSeconds The change in time since the last call of the filter.
+     * @return The current output of the filter.
+     */
+    public double calculate(double value, double dtSeconds) {
+        double k = responseConstantFor(dtSeconds);
+
+        lastOutput = (value * k) + ((1 - k) * lastOutput);
 
         return lastOutput;
     }
 
     @Override
     /** {@inheritDoc} */
-    public double calculate(double value, double dtSeconds) {
-        return calculate(value);
+    public void calculate(double[] values, double[] dtSeconds, double[] outputs) {
+        checkBatchLengths(values, dtSeconds, outputs);
+
+        double output = lastOutput;
+
+        if (timeConstantSeconds == 0) {
+            double decay = 1 - responseConstant;
+
+            for (int i = 0; i < values.length; i++) {
+                output = (values[i] * responseConstant) + (decay * output);
+                outputs[i] = output;
+            }
+        } else {
+            for (int i = 0; i < values.length; i++) {
+                double k =
+                        responseConstantFor((dtSeconds == null) ? defaultDtSeconds : dtSeconds[i]);
+
+                output = (values[i] * k) + ((1 - k) * output);
+                outputs[i] = output;
+            }
+        }
+
+        lastOutput = output;
+    }
+
+    /**
+     * Calculates the outputs of the filter for a series of timestamped values, such as replayed
+     * log data with irregular timing.
+     *
+     * <p>The change in time before each value is the difference between its timestamp and the
+     * previous one. For the first value, the previous timestamp is the last one given to this
+     * method, or if there isn't one (or the filter was reset since), 20 milliseconds is used.
+     *
+     * @param values The values to input to the filter.
+     * @param timestampsSeconds The timestamp of each value, in seconds. Should be non-decreasing.
+     * @param outputs The array to write the output of the filter after each value into. May be the
+     *     same array as {@code values}.
+     * @throws InvalidParameterException If the arrays are not all the same length.
+     */
+    public void calculateTimestamped(
+            double[] values, double[] timestampsSeconds, double[] outputs) {
+        checkBatchLengths(values, timestampsSeconds, outputs);
+
+        double lastTimestamp = lastTimestampSeconds;
+
+        for (int i = 0; i < values.length; i++) {
+            double timestamp = timestampsSeconds[i];
+
+            double dt = Double.isNaN(lastTimestamp) ? defaultDtSeconds : timestamp - lastTimestamp;
+
+            outputs[i] = calculate(values[i], dt);
+
+            lastTimestamp = timestamp;
+        }
+
+        lastTimestampSeconds = lastTimestamp;
     }
 
     @Override
     /** {@inheritDoc} */
     public void reset() {
         lastOutput = 0;
+        lastTimestampSeconds = Double.NaN;
     }
 
     @Override
@@ -0,0 +1,89 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import java.util.Arrays;
+
+/**
+ * Bank of {@link ExponentialMovingAverage}s with a shared response constant, one per channel.
+ *
+ * <p>Equivalent to (but much cheaper than) calling a separate ExponentialMovingAverage for each
+ * channel.
+ */
+public class ExponentialMovingAverageBank extends FilterBank {
+    private final double responseConstant;
+
+    private final double[] lastOutputs;
+
+    /**
+     * Constructs an ExponentialMovingAverageBank.
+     *
+     * @param channelCount The number of channels in the bank. Must be positive.
+     * @param responseConstant Parameter dictating how quickly the filter should react to a new
+     *     value. Must be in [0,1] (inclusive). See {@link
+     *     ExponentialMovingAverage#ExponentialMovingAverage(double)}.
+     */
+    public ExponentialMovingAverageBank(int channelCount, double responseConstant) {
+        super(channelCount);
+
+        this.responseConstant = responseConstant;
+
+        lastOutputs = new double[channelCount];
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void calculate(double[] values, double dtSeconds, double[] outputs) {
+        checkChannelLength(values);
+        checkChannelLength(outputs);
+
+        double decay = 1 - responseConstant;
+
+        for (int i = 0; i < channelCount; i++) {
+            double output = (values[i] * responseConstant) + (decay * lastOutputs[i]);
+
+            lastOutputs[i] = output;
+            outputs[i] = output;
+        }
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double getCurrentOutput(int channel) {
+        return lastOutputs[channel];
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void getCurrentOutputs(double[] outputs) {
+        checkChannelLength(outputs);
+
+        System.arraycopy(lastOutputs, 0, outputs, 0, channelCount);
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void reset() {
+        Arrays.fill(lastOutputs, 0);
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void reset(int channel) {
+        lastOutputs[channel] = 0;
+    }
+}
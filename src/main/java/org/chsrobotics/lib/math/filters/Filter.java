@@ -16,6 +16,8 @@ If not, see <https://www.gnu.org/licenses/>.
 */
 package org.chsrobotics.lib.math.filters;
 
+import java.security.InvalidParameterException;
+
 /** Common superclass for this library's filters. */
 public abstract class Filter {
     /**
@@ -40,6 +42,44 @@ public abstract class Filter {
      */
     public abstract double calculate(double value, double dtSeconds);
 
+    /**
+     * Calculates the outputs of the filter for a series of values, in order, exactly as if {@code
+     * calculate()} were called on each value in turn.
+     *
+     * <p>Subclasses override this with tight loops over the arrays, which makes replaying recorded
+     * data or filtering many samples at once much cheaper than a call per sample.
+     *
+     * @param values The values to input to the filter.
+     * @param dtSeconds The change in time before each value. If {@code null}, each value is treated
+     *     as {@code calculate(value)} would treat it.
+     * @param outputs The array to write the output of the filter after each value into. May be the
+     *     same array as {@code values}.
+     * @throws InvalidParameterException If the arrays are not all the same length.
+     */
+    public void calculate(double[] values, double[] dtSeconds, double[] outputs) {
+        checkBatchLengths(values, dtSeconds, outputs);
+
+        for (int i = 0; i < values.length; i++) {
+            outputs[i] =
+                    (dtSeconds == null) ? calculate(values[i]) : calculate(values[i], dtSeconds[i]);
+        }
+    }
+
+    /**
+     * Checks that the arrays given to a batch {@code calculate()} are the same length.
+     *
+     * @param values The values to input to the filter.
+     * @param dtSeconds The changes in time, or {@code null}.
+     * @param outputs The array to write outputs into.
+     * @throws InvalidParameterException If the arrays are not all the same length.
+     */
+    protected static void checkBatchLengths(double[] values, double[] dtSeconds, double[] outputs) {
+        if (outputs.length != values.length
+                || (dtSeconds != null && dtSeconds.length != values.length)) {
+            throw new InvalidParameterException("Batch arrays must all be the same length!");
+        }
+    }
+
     /** Resets the history of the filter. */
     public abstract void reset();
 
@@ -54,35 +94,15 @@ public abstract class Filter {
     /**
      * Returns a filter of a sum of the outputs of two other filters.
      *
+     * <p>Trees of added, multiplied, and composed filters can be flattened into a single pipeline
+     * with {@link FusedFilter#compile(Filter)}.
+     *
      * @param filterA The first filter to sum.
      * @param filterB The other filter to sum.
      * @return A new, composed filter.
      */
     public static final Filter add(Filter filterA, Filter filterB) {
-        class AddedFilter extends Filter {
-            @Override
-            public double calculate(double value) {
-                return filterA.calculate(value) + filterB.calculate(value);
-            }
-
-            @Override
-            public double calculate(double value, double dtSeconds) {
-                return filterA.calculate(value, dtSeconds) + filterB.calculate(value, dtSeconds);
-            }
-
-            @Override
-            public void reset() {
-                filterA.reset();
-                filterB.reset();
-            }
-
-            @Override
-            public double getCurrentOutput() {
-                return filterA.getCurrentOutput() + filterB.getCurrentOutput();
-            }
-        }
-
-        return new AddedFilter();
+        return new AddedFilter(filterA, filterB);
     }
 
     /**
@@ -93,28 +113,76 @@ public abstract class Filter {
      * @return A new filter.
      */
     public static Filter scalarMultiply(Filter filter, double scalar) {
-        class MultipliedFilter extends Filter {
-
-            @Override
-            public double calculate(double value) {
-                return filter.calculate(value) * scalar;
-            }
-
-            @Override
-            public double calculate(double value, double dtSeconds) {
-                return filter.calculate(value, dtSeconds) * scalar;
-            }
-
-            @Override
-            public void reset() {
-                filter.reset();
-            }
-
-            @Override
-            public double getCurrentOutput() {
-                return filter.getCurrentOutput() * scalar;
-            }
+        return new MultipliedFilter(filter, scalar);
+    }
+
+    /** Filter of the sum of the outputs of two filters. */
+    static final class AddedFilter extends Filter {
+        final Filter filterA;
+        final Filter filterB;
+
+        AddedFilter(Filter filterA, Filter filterB) {
+            this.filterA = filterA;
+            this.filterB = filterB;
+        }
+
+        @Override
+        public double calculate(double value) {
+            return filterA.calculate(value) + filterB.calculate(value);
+        }
+
+        @Override
+        public double calculate(double value, double dtSeconds) {
+            return filterA.calculate(value, dtSeconds) + filterB.calculate(value, dtSeconds);
+        }
+
+        @Override
+        public void reset() {
+            filterA.reset();
+            filterB.reset();
+        }
+
+        @Override
+        public double getCurrentOutput() {
+            return filterA.getCurrentOutput() + filterB.getCurrentOutput();
+        }
+    }
+
+    /** Filter of the output of a filter multiplied by a scalar. */
+    static final class MultipliedFilter extends Filter {
+        final Filter filter;
+        final double scalar;
+
+        MultipliedFilter(Filter filter, double scalar) {
+            this.filter = filter;
+            this.scalar = scalar;
+        }
+
+        @Override
+        public double calculate(double value) {
+            return filter.calculate(value) * scalar;
+        }
+
+        @Override
+        public double calculate(double value, double dtSeconds) {
+            return filter.calculate(value, dtSeconds) * scalar;
+        }
+
+        @Override
+        public void calculate(double[] values, double[] dtSeconds, double[] outputs) {
+            filter.calculate(values, dtSeconds, outputs);
+
+            for (int i = 0; i < outputs.length; i++) outputs[i] *= scalar;
+        }
+
+        @Override
+        public void reset() {
+            filter.reset();
+        }
+
+        @Override
+        public double getCurrentOutput() {
+            return filter.getCurrentOutput() * scalar;
         }
-        return new MultipliedFilter();
     }
 }
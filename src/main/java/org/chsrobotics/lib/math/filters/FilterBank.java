@@ -0,0 +1,119 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import java.security.InvalidParameterException;
+
+/**
+ * Common superclass for banks of filters, which apply the same filter configuration to many
+ * independent channels of data at once.
+ *
+ * <p>The state of every channel is held in parallel primitive arrays, and all channels are updated
+ * in a single call, in one loop over those arrays. This is far more cache-friendly (and easier for
+ * the JIT to vectorize) than updating a separate {@link Filter} object for each channel.
+ */
+public abstract class FilterBank {
+    /** The number of channels in the bank. */
+    protected final int channelCount;
+
+    /**
+     * Constructs a FilterBank.
+     *
+     * @param channelCount The number of channels in the bank. Must be positive.
+     * @throws InvalidParameterException If {@code channelCount} isn't positive.
+     */
+    protected FilterBank(int channelCount) {
+        if (channelCount <= 0) {
+            throw new InvalidParameterException("Filter banks must have at least one channel!");
+        }
+
+        this.channelCount = channelCount;
+    }
+
+    /**
+     * Adds a value to each channel and calculates the current output of each channel, with a change
+     * in time since the last call of this.
+     *
+     * @param values The value to input to each channel, indexed by channel.
+     * @param dtSeconds The change in time since the last call of the bank.
+     * @param outputs The array to write the current output of each channel into. May be the same
+     *     array as {@code values}.
+     * @throws InvalidParameterException If either array's length isn't the number of channels.
+     */
+    public abstract void calculate(double[] values, double dtSeconds, double[] outputs);
+
+    /**
+     * Adds a value to each channel and calculates the current output of each channel, using 20
+     * milliseconds (the robot loop period) for dt.
+     *
+     * @param values The value to input to each channel, indexed by channel.
+     * @param outputs The array to write the current output of each channel into. May be the same
+     *     array as {@code values}.
+     * @throws InvalidParameterException If either array's length isn't the number of channels.
+     */
+    public void calculate(double[] values, double[] outputs) {
+        calculate(values, 0.02, outputs);
+    }
+
+    /**
+     * Returns the current output of a channel without updating it.
+     *
+     * @param channel The index of the channel.
+     * @return The current output of the channel (0 if no values have been given to it).
+     */
+    public abstract double getCurrentOutput(int channel);
+
+    /**
+     * Copies the current output of every channel into an array, without updating them.
+     *
+     * @param outputs The array to write the current output of each channel into.
+     * @throws InvalidParameterException If the array's length isn't the number of channels.
+     */
+    public abstract void getCurrentOutputs(double[] outputs);
+
+    /** Resets the history of every channel. */
+    public abstract void reset();
+
+    /**
+     * Resets the history of one channel.
+     *
+     * @param channel The index of the channel.
+     */
+    public abstract void reset(int channel);
+
+    /**
+     * Returns the number of channels in the bank.
+     *
+     * @return The number of channels.
+     */
+    public int getChannelCount() {
+        return channelCount;
+    }
+
+    /**
+     * Checks that an array has one entry per channel.
+     *
+     * @param array The array to check.
+     * @throws InvalidParameterException If the array's length isn't the number of channels.
+     */
+    protected void checkChannelLength(double[] array) {
+        if (array.length != channelCount) {
+            throw new InvalidParameterException(
+                    "Expected " + channelCount + " channels, got " + array.length + "!");
+        }
+    }
+}
@@ -0,0 +1,423 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * A filter compiled from a tree of other filters ({@link ComposedFilter}s, and the results of
+ * {@link Filter#add(Filter, Filter)} and {@link Filter#scalarMultiply(Filter, double)}) into a
+ * single flat pipeline.
+ *
+ * <p>Evaluating a tree of filters directly takes a virtual call per node, and nested sums and
+ * products multiply call depth. A FusedFilter instead runs the whole tree as one loop over an array
+ * of stage opcodes, with the state of every stage in one contiguous array:
+ *
+ * <ul>
+ *   <li>Composed filters are flattened into a sequence of stages.
+ *   <li>Consecutive scalar gains are multiplied together into a single gain, and gains of 1 and
+ *       {@link NullFilter}s are removed entirely.
+ *   <li>Fixed-response {@link ExponentialMovingAverage}s, {@link RateLimiter}s, {@link
+ *       DifferentiatingFilter}s, {@link ThresholdFilter}s, and indefinite-window {@link
+ *       IntegratingFilter}s are evaluated inline.
+ *   <li>Any other filter is kept as a stage which calls it, and so shares state with the original.
+ * </ul>
+ *
+ * <p>Other than those delegated stages, the fused filter has its own state, starting as if every
+ * filter in the tree had just been reset. A filter instance which appears more than once in the
+ * tree has one state shared by each of its stages, as it does in the tree, so the outputs of the
+ * fused filter are equal to those of the tree, up to rounding: folding gains computes {@code (x *
+ * a) * b} as {@code x * (a * b)}, which may differ in the last bits. Trees without consecutive
+ * gains give bit-identical outputs.
+ */
+public class FusedFilter extends Filter {
+    private static final double defaultDtSeconds = 0.02;
+
+    private static final int opExponentialMovingAverage = 0;
+    private static final int opRateLimit = 1;
+    private static final int opDifferentiate = 2;
+    private static final int opIntegrate = 3;
+    private static final int opThreshold = 4;
+    private static final int opThresholdInverted = 5;
+    private static final int opGain = 6;
+    private static final int opFork = 7;
+    private static final int opJoin = 8;
+    private static final int opAdd = 9;
+    private static final int opDelegate = 10;
+
+    private final int[] opcodes;
+
+    // index into params, state, or delegates, depending on the opcode
+    private final int[] operands;
+
+    private final double[] params;
+    private final double[] state;
+    private final Filter[] delegates;
+
+    // holds the inputs and partial sums of added filters
+    private final double[] stack;
+
+    private double currentOutput = 0;
+
+    private FusedFilter(Compiler compiler) {
+        opcodes = new int[compiler.opcodes.size()];
+        operands = new int[opcodes.length];
+
+        for (int i = 0; i < opcodes.length; i++) {
+            opcodes[i] = compiler.opcodes.get(i);
+            operands[i] = compiler.operands.get(i);
+        }
+
+        params = new double[compiler.params.size()];
+        for (int i = 0; i < params.length; i++) params[i] = compiler.params.get(i);
+
+        state = new double[compiler.stateSize];
+        delegates = compiler.delegates.toArray(new Filter[0]);
+        stack = new double[compiler.maxStackDepth];
+    }
+
+    /**
+     * Compiles a filter, and any filters composed into it, into a FusedFilter.
+     *
+     * @param filter The filter to compile.
+     * @return A new FusedFilter with outputs equal to those of {@code filter}, up to rounding from
+     *     folded gains.
+     */
+    public static FusedFilter compile(Filter filter) {
+        Compiler compiler = new Compiler();
+
+        compiler.emit(filter);
+
+        return new FusedFilter(compiler);
+    }
+
+    /**
+     * Returns the number of stages in the compiled pipeline, including gains and the bookkeeping
+     * stages of sums.
+     *
+     * @return The number of stages.
+     */
+    public int getStageCount() {
+        return opcodes.length;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double calculate(double value) {
+        currentOutput = run(value, defaultDtSeconds, false);
+
+        return currentOutput;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double calculate(double value, double dtSeconds) {
+        currentOutput = run(value, dtSeconds, true);
+
+        return currentOutput;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void calculate(double[] values, double[] dtSeconds, double[] outputs) {
+        checkBatchLengths(values, dtSeconds, outputs);
+
+        for (int i = 0; i < values.length; i++) {
+            outputs[i] =
+                    (dtSeconds == null)
+                            ? run(values[i], defaultDtSeconds, false)
+                            : run(values[i], dtSeconds[i], true);
+        }
+
+        if (values.length > 0) currentOutput = outputs[values.length - 1];
+    }
+
+    private double run(double value, double dt, boolean hasDt) {
+        double x = value;
+        int stackDepth = 0;
+
+        for (int i = 0; i < opcodes.length; i++) {
+            int operand = operands[i];
+
+            switch (opcodes[i]) {
+                case opExponentialMovingAverage:
+                    {
+                        // params: [responseConstant]; state: [lastOutput]
+                        double k = params[operand];
+
+                        x = (x * k) + ((1 - k) * state[operand]);
+                        state[operand] = x;
+                        break;
+                    }
+                case opRateLimit:
+                    {
+                        // params: [rateLimit]; state: [lastValue]
+                        double limit = params[operand];
+
+                        if (limit != 0) {
+                            double last = state[operand];
+                            double maxDelta = limit * dt;
+
+                            x = last + Math.max(-maxDelta, Math.min(x - last, maxDelta));
+                        }
+
+                        state[operand] = x;
+                        break;
+                    }
+                case opDifferentiate:
+                    // state: [lastValue, currentDeriv]
+                    if (dt == 0) x = 0;
+                    else {
+                        double deriv = (x - state[operand]) / dt;
+
+                        state[operand] = x;
+                        state[operand + 1] = deriv;
+                        x = deriv;
+                    }
+                    break;
+                case opIntegrate:
+                    {
+                        // state: [previousInputValue, sum, compensation, nonFiniteSum], with
+                        // the compensated (Neumaier) summation of CompensatedSum, and non-finite
+                        // trapezoids summed apart from the finite ones as in IntegratingFilter
+                        double trapezoid = dt * 0.5 * (x + state[operand]);
+
+                        if (Double.isFinite(trapezoid)) {
+                            double sum = state[operand + 1];
+                            double total = sum + trapezoid;
+
+                            if (Math.abs(sum) >= Math.abs(trapezoid)) {
+                                state[operand + 2] += (sum - total) + trapezoid;
+                            } else state[operand + 2] += (trapezoid - total) + sum;
+
+                            state[operand + 1] = total;
+                        } else state[operand + 3] += trapezoid;
+
+                        state[operand] = x;
+
+                        // the non-finite sum is only ever 0, infinite, or NaN
+                        double nonFiniteSum = state[operand + 3];
+
+                        x =
+                                (nonFiniteSum == 0)
+                                        ? state[operand + 1] + state[operand + 2]
+                                        : nonFiniteSum;
+                        break;
+                    }
+                case opThreshold:
+                    x = (x <= params[operand]) ? x : 0;
+                    break;
+                case opThresholdInverted:
+                    x = (x >= params[operand]) ? x : 0;
+                    break;
+                case opGain:
+                    x *= params[operand];
+                    break;
+                case opFork:
+                    // save the input of the sum for its second operand
+                    stack[stackDepth++] = x;
+                    break;
+                case opJoin:
+                    {
+                        // swap the first operand's output with the saved input
+                        double input = stack[stackDepth - 1];
+
+                        stack[stackDepth - 1] = x;
+                        x = input;
+                        break;
+                    }
+                case opAdd:
+                    x = stack[--stackDepth] + x;
+                    break;
+                default:
+                    Filter delegate = delegates[operand];
+
+                    x = hasDt ? delegate.calculate(x, dt) : delegate.calculate(x);
+                    break;
+            }
+        }
+
+        return x;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void reset() {
+        for (int i = 0; i < opcodes.length; i++) {
+            int operand = operands[i];
+
+            switch (opcodes[i]) {
+                case opExponentialMovingAverage:
+                case opRateLimit:
+                    state[operand] = 0;
+                    break;
+                case opDifferentiate:
+                    state[operand] = 0;
+                    state[operand + 1] = 0;
+                    break;
+                case opIntegrate:
+                    // as IntegratingFilter.reset(), which keeps the previous input
+                    state[operand + 1] = 0;
+                    state[operand + 2] = 0;
+                    state[operand + 3] = 0;
+                    break;
+                case opDelegate:
+                    delegates[operand].reset();
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        Arrays.fill(stack, 0);
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double getCurrentOutput() {
+        return currentOutput;
+    }
+
+    /** Flattens a tree of filters into opcodes. */
+    private static class Compiler {
+        final ArrayList<Integer> opcodes = new ArrayList<>();
+        final ArrayList<Integer> operands = new ArrayList<>();
+        final ArrayList<Double> params = new ArrayList<>();
+        final ArrayList<Filter> delegates = new ArrayList<>();
+
+        // index of the state (or delegate) of each filter instance already emitted, so that
+        // repeated instances share it
+        final IdentityHashMap<Filter, Integer> instances = new IdentityHashMap<>();
+
+        int stateSize = 0;
+
+        int stackDepth = 0;
+        int maxStackDepth = 0;
+
+        void emit(Filter filter) {
+            Class<?> type = filter.getClass();
+
+            // exact class checks, as subclasses may override behavior
+            if (type == ComposedFilter.class) {
+                for (Filter stage : ((ComposedFilter) filter).getFilters()) emit(stage);
+            } else if (type == MultipliedFilter.class) {
+                MultipliedFilter multiplied = (MultipliedFilter) filter;
+
+                emit(multiplied.filter);
+                emitGain(multiplied.scalar);
+            } else if (type == AddedFilter.class) {
+                AddedFilter added = (AddedFilter) filter;
+
+                emitOp(opFork, 0);
+
+                stackDepth++;
+                maxStackDepth = Math.max(maxStackDepth, stackDepth);
+
+                emit(added.filterA);
+                emitOp(opJoin, 0);
+                emit(added.filterB);
+                emitOp(opAdd, 0);
+
+                stackDepth--;
+            } else if (type == NullFilter.class) {
+                // identity, so nothing to emit
+            } else if (type == ExponentialMovingAverage.class
+                    && !((ExponentialMovingAverage) filter).isTimeBased()) {
+                emitOp(
+                        opExponentialMovingAverage,
+                        allocate(
+                                filter,
+                                ((ExponentialMovingAverage) filter).getResponseConstant(),
+                                1));
+            } else if (type == RateLimiter.class) {
+                emitOp(opRateLimit, allocate(filter, ((RateLimiter) filter).getRateLimit(), 1));
+            } else if (type == DifferentiatingFilter.class) {
+                emitOp(opDifferentiate, allocate(filter, 0, 2));
+            } else if (type == IntegratingFilter.class
+                    && !((IntegratingFilter) filter).isWindowed()) {
+                emitOp(opIntegrate, allocate(filter, 0, 4));
+            } else if (type == ThresholdFilter.class) {
+                ThresholdFilter threshold = (ThresholdFilter) filter;
+
+                emitOp(
+                        threshold.isInverted() ? opThresholdInverted : opThreshold,
+                        allocate(filter, threshold.getThreshold(), 0));
+            } else {
+                Integer index = instances.get(filter);
+
+                if (index == null) {
+                    index = delegates.size();
+
+                    delegates.add(filter);
+                    instances.put(filter, index);
+                }
+
+                emitOp(opDelegate, index);
+            }
+        }
+
+        void emitGain(double gain) {
+            int last = opcodes.size() - 1;
+
+            if (last >= 0 && opcodes.get(last) == opGain) {
+                int index = operands.get(last);
+                double folded = params.get(index) * gain;
+
+                if (folded == 1) {
+                    opcodes.remove(last);
+                    operands.remove(last);
+                } else params.set(index, folded);
+            } else if (gain != 1) {
+                emitOp(opGain, allocate(gain, 0));
+            }
+        }
+
+        void emitOp(int opcode, int operand) {
+            opcodes.add(opcode);
+            operands.add(operand);
+        }
+
+        /** Returns the index of a filter's parameter and state, reserving space on first use. */
+        int allocate(Filter filter, double param, int stateLength) {
+            Integer index = instances.get(filter);
+
+            if (index == null) {
+                index = allocate(param, stateLength);
+                instances.put(filter, index);
+            }
+
+            return index;
+        }
+
+        /**
+         * Reserves space for a stage's parameter and state, at the same index in both arrays, so a
+         * stage needs only one operand.
+         */
+        int allocate(double param, int stateLength) {
+            int index = Math.max(params.size(), stateSize);
+
+            while (params.size() < index) params.add(0.0);
+            params.add(param);
+
+            stateSize = index + Math.max(1, stateLength);
+
+            return index;
+        }
+    }
+}
@@ -16,15 +16,32 @@ If not, see <https://www.gnu.org/licenses/>.
 */
 package org.chsrobotics.lib.math.filters;
 
-import org.chsrobotics.lib.util.SizedStack;
+import org.chsrobotics.lib.math.CompensatedSum;
+import org.chsrobotics.lib.util.DoubleRingBuffer;
 
 /**
  * Filter which returns an time-weighted sum (integral) of a series of values.
  *
  * <p>Approximated with finite timesteps using a trapezoidal Riemann sum.
+ *
+ * <p>The integral is kept as a running, compensated sum, so each call of {@code calculate()} is
+ * constant-time regardless of the window size. A finite window stores its trapezoids to subtract
+ * them back out as they leave the window, and recomputes the sum from them once per window length
+ * to keep floating-point error from building up. An indefinite window stores nothing but the sum.
  */
 public class IntegratingFilter extends Filter {
-    private final SizedStack<Double> stack;
+    // null if the window is indefinite
+    private final DoubleRingBuffer buffer;
+
+    private final CompensatedSum sum = new CompensatedSum();
+
+    // non-finite trapezoids are counted instead of summed, so that they can leave the window
+    // without recomputing the sum
+    private int nanTrapezoidCount = 0;
+    private int positiveInfiniteTrapezoidCount = 0;
+    private int negativeInfiniteTrapezoidCount = 0;
+
+    private int pushesSinceResync = 0;
 
     private double currentOutput = 0;
 
@@ -37,7 +54,15 @@ public class IntegratingFilter extends Filter {
      *     will instead be an indefinite window.
      */
     public IntegratingFilter(int window) {
-        stack = new SizedStack<>(window);
+        buffer = (window > 0) ? new DoubleRingBuffer(window) : null;
+    }
+
+    /**
+     * Constructs an IntegratingFilter with an indefinite window, which integrates every value since
+     * construction or the last reset without storing any of them.
+     */
+    public IntegratingFilter() {
+        this(0);
     }
 
     @Override
@@ -61,23 +86,109 @@ public class IntegratingFilter extends Filter {
      * @return Value of the (approximated) integral.
      */
     public double calculate(double value, double dt) {
-        stack.push(dt * 0.5 * (value + previousInputValue));
+        accumulate(dt * 0.5 * (value + previousInputValue));
 
-        double sum = 0;
+        currentOutput = getSum();
 
-        for (double entry : stack) sum += entry;
+        previousInputValue = value;
 
-        currentOutput = sum;
+        return currentOutput;
+    }
 
-        previousInputValue = value;
+    @Override
+    /** {@inheritDoc} */
+    public void calculate(double[] values, double[] dtSeconds, double[] outputs) {
+        checkBatchLengths(values, dtSeconds, outputs);
+
+        double previous = previousInputValue;
+
+        for (int i = 0; i < values.length; i++) {
+            double value = values[i];
+            double dt = (dtSeconds == null) ? 0.02 : dtSeconds[i];
 
-        return sum;
+            accumulate(dt * 0.5 * (value + previous));
+
+            previous = value;
+
+            outputs[i] = getSum();
+        }
+
+        previousInputValue = previous;
+
+        if (values.length > 0) currentOutput = outputs[values.length - 1];
+    }
+
+    private void accumulate(double trapezoid) {
+        addToSum(trapezoid);
+
+        if (buffer != null) {
+            if (buffer.isFull()) {
+                subtractFromSum(buffer.push(trapezoid));
+
+                pushesSinceResync++;
+
+                // also resync early if the sum of finite trapezoids has overflowed
+                if (pushesSinceResync >= buffer.getCapacity() || !Double.isFinite(sum.get())) {
+                    resync();
+                }
+            } else buffer.push(trapezoid);
+        }
+    }
+
+    private void addToSum(double trapezoid) {
+        if (Double.isNaN(trapezoid)) nanTrapezoidCount++;
+        else if (trapezoid == Double.POSITIVE_INFINITY) positiveInfiniteTrapezoidCount++;
+        else if (trapezoid == Double.NEGATIVE_INFINITY) negativeInfiniteTrapezoidCount++;
+        else sum.add(trapezoid);
+    }
+
+    private void subtractFromSum(double trapezoid) {
+        if (Double.isNaN(trapezoid)) nanTrapezoidCount--;
+        else if (trapezoid == Double.POSITIVE_INFINITY) positiveInfiniteTrapezoidCount--;
+        else if (trapezoid == Double.NEGATIVE_INFINITY) negativeInfiniteTrapezoidCount--;
+        else sum.subtract(trapezoid);
+    }
+
+    /** Returns the sum of every trapezoid in the window, as if the non-finite ones were summed. */
+    private double getSum() {
+        if (nanTrapezoidCount > 0
+                || (positiveInfiniteTrapezoidCount > 0 && negativeInfiniteTrapezoidCount > 0)) {
+            return Double.NaN;
+        } else if (positiveInfiniteTrapezoidCount > 0) return Double.POSITIVE_INFINITY;
+        else if (negativeInfiniteTrapezoidCount > 0) return Double.NEGATIVE_INFINITY;
+        else return sum.get();
+    }
+
+    private void resync() {
+        sum.reset();
+        nanTrapezoidCount = 0;
+        positiveInfiniteTrapezoidCount = 0;
+        negativeInfiniteTrapezoidCount = 0;
+
+        for (int i = 0; i < buffer.size(); i++) addToSum(buffer.get(i));
+
+        pushesSinceResync = 0;
+    }
+
+    /**
+     * Returns whether this integrates over a finite window of values.
+     *
+     * @return False if the window is indefinite.
+     */
+    public boolean isWindowed() {
+        return buffer != null;
     }
 
     @Override
     /** {@inheritDoc} */
     public void reset() {
-        stack.clear();
+        if (buffer != null) buffer.clear();
+
+        sum.reset();
+        nanTrapezoidCount = 0;
+        positiveInfiniteTrapezoidCount = 0;
+        negativeInfiniteTrapezoidCount = 0;
+        pushesSinceResync = 0;
     }
 
     @Override
@@ -16,11 +16,18 @@ If not, see <https://www.gnu.org/licenses/>.
 */
 package org.chsrobotics.lib.math.filters;
 
-import java.util.ArrayList;
-import org.chsrobotics.lib.math.UtilityMath;
-import org.chsrobotics.lib.util.SizedStack;
+import org.chsrobotics.lib.math.CompensatedSum;
+import org.chsrobotics.lib.util.DoubleRingBuffer;
 
-/** Filter which computes the arithmetic mean of a stream of data. */
+/**
+ * Filter which computes the mean (arithmetic, geometric, or harmonic) of a stream of data.
+ *
+ * <p>The mean is kept with running accumulators (the sum of the values, of their logarithms, or of
+ * their reciprocals), so each call of {@code calculate()} is constant-time and allocation-free
+ * regardless of the window size. The accumulators are recomputed from the window once per window
+ * length to keep floating-point error from building up. An indefinite window stores no values at
+ * all.
+ */
 public class MovingAverageFilter extends Filter {
 
     /** Enum of different definitions of the mean. */
@@ -30,7 +37,25 @@ public class MovingAverageFilter extends Filter {
         HARMONIC
     }
 
-    private final SizedStack<Double> stack;
+    // null if the window is indefinite
+    private final DoubleRingBuffer buffer;
+
+    // sum of values, of log(abs(value)) for non-zero values, or of 1 / value for non-zero values
+    private final CompensatedSum sum = new CompensatedSum();
+
+    private int count = 0;
+
+    // signs aren't representable in the log-sum, so are tracked separately for the geometric mean
+    private int zeroCount = 0;
+    private int negativeCount = 0;
+
+    // non-finite terms are counted instead of summed, so that they can leave the window without
+    // recomputing the sum
+    private int nanTermCount = 0;
+    private int positiveInfiniteTermCount = 0;
+    private int negativeInfiniteTermCount = 0;
+
+    private int pushesSinceResync = 0;
 
     private double currentOutput = 0;
 
@@ -43,24 +68,137 @@ public class MovingAverageFilter extends Filter {
      *     negative, will be an indefinite window.
      */
     public MovingAverageFilter(int window, MEAN_IMPLEMENTATION impl) {
-        stack = new SizedStack<>(window);
+        buffer = (window > 0) ? new DoubleRingBuffer(window) : null;
         this.impl = impl;
     }
 
     @Override
     /** {@inheritDoc} */
     public double calculate(double value) {
-        stack.push(value);
+        push(value);
+
+        currentOutput = computeMean();
+
+        return currentOutput;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void calculate(double[] values, double[] dtSeconds, double[] outputs) {
+        checkBatchLengths(values, dtSeconds, outputs);
+
+        for (int i = 0; i < values.length; i++) {
+            push(values[i]);
+
+            outputs[i] = computeMean();
+        }
+
+        if (values.length > 0) currentOutput = outputs[values.length - 1];
+    }
+
+    private void push(double value) {
+        addTerm(value);
+
+        if (buffer == null) count++;
+        else if (buffer.isFull()) {
+            removeTerm(buffer.push(value));
+
+            pushesSinceResync++;
+
+            // also resync early if the sum of finite terms has overflowed
+            if (pushesSinceResync >= buffer.getCapacity() || !Double.isFinite(sum.get())) {
+                resync();
+            }
+        } else {
+            buffer.push(value);
+            count++;
+        }
+    }
+
+    private void addTerm(double value) {
+        if (impl == MEAN_IMPLEMENTATION.GEOMETRIC) {
+            if (value == 0) zeroCount++;
+            else {
+                if (value < 0) negativeCount++;
 
+                addToSum(Math.log(Math.abs(value)));
+            }
+        } else if (impl == MEAN_IMPLEMENTATION.HARMONIC) {
+            // reciprocal of 0 defined as 0, as in UtilityMath.harmonicMean()
+            if (value != 0) addToSum(1 / value);
+        } else {
+            addToSum(value);
+        }
+    }
+
+    private void addToSum(double term) {
+        if (Double.isNaN(term)) nanTermCount++;
+        else if (term == Double.POSITIVE_INFINITY) positiveInfiniteTermCount++;
+        else if (term == Double.NEGATIVE_INFINITY) negativeInfiniteTermCount++;
+        else sum.add(term);
+    }
+
+    private void removeTerm(double value) {
         if (impl == MEAN_IMPLEMENTATION.GEOMETRIC) {
-            currentOutput = UtilityMath.geometricMean(new ArrayList<>(stack));
+            if (value == 0) zeroCount--;
+            else {
+                if (value < 0) negativeCount--;
+
+                subtractFromSum(Math.log(Math.abs(value)));
+            }
         } else if (impl == MEAN_IMPLEMENTATION.HARMONIC) {
-            currentOutput = UtilityMath.harmonicMean(new ArrayList<>(stack));
+            if (value != 0) subtractFromSum(1 / value);
         } else {
-            currentOutput = UtilityMath.arithmeticMean(new ArrayList<>(stack));
+            subtractFromSum(value);
         }
+    }
 
-        return currentOutput;
+    private void subtractFromSum(double term) {
+        if (Double.isNaN(term)) nanTermCount--;
+        else if (term == Double.POSITIVE_INFINITY) positiveInfiniteTermCount--;
+        else if (term == Double.NEGATIVE_INFINITY) negativeInfiniteTermCount--;
+        else sum.subtract(term);
+    }
+
+    /** Returns the sum of every term in the window, as if the non-finite terms were summed too. */
+    private double getSum() {
+        if (nanTermCount > 0 || (positiveInfiniteTermCount > 0 && negativeInfiniteTermCount > 0)) {
+            return Double.NaN;
+        } else if (positiveInfiniteTermCount > 0) return Double.POSITIVE_INFINITY;
+        else if (negativeInfiniteTermCount > 0) return Double.NEGATIVE_INFINITY;
+        else return sum.get();
+    }
+
+    private void resync() {
+        sum.reset();
+        zeroCount = 0;
+        negativeCount = 0;
+        nanTermCount = 0;
+        positiveInfiniteTermCount = 0;
+        negativeInfiniteTermCount = 0;
+
+        for (int i = 0; i < buffer.size(); i++) addTerm(buffer.get(i));
+
+        pushesSinceResync = 0;
+    }
+
+    private double computeMean() {
+        if (impl == MEAN_IMPLEMENTATION.GEOMETRIC) {
+            if (zeroCount > 0) return 0;
+
+            double magnitude = Math.exp(getSum() / count);
+
+            if (negativeCount % 2 == 0) return magnitude;
+            // odd roots of negative products aren't real (as with Math.pow()), except the first
+            else return (count == 1) ? -magnitude : Double.NaN;
+        } else if (impl == MEAN_IMPLEMENTATION.HARMONIC) {
+            double reciprocalSum = getSum();
+
+            if (reciprocalSum == 0) return 0;
+            else return count / reciprocalSum;
+        } else {
+            return getSum() / count;
+        }
     }
 
     @Override
@@ -72,7 +210,16 @@ public class MovingAverageFilter extends Filter {
     @Override
     /** {@inheritDoc} */
     public void reset() {
-        stack.clear();
+        if (buffer != null) buffer.clear();
+
+        sum.reset();
+        count = 0;
+        zeroCount = 0;
+        negativeCount = 0;
+        nanTermCount = 0;
+        positiveInfiniteTermCount = 0;
+        negativeInfiniteTermCount = 0;
+        pushesSinceResync = 0;
     }
 
     @Override
@@ -0,0 +1,123 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+/**
+ * Common superclass of {@link MovingMinFilter} and {@link MovingMaxFilter}.
+ *
+ * <p>Keeps a monotonic deque of the values in the window which could still become the extreme: a
+ * value is dropped as soon as a newer value is at least as extreme, since it will leave the window
+ * first. The front of the deque is then always the extreme of the window. Every value is added and
+ * removed at most once, so each call of {@code calculate()} is amortized constant-time, and the
+ * deque is held in primitive arrays sized to the window, so it never allocates.
+ */
+abstract class MovingExtremumFilter extends Filter {
+    private final boolean max;
+
+    // 0 if the window is indefinite
+    private final int window;
+
+    // circular deque of values and the sequence numbers they were pushed with; null if the window
+    // is indefinite, as the extreme can then never leave
+    private final double[] dequeValues;
+    private final long[] dequeSequences;
+
+    private int head = 0;
+    private int size = 0;
+
+    private long sequence = 0;
+
+    private double currentOutput = 0;
+
+    /**
+     * Constructs a MovingExtremumFilter.
+     *
+     * @param window Number of values to look back. If zero or negative, will be an indefinite
+     *     window.
+     * @param max Whether this tracks the maximum rather than the minimum.
+     */
+    MovingExtremumFilter(int window, boolean max) {
+        this.max = max;
+        this.window = Math.max(0, window);
+
+        dequeValues = (window > 0) ? new double[window] : null;
+        dequeSequences = (window > 0) ? new long[window] : null;
+    }
+
+    // whether a is at least as extreme as b
+    private boolean dominates(double a, double b) {
+        return max ? (a >= b) : (a <= b);
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double calculate(double value) {
+        if (window == 0) {
+            currentOutput =
+                    (sequence == 0 || dominates(value, currentOutput)) ? value : currentOutput;
+        } else {
+            // drop the front if it's leaving the window, before making room for the new value
+            if (size > 0 && dequeSequences[head] <= sequence - window) {
+                head = (head + 1 == window) ? 0 : head + 1;
+                size--;
+            }
+
+            // drop values which can no longer be the extreme
+            while (size > 0 && dominates(value, dequeValues[physicalIndex(size - 1)])) size--;
+
+            int index = physicalIndex(size);
+
+            dequeValues[index] = value;
+            dequeSequences[index] = sequence;
+            size++;
+
+            currentOutput = dequeValues[head];
+        }
+
+        sequence++;
+
+        return currentOutput;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double calculate(double value, double dtSeconds) {
+        return calculate(value);
+    }
+
+    private int physicalIndex(int index) {
+        int physical = head + index;
+
+        return (physical >= window) ? physical - window : physical;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void reset() {
+        head = 0;
+        size = 0;
+        sequence = 0;
+
+        currentOutput = 0;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double getCurrentOutput() {
+        return currentOutput;
+    }
+}
@@ -0,0 +1,216 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import java.security.InvalidParameterException;
+
+/**
+ * Filter which outputs the median of the values in a sliding window. Useful for rejecting short
+ * spikes (in current draw, for example), which a mean would smear across the window.
+ *
+ * <p>The window is split between two heaps: a max-heap of the lower half of the values and a
+ * min-heap of the upper half, so the median is always at the top of one or both. Each heap entry
+ * tracks its position, so the value leaving the window can be removed from the middle of its heap.
+ * Each call of {@code calculate()} is logarithmic in the window size, and allocation-free.
+ *
+ * <p>For an even number of values, the median is the mean of the two middle values.
+ */
+public class MovingMedianFilter extends Filter {
+    private final int window;
+
+    // values by slot, where the slot of a value is its position in the window modulo the window
+    private final double[] values;
+
+    // position of each slot in the heap which holds it
+    private final int[] heapPositions;
+    private final boolean[] inLower;
+
+    // heaps of slots; lower is a max-heap and upper a min-heap
+    private final int[] lower;
+    private final int[] upper;
+
+    private int lowerSize = 0;
+    private int upperSize = 0;
+
+    private int count = 0;
+    private int nextSlot = 0;
+
+    private double currentOutput = 0;
+
+    /**
+     * Constructs a MovingMedianFilter.
+     *
+     * @param window Number of values to look back when calculating the median. Must be positive.
+     */
+    public MovingMedianFilter(int window) {
+        if (window < 1) throw new InvalidParameterException("Window must be positive!");
+
+        this.window = window;
+
+        values = new double[window];
+        heapPositions = new int[window];
+        inLower = new boolean[window];
+
+        lower = new int[(window / 2) + 1];
+        upper = new int[(window / 2) + 1];
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double calculate(double value) {
+        int slot = nextSlot;
+
+        if (count == window) remove(slot);
+        else count++;
+
+        values[slot] = value;
+        insert(slot);
+
+        nextSlot = (slot + 1 == window) ? 0 : slot + 1;
+
+        currentOutput =
+                (lowerSize > upperSize)
+                        ? values[lower[0]]
+                        : (values[lower[0]] + values[upper[0]]) / 2;
+
+        return currentOutput;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double calculate(double value, double dtSeconds) {
+        return calculate(value);
+    }
+
+    private void insert(int slot) {
+        if (lowerSize == 0 || values[slot] <= values[lower[0]]) push(true, slot);
+        else push(false, slot);
+
+        rebalance();
+    }
+
+    private void remove(int slot) {
+        boolean fromLower = inLower[slot];
+        int[] heap = fromLower ? lower : upper;
+        int last = fromLower ? --lowerSize : --upperSize;
+
+        int position = heapPositions[slot];
+
+        // fill the gap with the last entry, which may then belong either above or below it
+        if (position != last) {
+            int moved = heap[last];
+
+            place(heap, moved, position);
+
+            siftUp(heap, fromLower, position);
+            siftDown(heap, fromLower, heapPositions[moved]);
+        }
+
+        rebalance();
+    }
+
+    // keeps the lower heap the same size as the upper, or one larger
+    private void rebalance() {
+        if (lowerSize > upperSize + 1) push(false, pop(true));
+        else if (upperSize > lowerSize) push(true, pop(false));
+    }
+
+    private void push(boolean toLower, int slot) {
+        int[] heap = toLower ? lower : upper;
+        int position = toLower ? lowerSize++ : upperSize++;
+
+        inLower[slot] = toLower;
+        place(heap, slot, position);
+
+        siftUp(heap, toLower, position);
+    }
+
+    private int pop(boolean fromLower) {
+        int[] heap = fromLower ? lower : upper;
+        int top = heap[0];
+        int last = fromLower ? --lowerSize : --upperSize;
+
+        if (last > 0) {
+            place(heap, heap[last], 0);
+            siftDown(heap, fromLower, 0);
+        }
+
+        return top;
+    }
+
+    private void place(int[] heap, int slot, int position) {
+        heap[position] = slot;
+        heapPositions[slot] = position;
+    }
+
+    // whether slot a belongs above slot b in the heap
+    private boolean above(boolean isLower, int a, int b) {
+        return isLower ? (values[a] > values[b]) : (values[a] < values[b]);
+    }
+
+    private void siftUp(int[] heap, boolean isLower, int position) {
+        int slot = heap[position];
+
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+
+            if (!above(isLower, slot, heap[parent])) break;
+
+            place(heap, heap[parent], position);
+            position = parent;
+        }
+
+        place(heap, slot, position);
+    }
+
+    private void siftDown(int[] heap, boolean isLower, int position) {
+        int size = isLower ? lowerSize : upperSize;
+        int slot = heap[position];
+
+        while (true) {
+            int child = (2 * position) + 1;
+
+            if (child >= size) break;
+
+            if (child + 1 < size && above(isLower, heap[child + 1], heap[child])) child++;
+
+            if (!above(isLower, heap[child], slot)) break;
+
+            place(heap, heap[child], position);
+            position = child;
+        }
+
+        place(heap, slot, position);
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void reset() {
+        lowerSize = 0;
+        upperSize = 0;
+        count = 0;
+        nextSlot = 0;
+
+        currentOutput = 0;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double getCurrentOutput() {
+        return currentOutput;
+    }
+}
@@ -0,0 +1,35 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+/**
+ * Filter which outputs the minimum of the values in a sliding window.
+ *
+ * <p>Each call of {@code calculate()} is amortized constant-time and allocation-free, regardless of
+ * the window size.
+ */
+public class MovingMinFilter extends MovingExtremumFilter {
+    /**
+     * Constructs a MovingMinFilter.
+     *
+     * @param window Number of values to look back when calculating the minimum. If zero or
+     *     negative, will be an indefinite window.
+     */
+    public MovingMinFilter(int window) {
+        super(window, false);
+    }
+}
@@ -38,6 +38,15 @@ public class RateLimiter extends Filter {
         this.rateLimit = rateLimit;
     }
 
+    /**
+     * Returns the rate limit of the filter.
+     *
+     * @return The maximum rate-of-change, in units per second, or 0 if unlimited.
+     */
+    double getRateLimit() {
+        return rateLimit;
+    }
+
     @Override
     /** {@inheritDoc} */
     public double calculate(double value) {
@@ -58,6 +67,31 @@ public class RateLimiter extends Filter {
         return lastValue;
     }
 
+    @Override
+    /** {@inheritDoc} */
+    public void calculate(double[] values, double[] dtSeconds, double[] outputs) {
+        checkBatchLengths(values, dtSeconds, outputs);
+
+        if (rateLimit == 0) {
+            System.arraycopy(values, 0, outputs, 0, values.length);
+
+            if (values.length > 0) lastValue = values[values.length - 1];
+
+            return;
+        }
+
+        double output = lastValue;
+
+        for (int i = 0; i < values.length; i++) {
+            double maxDelta = rateLimit * ((dtSeconds == null) ? 0.02 : dtSeconds[i]);
+
+            output = output + MathUtil.clamp(values[i] - output, -maxDelta, maxDelta);
+            outputs[i] = output;
+        }
+
+        lastValue = output;
+    }
+
     @Override
     /** {@inheritDoc} */
     public void reset() {
@@ -0,0 +1,95 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import java.util.Arrays;
+
+/**
+ * Bank of {@link RateLimiter}s with a shared rate limit, one per channel.
+ *
+ * <p>Equivalent to (but much cheaper than) calling a separate RateLimiter for each channel.
+ */
+public class RateLimiterBank extends FilterBank {
+    private final double rateLimit;
+
+    private final double[] lastValues;
+
+    /**
+     * Constructs a RateLimiterBank.
+     *
+     * @param channelCount The number of channels in the bank. Must be positive.
+     * @param rateLimit Maximum rate-of-change of each channel, in units per second. If equal to
+     *     zero, this will not apply any kind of rate limiting.
+     */
+    public RateLimiterBank(int channelCount, double rateLimit) {
+        super(channelCount);
+
+        this.rateLimit = rateLimit;
+
+        lastValues = new double[channelCount];
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void calculate(double[] values, double dtSeconds, double[] outputs) {
+        checkChannelLength(values);
+        checkChannelLength(outputs);
+
+        if (rateLimit == 0) {
+            System.arraycopy(values, 0, lastValues, 0, channelCount);
+            System.arraycopy(values, 0, outputs, 0, channelCount);
+
+            return;
+        }
+
+        double maxDelta = rateLimit * dtSeconds;
+
+        for (int i = 0; i < channelCount; i++) {
+            double lastValue = lastValues[i];
+            double delta = Math.max(-maxDelta, Math.min(values[i] - lastValue, maxDelta));
+
+            lastValues[i] = lastValue + delta;
+            outputs[i] = lastValue + delta;
+        }
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double getCurrentOutput(int channel) {
+        return lastValues[channel];
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void getCurrentOutputs(double[] outputs) {
+        checkChannelLength(outputs);
+
+        System.arraycopy(lastValues, 0, outputs, 0, channelCount);
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void reset() {
+        Arrays.fill(lastValues, 0);
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void reset(int channel) {
+        lastValues[channel] = 0;
+    }
+}
@@ -0,0 +1,235 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import java.security.InvalidParameterException;
+import org.chsrobotics.lib.util.DoubleRingBuffer;
+
+/**
+ * Filter which fits a polynomial to a sliding window of values by least squares, and outputs the
+ * value or a derivative of that polynomial at the newest value (a causal Savitzky-Golay filter).
+ *
+ * <p>Compared to a {@link DifferentiatingFilter} followed by a {@link MovingAverageFilter}, this
+ * rejects noise as well while following curvature in the signal with much less lag, in a single
+ * pass. A window of 10-20 values with a polynomial of degree 2 is a good starting point for
+ * velocity from position measurements.
+ *
+ * <p>The least-squares fit is linear in the values, so it reduces to a fixed set of weights per
+ * window length, which are all computed at construction. Each call of {@code calculate()} is then
+ * a single multiply-add over the window, and allocation-free. Until the window has filled, the fit
+ * uses the values available, with a lower-degree polynomial if there are too few values.
+ *
+ * <p>Values are assumed to be evenly spaced in time. The change in time passed to {@code
+ * calculate()} only scales the derivative, so it should be the (constant) period of the values.
+ */
+public class SavitzkyGolayFilter extends Filter {
+    private static final double defaultDtSeconds = 0.02;
+
+    private final int derivativeOrder;
+
+    private final DoubleRingBuffer buffer;
+
+    // weights[n - 1] are the weights for a window of n values, oldest first, in units per sample
+    private final double[][] weights;
+
+    private double currentOutput = 0;
+
+    /**
+     * Constructs a SavitzkyGolayFilter.
+     *
+     * @param window Number of values to fit the polynomial to. Must be greater than the degree.
+     * @param polynomialDegree Degree of the fitted polynomial. Higher degrees follow the signal
+     *     more closely but reject less noise. Must not be negative.
+     * @param derivativeOrder Which derivative of the polynomial to output: 0 to smooth the values,
+     *     1 for their rate of change, 2 for the rate of change of that, and so on. Must not be
+     *     greater than the degree.
+     */
+    public SavitzkyGolayFilter(int window, int polynomialDegree, int derivativeOrder) {
+        if (polynomialDegree < 0) {
+            throw new InvalidParameterException("Polynomial degree must not be negative!");
+        }
+
+        if (window <= polynomialDegree) {
+            throw new InvalidParameterException(
+                    "Window must be greater than the polynomial degree!");
+        }
+
+        if (derivativeOrder < 0 || derivativeOrder > polynomialDegree) {
+            throw new InvalidParameterException(
+                    "Derivative order must be between 0 and the polynomial degree!");
+        }
+
+        this.derivativeOrder = derivativeOrder;
+
+        buffer = new DoubleRingBuffer(window);
+
+        weights = new double[window][];
+
+        for (int n = 1; n <= window; n++) {
+            weights[n - 1] =
+                    computeWeights(n, Math.min(polynomialDegree, n - 1), derivativeOrder);
+        }
+    }
+
+    /**
+     * Computes the weights which give a derivative of the least-squares polynomial fit to a window
+     * of values, at the newest value.
+     *
+     * @param n The number of values.
+     * @param degree The degree of the polynomial.
+     * @param derivativeOrder The derivative to evaluate.
+     * @return The weights of each value, oldest first, in units per sample to the power of the
+     *     derivative order.
+     */
+    private static double[] computeWeights(int n, int degree, int derivativeOrder) {
+        double[] result = new double[n];
+
+        // too few values to fit the derivative, so it's taken as 0
+        if (derivativeOrder > degree) return result;
+
+        // positions of the values in [-1, 0], with the newest value at 0, to keep the fit
+        // well-conditioned for long windows
+        double scale = Math.max(1, n - 1);
+        double[][] powers = new double[n][degree + 1];
+
+        for (int i = 0; i < n; i++) {
+            double u = (i - (n - 1)) / scale;
+            double power = 1;
+
+            for (int k = 0; k <= degree; k++) {
+                powers[i][k] = power;
+                power *= u;
+            }
+        }
+
+        // normal equations of the fit: the polynomial coefficients are (A^T A)^-1 A^T y, and the
+        // derivative at 0 is (order)! times one of them, so only one row of the inverse is needed
+        double[][] normal = new double[degree + 1][degree + 1];
+
+        for (int j = 0; j <= degree; j++) {
+            for (int k = 0; k <= degree; k++) {
+                for (int i = 0; i < n; i++) normal[j][k] += powers[i][j] * powers[i][k];
+            }
+        }
+
+        double[] unit = new double[degree + 1];
+        unit[derivativeOrder] = 1;
+
+        double[] row = solve(normal, unit);
+
+        double factor = 1;
+        for (int k = 2; k <= derivativeOrder; k++) factor *= k;
+
+        factor /= Math.pow(scale, derivativeOrder);
+
+        for (int i = 0; i < n; i++) {
+            double sum = 0;
+
+            for (int k = 0; k <= degree; k++) sum += powers[i][k] * row[k];
+
+            result[i] = factor * sum;
+        }
+
+        return result;
+    }
+
+    /** Solves a small linear system in place, by Gaussian elimination with partial pivoting. */
+    private static double[] solve(double[][] matrix, double[] rhs) {
+        int size = rhs.length;
+
+        for (int col = 0; col < size; col++) {
+            int pivot = col;
+
+            for (int r = col + 1; r < size; r++) {
+                if (Math.abs(matrix[r][col]) > Math.abs(matrix[pivot][col])) pivot = r;
+            }
+
+            double[] swapRow = matrix[col];
+            matrix[col] = matrix[pivot];
+            matrix[pivot] = swapRow;
+
+            double swap = rhs[col];
+            rhs[col] = rhs[pivot];
+            rhs[pivot] = swap;
+
+            for (int r = col + 1; r < size; r++) {
+                double ratio = matrix[r][col] / matrix[col][col];
+
+                for (int c = col; c < size; c++) matrix[r][c] -= ratio * matrix[col][c];
+
+                rhs[r] -= ratio * rhs[col];
+            }
+        }
+
+        double[] solution = new double[size];
+
+        for (int r = size - 1; r >= 0; r--) {
+            double sum = rhs[r];
+
+            for (int c = r + 1; c < size; c++) sum -= matrix[r][c] * solution[c];
+
+            solution[r] = sum / matrix[r][r];
+        }
+
+        return solution;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double calculate(double value) {
+        return calculate(value, defaultDtSeconds);
+    }
+
+    @Override
+    /**
+     * Adds the value to the window and calculates the current output of the filter.
+     *
+     * @param value The value to input to the filter.
+     * @param dtSeconds The time between values, in seconds. Only used for derivatives.
+     * @return The current output of the filter, in units per second to the power of the
+     *     derivative order.
+     */
+    public double calculate(double value, double dtSeconds) {
+        buffer.push(value);
+
+        double output = buffer.weightedSum(weights[buffer.size() - 1]);
+
+        // convert from units per sample to units per second, with a dt of 0 giving 0 as in
+        // DifferentiatingFilter
+        for (int k = 0; k < derivativeOrder; k++) {
+            output = (dtSeconds == 0) ? 0 : output / dtSeconds;
+        }
+
+        currentOutput = output;
+
+        return currentOutput;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void reset() {
+        buffer.clear();
+
+        currentOutput = 0;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public double getCurrentOutput() {
+        return currentOutput;
+    }
+}
@@ -37,6 +37,24 @@ public class ThresholdFilter extends Filter {
         this.invert = invert;
     }
 
+    /**
+     * Returns the threshold of the filter.
+     *
+     * @return The threshold.
+     */
+    double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Returns whether the filter attentuates values below, rather than above, the threshold.
+     *
+     * @return Whether the filter is inverted.
+     */
+    boolean isInverted() {
+        return invert;
+    }
+
     @Override
     /** {@inheritDoc} */
     public double calculate(double value) {
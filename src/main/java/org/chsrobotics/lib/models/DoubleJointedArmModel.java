@@ -19,10 +19,7 @@ package org.chsrobotics.lib.models;
 import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.VecBuilder;
 import edu.wpi.first.math.Vector;
-import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N2;
-import edu.wpi.first.math.numbers.N4;
-import edu.wpi.first.math.system.NumericalIntegration;
 import edu.wpi.first.math.system.plant.DCMotor;
 import org.chsrobotics.lib.math.UtilityMath;
 
@@ -31,22 +28,69 @@ import org.chsrobotics.lib.math.UtilityMath;
  *
  * <p>Derived from https://www.chiefdelphi.com/t/whitepaper-two-jointed-arm-dynamics/423060 and
  * https://github.com/Mechanical-Advantage/RobotCode2023/blob/main/src/main/java/org/littletonrobotics/frc2023/subsystems/arm/ArmDynamics.java
+ *
+ * <p>The dynamics are computed on primitive doubles, with the 2x2 inertia matrix inverted in closed
+ * form, and integrated into reused scratch arrays. The overloads of {@code feedforward()} and
+ * {@code simulate()} which take and write into arrays don't allocate at all; the overloads which
+ * take Matrices and Vectors only allocate their result. Because of the scratch arrays, an instance
+ * of this shouldn't be shared between threads.
  */
 public class DoubleJointedArmModel {
-    private final double localMass;
-    private final double localCGRadius;
-    private final double localMoment;
-    private final double localLength;
+    // gravitational acceleration, in m/s^2
+    // compensates for odd timestep stuff, obviously arbitrary
+    private static final double g = 9.81 * 10;
+
+    // allowed truncation error of each step of integration
+    private static final double maxError = 1e-6;
+
+    // Dormand-Prince coefficients
+    private static final double[][] rkA = {
+        {1.0 / 5.0},
+        {3.0 / 40.0, 9.0 / 40.0},
+        {44.0 / 45.0, -56.0 / 15.0, 32.0 / 9.0},
+        {19372.0 / 6561.0, -25360.0 / 2187.0, 64448.0 / 6561.0, -212.0 / 729.0},
+        {9017.0 / 3168.0, -355.0 / 33.0, 46732.0 / 5247.0, 49.0 / 176.0, -5103.0 / 18656.0},
+        {35.0 / 384.0, 0.0, 500.0 / 1113.0, 125.0 / 192.0, -2187.0 / 6784.0, 11.0 / 84.0}
+    };
+
+    // difference between the fifth- and fourth-order solution weights, for the error estimate
+    private static final double[] rkErrorWeights = {
+        35.0 / 384.0 - 5179.0 / 57600.0,
+        0.0,
+        500.0 / 1113.0 - 7571.0 / 16695.0,
+        125.0 / 192.0 - 393.0 / 640.0,
+        -2187.0 / 6784.0 + 92097.0 / 339200.0,
+        11.0 / 84.0 - 187.0 / 2100.0,
+        -1.0 / 40.0
+    };
 
     private final DCMotor localDrive;
+    private final DCMotor distalDrive;
 
-    private final double distalMass;
-    private final double distalCGRadius;
-    private final double distalMoment;
+    // constant and cos(distal angle) terms of the inertia matrix
+    private final double inertiaLocalLocal;
+    private final double inertiaLocalLocalCos;
+    private final double inertiaDistalLocalCos;
+    private final double inertiaLocalDistalCos;
+    private final double inertiaDistal;
 
-    private final DCMotor distalDrive;
+    // coefficient of the Coriolis and centrifugal terms
+    private final double coriolis;
 
-    private final double kG;
+    // coefficients of the gravitational torques, including kG
+    private final double gravityLocal;
+    private final double gravityDistal;
+
+    // scratch space for simulate(), each as [localAngle, distalAngle, localVelocity,
+    // distalVelocity]
+    private final double[][] stages = new double[7][4];
+    private final double[] stageState = new double[4];
+    private final double[] currentState = new double[4];
+    private final double[] nextState = new double[4];
+
+    // scratch space for the Matrix overloads
+    private final double[] scratchState = new double[4];
+    private final double[] scratchVoltages = new double[2];
 
     /**
      * Constructs a new DoubleJointedArmModel.
@@ -76,20 +120,24 @@ public class DoubleJointedArmModel {
             double distalMoment,
             DCMotor distalDrive,
             double kG) {
-        this.localMass = localMass;
-        this.localCGRadius = localCGRadius;
-        this.localMoment = localMoment;
-        this.localLength = localLength;
-
         this.localDrive = localDrive;
+        this.distalDrive = distalDrive;
+
+        inertiaLocalLocal =
+                (localMass * localCGRadius * localCGRadius)
+                        + (distalMass * (Math.pow(localLength, 2) + Math.pow(distalCGRadius, 2)))
+                        + localMoment
+                        + distalMoment;
+        inertiaLocalLocalCos = 2 * distalMass * localLength * distalCGRadius;
 
-        this.distalMass = distalMass;
-        this.distalCGRadius = distalCGRadius;
-        this.distalMoment = distalMoment;
+        inertiaDistal = (distalMass * distalCGRadius * distalCGRadius) + distalMoment;
+        inertiaDistalLocalCos = distalMass * localLength * distalCGRadius;
+        inertiaLocalDistalCos = distalMass * distalCGRadius;
 
-        this.distalDrive = distalDrive;
+        coriolis = distalMass * localLength * distalCGRadius;
 
-        this.kG = kG;
+        gravityLocal = kG * g * ((localMass * localCGRadius) + (distalMass + distalCGRadius));
+        gravityDistal = kG * g * distalMass * distalCGRadius;
     }
 
     /**
@@ -103,15 +151,16 @@ public class DoubleJointedArmModel {
      */
     public Vector<N2> feedforward(
             Vector<N2> position, Vector<N2> velocity, Vector<N2> acceleration) {
-        Matrix<N2, N1> torque =
-                inertiaMatrix(position)
-                        .times(acceleration)
-                        .plus(cMatrix(position, velocity).times(velocity))
-                        .plus(gravityMatrix(position));
-
-        return VecBuilder.fill(
-                localDrive.getVoltage(torque.get(0, 0), velocity.get(0, 0)),
-                distalDrive.getVoltage(torque.get(1, 0), velocity.get(1, 0)));
+        feedforward(
+                position.get(0, 0),
+                position.get(1, 0),
+                velocity.get(0, 0),
+                velocity.get(1, 0),
+                acceleration.get(0, 0),
+                acceleration.get(1, 0),
+                scratchVoltages);
+
+        return VecBuilder.fill(scratchVoltages[0], scratchVoltages[1]);
     }
 
     /**
@@ -135,162 +184,216 @@ public class DoubleJointedArmModel {
         return feedforward(position, VecBuilder.fill(0, 0));
     }
 
+    /**
+     * Computes feedforward motor voltages for a given arm state, without allocating.
+     *
+     * @param localAngle Angle of the local joint, in radians.
+     * @param distalAngle Angle of the distal joint, in radians.
+     * @param localVelocity Angular velocity of the local joint, in rad/s.
+     * @param distalVelocity Angular velocity of the distal joint, in rad/s.
+     * @param localAcceleration Angular acceleration of the local joint, in rad/s^2.
+     * @param distalAcceleration Angular acceleration of the distal joint, in rad/s^2.
+     * @param voltagesOut The array to write the feedforward motor voltages into, as [local,
+     *     distal].
+     */
+    public void feedforward(
+            double localAngle,
+            double distalAngle,
+            double localVelocity,
+            double distalVelocity,
+            double localAcceleration,
+            double distalAcceleration,
+            double[] voltagesOut) {
+        double cos = Math.cos(distalAngle);
+        double sin = Math.sin(distalAngle);
+
+        double localTorque =
+                ((inertiaLocalLocal + (inertiaLocalLocalCos * cos)) * localAcceleration)
+                        + ((inertiaDistal + (inertiaLocalDistalCos * cos)) * distalAcceleration)
+                        + coriolisLocal(sin, localVelocity, distalVelocity)
+                        + gravityLocal(localAngle, distalAngle);
+
+        double distalTorque =
+                ((inertiaDistal + (inertiaDistalLocalCos * cos)) * localAcceleration)
+                        + (inertiaDistal * distalAcceleration)
+                        + coriolisDistal(sin, localVelocity, distalVelocity)
+                        + gravityDistal(localAngle, distalAngle);
+
+        voltagesOut[0] = localDrive.getVoltage(localTorque, localVelocity);
+        voltagesOut[1] = distalDrive.getVoltage(distalTorque, distalVelocity);
+    }
+
     /**
      * Simulates the arm system by numerical integration.
      *
      * @param state A Matrix of arm state, as
-     *     <p>[localAngle, localVelocity]
-     *     <p>[distalAngle, distalVelocity]
+     *     <p>[localAngle, distalAngle]
+     *     <p>[localVelocity, distalVelocity]
      * @param voltages A Vector of input voltages, as [local, distal].
      * @param dtSeconds The timestep of the simulated system, in seconds.
      * @return A Matrix of arm state after the simulated timestep, as
-     *     <p>[localAngle, localVelocity]
-     *     <p>[distalAngle, distalVelocity]
+     *     <p>[localAngle, distalAngle]
+     *     <p>[localVelocity, distalVelocity]
      */
     public Matrix<N2, N2> simulate(Matrix<N2, N2> state, Vector<N2> voltages, double dtSeconds) {
-        Vector<N4> stateAsVector =
-                VecBuilder.fill(state.get(0, 0), state.get(0, 1), state.get(1, 0), state.get(1, 1));
+        scratchState[0] = state.get(0, 0);
+        scratchState[1] = state.get(0, 1);
+        scratchState[2] = state.get(1, 0);
+        scratchState[3] = state.get(1, 1);
 
-        Vector<N2> clampedVoltage =
-                VecBuilder.fill(
-                        UtilityMath.clamp(localDrive.nominalVoltageVolts, voltages.get(0, 0)),
-                        UtilityMath.clamp(distalDrive.nominalVoltageVolts, voltages.get(1, 0)));
-
-        Matrix<N4, N1> prelim =
-                NumericalIntegration.rkdp(
-                        this::instDynamics, stateAsVector, clampedVoltage, dtSeconds);
+        simulate(scratchState, voltages.get(0, 0), voltages.get(1, 0), dtSeconds, scratchState);
 
         Matrix<N2, N2> mat = new Matrix<>(N2.instance, N2.instance);
 
-        mat.set(0, 0, prelim.get(0, 0));
-        mat.set(0, 1, prelim.get(1, 0));
-        mat.set(1, 0, prelim.get(2, 0));
-        mat.set(1, 1, prelim.get(3, 0));
+        mat.set(0, 0, scratchState[0]);
+        mat.set(0, 1, scratchState[1]);
+        mat.set(1, 0, scratchState[2]);
+        mat.set(1, 1, scratchState[3]);
 
         return mat;
     }
 
-    private Matrix<N4, N1> instDynamics(Matrix<N4, N1> x, Matrix<N2, N1> u) {
-        Matrix<N4, N1> mat = new Matrix<>(N4.instance, N1.instance);
+    /**
+     * Simulates the arm system by numerical integration, without allocating.
+     *
+     * @param state The arm state, as [localAngle, distalAngle, localVelocity, distalVelocity]
+     *     (the rows of the state Matrix of {@link #simulate(Matrix, Vector, double)} in order).
+     * @param localVoltage The input voltage of the local drive.
+     * @param distalVoltage The input voltage of the distal drive.
+     * @param dtSeconds The timestep of the simulated system, in seconds.
+     * @param stateOut The array to write the arm state after the simulated timestep into, in the
+     *     same order. May be the same array as {@code state}.
+     */
+    public void simulate(
+            double[] state,
+            double localVoltage,
+            double distalVoltage,
+            double dtSeconds,
+            double[] stateOut) {
+        double clampedLocal = UtilityMath.clamp(localDrive.nominalVoltageVolts, localVoltage);
+        double clampedDistal = UtilityMath.clamp(distalDrive.nominalVoltageVolts, distalVoltage);
+
+        System.arraycopy(state, 0, currentState, 0, 4);
 
-        Vector<N2> positions = VecBuilder.fill(x.get(0, 0), x.get(1, 0));
+        // adaptive Dormand-Prince, as in WPILib's NumericalIntegration.rkdp()
+        double truncationError;
+        double dtElapsed = 0;
+        double h = dtSeconds;
+        double step;
 
-        Vector<N2> velocities = VecBuilder.fill(x.get(2, 0), x.get(3, 0));
+        while (dtElapsed < dtSeconds) {
+            do {
+                // only allow advancing up to the dt remaining
+                h = Math.min(h, dtSeconds - dtElapsed);
+                step = h;
 
-        Vector<N2> torques =
-                VecBuilder.fill(
-                        localDrive.getTorque(
-                                localDrive.getCurrent(velocities.get(0, 0), u.get(0, 0))),
-                        distalDrive.getTorque(
-                                distalDrive.getCurrent(velocities.get(1, 0), u.get(1, 0))));
+                instDynamics(currentState, clampedLocal, clampedDistal, stages[0]);
 
-        Matrix<N2, N1> accel =
-                inertiaMatrix(positions)
-                        .inv()
-                        .times(
-                                torques.minus(cMatrix(positions, velocities).times(velocities))
-                                        .minus(gravityMatrix(positions)));
+                for (int stage = 1; stage < 7; stage++) {
+                    double[] coefficients = rkA[stage - 1];
+                    double[] target = (stage == 6) ? nextState : stageState;
 
-        mat.set(0, 0, velocities.get(0, 0));
-        mat.set(1, 0, velocities.get(1, 0));
+                    for (int i = 0; i < 4; i++) {
+                        double sum = 0;
 
-        mat.set(2, 0, accel.get(0, 0));
-        mat.set(3, 0, accel.get(1, 0));
+                        for (int j = 0; j < coefficients.length; j++) {
+                            sum += coefficients[j] * stages[j][i];
+                        }
 
-        return mat;
-    }
+                        target[i] = currentState[i] + (h * sum);
+                    }
 
-    private Matrix<N2, N2> inertiaMatrix(Vector<N2> position) {
-        Matrix<N2, N2> mat = new Matrix<>(N2.instance, N2.instance);
+                    // the last row of coefficients is the fifth-order solution, so the last stage
+                    // is evaluated at the next state
+                    instDynamics(target, clampedLocal, clampedDistal, stages[stage]);
+                }
 
-        mat.set(
-                0,
-                0,
-                (localMass * localCGRadius * localCGRadius)
-                        + (distalMass * (Math.pow(localLength, 2) + Math.pow(distalCGRadius, 2)))
-                        + localMoment
-                        + distalMoment
-                        + (2
-                                * distalMass
-                                * localLength
-                                * distalCGRadius
-                                * Math.cos(position.get(1, 0))));
-
-        mat.set(
-                1,
-                0,
-                (distalMass * distalCGRadius * distalCGRadius)
-                        + distalMoment
-                        + (distalMass
-                                * localLength
-                                * distalCGRadius
-                                * Math.cos(position.get(1, 0))));
-
-        mat.set(
-                0,
-                1,
-                (distalMass * distalCGRadius * distalCGRadius)
-                        + distalMoment
-                        + (distalMass * distalCGRadius * Math.cos(position.get(1, 0))));
-
-        mat.set(1, 1, (distalMass * distalCGRadius * distalCGRadius) + distalMoment);
+                double squaredError = 0;
 
-        return mat;
-    }
+                for (int i = 0; i < 4; i++) {
+                    double error = 0;
 
-    private Matrix<N2, N2> cMatrix(Vector<N2> positions, Vector<N2> velocities) {
-        Matrix<N2, N2> mat = new Matrix<>(N2.instance, N2.instance);
+                    for (int j = 0; j < 7; j++) error += rkErrorWeights[j] * stages[j][i];
 
-        mat.set(0, 0, -distalMass * localLength * distalCGRadius * velocities.get(1, 0));
+                    error *= h;
+                    squaredError += error * error;
+                }
 
-        mat.set(
-                0,
-                1,
-                -distalMass
-                        * localLength
-                        * distalCGRadius
-                        * Math.sin(positions.get(1, 0))
-                        * (velocities.get(0, 0) + velocities.get(1, 0)));
+                truncationError = Math.sqrt(squaredError);
 
-        mat.set(
-                1,
-                0,
-                distalMass
-                        * localLength
-                        * distalCGRadius
-                        * Math.sin(positions.get(1, 0))
-                        * velocities.get(1, 0));
+                if (truncationError == 0) {
+                    h = dtSeconds - dtElapsed;
+                } else {
+                    h *= 0.9 * Math.pow(maxError / truncationError, 1.0 / 5.0);
+                }
+            } while (truncationError > maxError);
 
-        mat.set(1, 1, 0);
+            // advance by the step just taken, not the next step size
+            dtElapsed += step;
 
-        return mat;
+            System.arraycopy(nextState, 0, currentState, 0, 4);
+        }
+
+        System.arraycopy(currentState, 0, stateOut, 0, 4);
+    }
+
+    /**
+     * Writes the derivative of a state into an array.
+     *
+     * @param x The state, as [localAngle, distalAngle, localVelocity, distalVelocity].
+     * @param localVoltage The input voltage of the local drive.
+     * @param distalVoltage The input voltage of the distal drive.
+     * @param out The array to write the derivative into.
+     */
+    private void instDynamics(double[] x, double localVoltage, double distalVoltage, double[] out) {
+        double localAngle = x[0];
+        double distalAngle = x[1];
+        double localVelocity = x[2];
+        double distalVelocity = x[3];
+
+        double cos = Math.cos(distalAngle);
+        double sin = Math.sin(distalAngle);
+
+        double localTorque =
+                localDrive.getTorque(localDrive.getCurrent(localVelocity, localVoltage))
+                        - coriolisLocal(sin, localVelocity, distalVelocity)
+                        - gravityLocal(localAngle, distalAngle);
+
+        double distalTorque =
+                distalDrive.getTorque(distalDrive.getCurrent(distalVelocity, distalVoltage))
+                        - coriolisDistal(sin, localVelocity, distalVelocity)
+                        - gravityDistal(localAngle, distalAngle);
+
+        // closed-form inverse of the 2x2 inertia matrix
+        double m00 = inertiaLocalLocal + (inertiaLocalLocalCos * cos);
+        double m01 = inertiaDistal + (inertiaLocalDistalCos * cos);
+        double m10 = inertiaDistal + (inertiaDistalLocalCos * cos);
+        double m11 = inertiaDistal;
+
+        double determinant = (m00 * m11) - (m01 * m10);
+
+        out[0] = localVelocity;
+        out[1] = distalVelocity;
+
+        out[2] = ((m11 * localTorque) - (m01 * distalTorque)) / determinant;
+        out[3] = ((m00 * distalTorque) - (m10 * localTorque)) / determinant;
+    }
+
+    private double coriolisLocal(double sin, double localVelocity, double distalVelocity) {
+        return (-coriolis * distalVelocity * localVelocity)
+                - (coriolis * sin * (localVelocity + distalVelocity) * distalVelocity);
+    }
+
+    private double coriolisDistal(double sin, double localVelocity, double distalVelocity) {
+        return coriolis * sin * distalVelocity * localVelocity;
+    }
+
+    private double gravityLocal(double localAngle, double distalAngle) {
+        return (gravityLocal * Math.cos(localAngle))
+                + (gravityDistal * Math.cos(localAngle + distalAngle));
     }
 
-    private Matrix<N2, N1> gravityMatrix(Vector<N2> positions) {
-        Matrix<N2, N1> mat = new Matrix<>(N2.instance, N1.instance);
-
-        double g = 9.81 * 10;
-        // compensates for odd timestep stuff, obviously arbitrary
-
-        mat.set(
-                0,
-                0,
-                g
-                        * (Math.cos(positions.get(0, 0))
-                                        * ((localMass * localCGRadius)
-                                                + (distalMass + distalCGRadius))
-                                + (distalMass
-                                        * distalCGRadius
-                                        * Math.cos(positions.get(0, 0) + positions.get(1, 0)))));
-
-        mat.set(
-                1,
-                0,
-                g
-                        * distalMass
-                        * distalCGRadius
-                        * Math.cos(positions.get(0, 0) + positions.get(1, 0)));
-
-        return mat.times(kG);
+    private double gravityDistal(double localAngle, double distalAngle) {
+        return gravityDistal * Math.cos(localAngle + distalAngle);
     }
 }
@@ -29,25 +29,25 @@ public class BaseHardwareLogger implements IntrinsicLoggable {
 
     private boolean logsConstructed = false;
 
-    private Logger<Boolean> isBrownedOutLogger;
+    private BooleanLogger isBrownedOutLogger;
 
-    private Logger<Double> canUtilizationLogger;
+    private DoubleLogger canUtilizationLogger;
 
-    private Logger<Double> inputVoltageLogger;
+    private DoubleLogger inputVoltageLogger;
 
-    private Logger<Double> roboRioCurrentLogger;
+    private DoubleLogger roboRioCurrentLogger;
 
-    private Logger<Double> logger3_3vCurrent;
+    private DoubleLogger logger3_3vCurrent;
 
-    private Logger<Double> logger5vCurrent;
+    private DoubleLogger logger5vCurrent;
 
-    private Logger<Double> logger6vCurrent;
+    private DoubleLogger logger6vCurrent;
 
-    private Logger<Double> logger3_3vVoltage;
+    private DoubleLogger logger3_3vVoltage;
 
-    private Logger<Double> logger5vVoltage;
+    private DoubleLogger logger5vVoltage;
 
-    private Logger<Double> logger6vVoltage;
+    private DoubleLogger logger6vVoltage;
 
     private BaseHardwareLogger() {}
 
@@ -64,46 +64,47 @@ public class BaseHardwareLogger implements IntrinsicLoggable {
     public void autoGenerateLogs(
             DataLog log, String name, String subdirName, boolean publishToNT, boolean recordInLog) {
         if (!logsConstructed) {
-            LoggerFactory<Double> doubleLogFactory =
+            LoggerFactory<Double> logFactory =
                     new LoggerFactory<>(log, subdirName, publishToNT, recordInLog);
 
-            isBrownedOutLogger = new Logger<>("isBrownedOut", subdirName);
+            isBrownedOutLogger =
+                    logFactory.getBooleanLogger("isBrownedOut", RobotController::isBrownedOut);
 
             canUtilizationLogger =
-                    doubleLogFactory.getLogger(
+                    logFactory.getDoubleLogger(
                             "canUtilitzation_percent",
                             () -> RobotController.getCANStatus().percentBusUtilization);
 
             inputVoltageLogger =
-                    doubleLogFactory.getLogger(
+                    logFactory.getDoubleLogger(
                             "roboRioOnputVoltage_volts", RobotController::getInputVoltage);
 
             roboRioCurrentLogger =
-                    doubleLogFactory.getLogger(
+                    logFactory.getDoubleLogger(
                             "roboRioCurrent_amps", RobotController::getInputCurrent);
 
             logger3_3vCurrent =
-                    doubleLogFactory.getLogger(
+                    logFactory.getDoubleLogger(
                             "roboRio3.3vCurrent_amps", RobotController::getCurrent3V3);
 
             logger5vCurrent =
-                    doubleLogFactory.getLogger(
+                    logFactory.getDoubleLogger(
                             "roboRio5vCurrent_amps", RobotController::getCurrent5V);
 
             logger6vCurrent =
-                    doubleLogFactory.getLogger(
+                    logFactory.getDoubleLogger(
                             "roboRio6vCurrent_amps", RobotController::getCurrent6V);
 
             logger3_3vVoltage =
-                    doubleLogFactory.getLogger(
+                    logFactory.getDoubleLogger(
                             "roboRio3.3vBusVoltage_volts", RobotController::getVoltage3V3);
 
             logger5vVoltage =
-                    doubleLogFactory.getLogger(
+                    logFactory.getDoubleLogger(
                             "roboRio5vBusVoltage_volts", RobotController::getVoltage5V);
 
             logger6vVoltage =
-                    doubleLogFactory.getLogger(
+                    logFactory.getDoubleLogger(
                             "roboRio6vBusVoltage_volts", RobotController::getVoltage6V);
 
             logsConstructed = true;
@@ -0,0 +1,160 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.telemetry;
+
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.BooleanLogEntry;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Allocation-free logger for {@code boolean} values.
+ *
+ * <p>Can be used in the same two ways as {@link Logger}: construction with a lambda of the logged
+ * value, or passing the new value with every call of {@code update()}.
+ */
+public class BooleanLogger extends PrimitiveLogger {
+    private final BooleanPublisher publisher;
+    private final BooleanLogEntry logEntry;
+
+    private final TelemetryFlusher.Sink asyncSink =
+            (tag, numericValue, objectValue, timestamp) -> flush(tag != 0, timestamp);
+
+    private BooleanSupplier lambda;
+
+    private boolean hasPrevVal = false;
+    private boolean prevVal = false;
+
+    /**
+     * Constructs a BooleanLogger using a provided DataLog, with the option of whether to publish to
+     * NT and the log.
+     *
+     * @param lambda Lambda to use as initial data source.
+     * @param log The DataLog to log values inside of, most likely from {@code
+     *     HighLevelLogger.getInstance.getLog()} or whatever log is being used program-wide.
+     * @param key A string identifier for the logged field.
+     * @param subdirName The string name of the existing or new NetworkTables sub-table to write to.
+     * @param publishToNT Whether this should push logged values to NetworkTables.
+     * @param recordInLog Whether this should store logged values in an on-robot log file.
+     */
+    public BooleanLogger(
+            BooleanSupplier lambda,
+            DataLog log,
+            String key,
+            String subdirName,
+            boolean publishToNT,
+            boolean recordInLog) {
+        super(key, subdirName, publishToNT, recordInLog);
+
+        publisher = ntTable.getBooleanTopic(key).publish();
+        logEntry = new BooleanLogEntry(log, logEntryIdentifier);
+
+        this.lambda = lambda;
+    }
+
+    /**
+     * Constructs a BooleanLogger using a provided DataLog, with the option of whether to publish to
+     * NT and the log.
+     *
+     * @param log The DataLog to log values inside of, most likely from {@code
+     *     HighLevelLogger.getInstance.getLog()} or whatever log is being used program-wide.
+     * @param key A string identifier for the logged field.
+     * @param subdirName The string name of the existing or new NetworkTables sub-table to write to.
+     * @param publishToNT Whether this should push logged values to NetworkTables.
+     * @param recordInLog Whether this should store logged values in an on-robot log file.
+     */
+    public BooleanLogger(
+            DataLog log, String key, String subdirName, boolean publishToNT, boolean recordInLog) {
+        this(null, log, key, subdirName, publishToNT, recordInLog);
+    }
+
+    /**
+     * Constructs a BooleanLogger using {@code HighLevelLogger.getLog()}, publishing to NT and
+     * logging.
+     *
+     * @param lambda Lambda to use as initial data source.
+     * @param key A string identifier for the logged field.
+     * @param subdirName The string name of the existing or new NetworkTables sub-table to write to.
+     */
+    public BooleanLogger(BooleanSupplier lambda, String key, String subdirName) {
+        this(lambda, HighLevelLogger.getInstance().getLog(), key, subdirName, true, true);
+    }
+
+    /**
+     * Constructs a BooleanLogger using {@code HighLevelLogger.getLog()}, publishing to NT and
+     * logging.
+     *
+     * @param key A string identifier for the logged field.
+     * @param subdirName The string name of the existing or new NetworkTables sub-table to write to.
+     */
+    public BooleanLogger(String key, String subdirName) {
+        this(null, key, subdirName);
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void update() {
+        if (lambda != null) write(lambda.getAsBoolean());
+    }
+
+    /**
+     * Updates data sinks with the given value.
+     *
+     * <p>This replaces any lambda this was constructed or updated with.
+     *
+     * @param value The value to send to data sinks.
+     */
+    public void update(boolean value) {
+        lambda = null;
+
+        write(value);
+    }
+
+    /**
+     * Updates data sinks with the given value.
+     *
+     * @param lambda Lambda to store internally and send to data sinks.
+     */
+    public void update(BooleanSupplier lambda) {
+        this.lambda = lambda;
+
+        update();
+    }
+
+    private void write(boolean value) {
+        if (hasPrevVal && value == prevVal) return;
+
+        TelemetryFlusher flusher = HighLevelLogger.getInstance().getTelemetryFlusher();
+
+        if (flusher == null) flush(value, 0);
+        else if (!flusher.offer(asyncSink, value ? 1 : 0, 0, null)) {
+            // the queue is full, so retry on the next update
+            if (flusher.isAccepting()) return;
+
+            // the flusher stopped after it was read, so write directly
+            flush(value, 0);
+        }
+
+        prevVal = value;
+        hasPrevVal = true;
+    }
+
+    private void flush(boolean value, long timestamp) {
+        if (isPublishingToNT()) publisher.set(value, timestamp);
+        if (isRecordingToLog()) logEntry.append(value, timestamp);
+    }
+}
@@ -0,0 +1,163 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.telemetry;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Allocation-free logger for {@code double} values.
+ *
+ * <p>Can be used in the same two ways as {@link Logger}: construction with a lambda of the logged
+ * value, or passing the new value with every call of {@code update()}.
+ */
+public class DoubleLogger extends PrimitiveLogger {
+    private final DoublePublisher publisher;
+    private final DoubleLogEntry logEntry;
+
+    private final TelemetryFlusher.Sink asyncSink =
+            (tag, numericValue, objectValue, timestamp) -> flush(numericValue, timestamp);
+
+    private DoubleSupplier lambda;
+
+    private boolean hasPrevVal = false;
+    private double prevVal = 0;
+
+    /**
+     * Constructs a DoubleLogger using a provided DataLog, with the option of whether to publish to
+     * NT and the log.
+     *
+     * @param lambda Lambda to use as initial data source.
+     * @param log The DataLog to log values inside of, most likely from {@code
+     *     HighLevelLogger.getInstance.getLog()} or whatever log is being used program-wide.
+     * @param key A string identifier for the logged field.
+     * @param subdirName The string name of the existing or new NetworkTables sub-table to write to.
+     * @param publishToNT Whether this should push logged values to NetworkTables.
+     * @param recordInLog Whether this should store logged values in an on-robot log file.
+     */
+    public DoubleLogger(
+            DoubleSupplier lambda,
+            DataLog log,
+            String key,
+            String subdirName,
+            boolean publishToNT,
+            boolean recordInLog) {
+        super(key, subdirName, publishToNT, recordInLog);
+
+        publisher = ntTable.getDoubleTopic(key).publish();
+        logEntry = new DoubleLogEntry(log, logEntryIdentifier);
+
+        this.lambda = lambda;
+    }
+
+    /**
+     * Constructs a DoubleLogger using a provided DataLog, with the option of whether to publish to
+     * NT and the log.
+     *
+     * @param log The DataLog to log values inside of, most likely from {@code
+     *     HighLevelLogger.getInstance.getLog()} or whatever log is being used program-wide.
+     * @param key A string identifier for the logged field.
+     * @param subdirName The string name of the existing or new NetworkTables sub-table to write to.
+     * @param publishToNT Whether this should push logged values to NetworkTables.
+     * @param recordInLog Whether this should store logged values in an on-robot log file.
+     */
+    public DoubleLogger(
+            DataLog log, String key, String subdirName, boolean publishToNT, boolean recordInLog) {
+        this(null, log, key, subdirName, publishToNT, recordInLog);
+    }
+
+    /**
+     * Constructs a DoubleLogger using {@code HighLevelLogger.getLog()}, publishing to NT and
+     * logging.
+     *
+     * @param lambda Lambda to use as initial data source.
+     * @param key A string identifier for the logged field.
+     * @param subdirName The string name of the existing or new NetworkTables sub-table to write to.
+     */
+    public DoubleLogger(DoubleSupplier lambda, String key, String subdirName) {
+        this(lambda, HighLevelLogger.getInstance().getLog(), key, subdirName, true, true);
+    }
+
+    /**
+     * Constructs a DoubleLogger using {@code HighLevelLogger.getLog()}, publishing to NT and
+     * logging.
+     *
+     * @param key A string identifier for the logged field.
+     * @param subdirName The string name of the existing or new NetworkTables sub-table to write to.
+     */
+    public DoubleLogger(String key, String subdirName) {
+        this(null, key, subdirName);
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void update() {
+        if (lambda != null) write(lambda.getAsDouble());
+    }
+
+    /**
+     * Updates data sinks with the given value.
+     *
+     * <p>This replaces any lambda this was constructed or updated with.
+     *
+     * @param value The value to send to data sinks.
+     */
+    public void update(double value) {
+        lambda = null;
+
+        write(value);
+    }
+
+    /**
+     * Updates data sinks with the given value.
+     *
+     * @param lambda Lambda to store internally and send to data sinks.
+     */
+    public void update(DoubleSupplier lambda) {
+        this.lambda = lambda;
+
+        update();
+    }
+
+    private void write(double value) {
+        // same comparison as Double.equals(), so NaN is equal to itself
+        if (hasPrevVal && Double.doubleToLongBits(value) == Double.doubleToLongBits(prevVal)) {
+            return;
+        }
+
+        TelemetryFlusher flusher = HighLevelLogger.getInstance().getTelemetryFlusher();
+
+        if (flusher == null) flush(value, 0);
+        else if (!flusher.offer(asyncSink, 0, value, null)) {
+            // the queue is full, so retry on the next update
+            if (flusher.isAccepting()) return;
+
+            // the flusher stopped after it was read, so write directly
+            flush(value, 0);
+        }
+
+        prevVal = value;
+        hasPrevVal = true;
+    }
+
+    private void flush(double value, long timestamp) {
+        if (isPublishingToNT()) publisher.set(value, timestamp);
+        if (isRecordingToLog()) logEntry.append(value, timestamp);
+    }
+}
@@ -49,6 +49,12 @@ public class HighLevelLogger implements IntrinsicLoggable {
 
     private Logger<String[]> scheduledCommandsLogger;
 
+    private DoubleLogger telemetryDroppedLogger;
+    private DoubleLogger telemetryHighWaterMarkLogger;
+    private DoubleLogger telemetryFlushErrorLogger;
+
+    private volatile TelemetryFlusher telemetryFlusher = null;
+
     private boolean loggersConstructed = false;
 
     private HighLevelLogger() {}
@@ -120,6 +126,60 @@ public class HighLevelLogger implements IntrinsicLoggable {
         return DataLogManager.getLog();
     }
 
+    /**
+     * Starts asynchronous telemetry, where updates to every {@link Logger} and {@link
+     * PrimitiveLogger} are queued into a preallocated ring buffer and flushed to NetworkTables and
+     * the DataLog by a single background thread.
+     *
+     * <p>This bounds the cost of logging on the robot loop thread, at the expense of values reaching
+     * their sinks slightly later (their timestamps are still those of the original update). If the
+     * buffer fills, updates are dropped and counted by the {@link TelemetryFlusher}.
+     *
+     * <p>If asynchronous telemetry is already running, this does nothing.
+     *
+     * @param capacity The number of updates which can be queued at once. Rounded up to the next
+     *     power of two. If less than 1, {@link TelemetryFlusher#defaultCapacity} is used.
+     */
+    public synchronized void startAsyncTelemetry(int capacity) {
+        if (telemetryFlusher == null) {
+            TelemetryFlusher flusher = new TelemetryFlusher(capacity);
+            flusher.start();
+
+            telemetryFlusher = flusher;
+        }
+    }
+
+    /**
+     * Starts asynchronous telemetry with the default queue capacity.
+     *
+     * @see #startAsyncTelemetry(int)
+     */
+    public void startAsyncTelemetry() {
+        startAsyncTelemetry(TelemetryFlusher.defaultCapacity);
+    }
+
+    /**
+     * Stops asynchronous telemetry, blocking until every queued update has been flushed. Loggers
+     * will write synchronously again afterwards.
+     */
+    public synchronized void stopAsyncTelemetry() {
+        if (telemetryFlusher != null) {
+            TelemetryFlusher flusher = telemetryFlusher;
+            telemetryFlusher = null;
+
+            flusher.stop();
+        }
+    }
+
+    /**
+     * Returns the running {@link TelemetryFlusher}, for inspection of its statistics.
+     *
+     * @return The TelemetryFlusher, or {@code null} if asynchronous telemetry isn't running.
+     */
+    public TelemetryFlusher getTelemetryFlusher() {
+        return telemetryFlusher;
+    }
+
     /**
      * Logs a String message (warning, state transition, startup information, etc.), and prints it
      * to the standard output (DriverStation console).
@@ -162,6 +222,14 @@ public class HighLevelLogger implements IntrinsicLoggable {
         if (!loggersConstructed) {
             scheduledCommandsLogger = new Logger<>("scheduledCommands", "commandScheduler");
 
+            telemetryDroppedLogger =
+                    new DoubleLogger(log, "droppedUpdates", "telemetry", publishToNT, recordInLog);
+            telemetryHighWaterMarkLogger =
+                    new DoubleLogger(
+                            log, "queueHighWaterMark", "telemetry", publishToNT, recordInLog);
+            telemetryFlushErrorLogger =
+                    new DoubleLogger(log, "flushErrors", "telemetry", publishToNT, recordInLog);
+
             loggersConstructed = true;
         }
     }
@@ -177,6 +245,14 @@ public class HighLevelLogger implements IntrinsicLoggable {
             }
 
             scheduledCommandsLogger.update(commands.toArray(new String[] {}));
+
+            TelemetryFlusher flusher = telemetryFlusher;
+
+            if (flusher != null) {
+                telemetryDroppedLogger.update(flusher.getDroppedCount());
+                telemetryHighWaterMarkLogger.update(flusher.getHighWaterMark());
+                telemetryFlushErrorLogger.update(flusher.getFlushErrorCount());
+            }
         }
     }
 
@@ -0,0 +1,56 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.telemetry;
+
+/**
+ * Converts values of a type into a fixed number of doubles for logging.
+ *
+ * <p>Encoders registered with {@link LogEncoderRegistry} are used by {@link Logger}s of that type
+ * (or its subtypes). The encoder is looked up once, when a Logger receives its first value, so
+ * each update afterwards only costs a call to {@link #encode(Object, double[])}.
+ *
+ * <p>Encoded values are published and recorded as a double array, or as a single double if {@link
+ * #isScalar()} is true.
+ *
+ * @param <T> The type of value to encode.
+ */
+public interface LogEncoder<T> {
+    /**
+     * Returns the number of doubles this encodes each value into.
+     *
+     * @return The length of the encoded array. Must be constant.
+     */
+    int getLength();
+
+    /**
+     * Writes the encoded form of a value into a buffer.
+     *
+     * @param value The (non-null) value to encode.
+     * @param buffer A reused array of length {@link #getLength()} to write into.
+     */
+    void encode(T value, double[] buffer);
+
+    /**
+     * Returns whether encoded values should be logged as a single double instead of an array.
+     * Only meaningful if {@link #getLength()} is 1.
+     *
+     * @return Whether this encodes to a scalar.
+     */
+    default boolean isScalar() {
+        return false;
+    }
+}
@@ -0,0 +1,164 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.telemetry;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Global registry of {@link LogEncoder}s, used by {@link Logger}s to log types that aren't natively
+ * supported by NetworkTables or the DataLog.
+ *
+ * <p>Encoders for WPILib's {@code Pose2d}, {@code Pose3d}, {@code Rotation2d}, and {@code
+ * Rotation3d} are registered by default, in the formats expected by AdvantageScope.
+ *
+ * <p>Other types (for example, swerve module states) can be registered from robot code, and should
+ * be registered before any Logger of that type receives its first value.
+ */
+public final class LogEncoderRegistry {
+    private static final Map<Class<?>, LogEncoder<?>> encoders = new ConcurrentHashMap<>();
+
+    // cache of lookups, including subtypes of registered types and types with no encoder
+    private static final Map<Class<?>, Optional<LogEncoder<?>>> resolved =
+            new ConcurrentHashMap<>();
+
+    static {
+        register(
+                Pose2d.class,
+                new LogEncoder<>() {
+                    @Override
+                    public int getLength() {
+                        return 3;
+                    }
+
+                    @Override
+                    public void encode(Pose2d value, double[] buffer) {
+                        buffer[0] = value.getX();
+                        buffer[1] = value.getY();
+                        buffer[2] = value.getRotation().getRadians();
+                    }
+                });
+
+        register(
+                Pose3d.class,
+                new LogEncoder<>() {
+                    @Override
+                    public int getLength() {
+                        return 7;
+                    }
+
+                    @Override
+                    public void encode(Pose3d value, double[] buffer) {
+                        Rotation3d rotation = value.getRotation();
+
+                        buffer[0] = value.getX();
+                        buffer[1] = value.getY();
+                        buffer[2] = value.getZ();
+                        buffer[3] = rotation.getAngle(); // w
+                        buffer[4] = rotation.getX();
+                        buffer[5] = rotation.getY();
+                        buffer[6] = rotation.getZ();
+                    }
+                });
+
+        register(
+                Rotation2d.class,
+                new LogEncoder<>() {
+                    @Override
+                    public int getLength() {
+                        return 1;
+                    }
+
+                    @Override
+                    public void encode(Rotation2d value, double[] buffer) {
+                        buffer[0] = value.getRadians();
+                    }
+
+                    @Override
+                    public boolean isScalar() {
+                        return true;
+                    }
+                });
+
+        register(
+                Rotation3d.class,
+                new LogEncoder<>() {
+                    @Override
+                    public int getLength() {
+                        return 4;
+                    }
+
+                    @Override
+                    public void encode(Rotation3d value, double[] buffer) {
+                        buffer[0] = value.getAngle(); // w
+                        buffer[1] = value.getX();
+                        buffer[2] = value.getY();
+                        buffer[3] = value.getZ();
+                    }
+                });
+    }
+
+    private LogEncoderRegistry() {}
+
+    /**
+     * Registers an encoder for a type, replacing any encoder previously registered for exactly that
+     * type.
+     *
+     * @param <T> The type to encode.
+     * @param type The class of the type to encode. The encoder is also used for its subtypes,
+     *     unless they have an encoder of their own.
+     * @param encoder The encoder to use.
+     */
+    public static <T> void register(Class<T> type, LogEncoder<? super T> encoder) {
+        encoders.put(type, encoder);
+        resolved.clear();
+    }
+
+    /**
+     * Returns the encoder to use for a type.
+     *
+     * <p>An encoder registered for the exact type is preferred, followed by encoders of its
+     * superclasses (nearest first), and then of the interfaces it implements.
+     *
+     * @param type The class of the value to encode.
+     * @return The encoder, or {@code null} if no registered encoder applies to the type.
+     */
+    public static LogEncoder<?> get(Class<?> type) {
+        return resolved.computeIfAbsent(type, LogEncoderRegistry::resolve).orElse(null);
+    }
+
+    private static Optional<LogEncoder<?>> resolve(Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            LogEncoder<?> encoder = encoders.get(current);
+            if (encoder != null) return Optional.of(encoder);
+        }
+
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Class<?> implemented : current.getInterfaces()) {
+                LogEncoder<?> encoder = encoders.get(implemented);
+                if (encoder != null) return Optional.of(encoder);
+            }
+        }
+
+        return Optional.empty();
+    }
+}
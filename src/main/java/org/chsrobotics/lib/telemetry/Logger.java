@@ -16,16 +16,15 @@ If not, see <https://www.gnu.org/licenses/>.
 */
 package org.chsrobotics.lib.telemetry;
 
-import edu.wpi.first.math.geometry.Pose2d;
-import edu.wpi.first.math.geometry.Pose3d;
-import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.networktables.GenericPublisher;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.networktables.NetworkTableType;
 import edu.wpi.first.networktables.Topic;
 import edu.wpi.first.util.datalog.DataLog;
-import java.util.Objects;
+import java.security.InvalidParameterException;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
 
 /**
@@ -34,12 +33,24 @@ import java.util.function.Supplier;
  * <p>Parameterized to the type of data to publish/log.
  *
  * <p>If the data isn't numerical (Double, Int, Long, etc), Boolean, String, or an Array of one of
- * those types, this will instead publish and log the result of its {@code .toString()} method.
+ * those types, this will instead publish and log the result of its {@code .toString()} method,
+ * unless a {@link LogEncoder} has been registered for its type in the {@link LogEncoderRegistry}
+ * (as is the case for WPILib's geometry types).
+ *
+ * <p>How values are converted is resolved once, when the first non-null value is logged, so later
+ * updates don't repeat any type checks.
  *
  * <p>This can generally be used in two ways: construction with a lambda of the logged value, or
  * passing the new value with every call of {@code update()}.
  *
  * <p>Values are only flushed to NetworkTables and built-in logs when {@code update()} is called.
+ * If asynchronous telemetry has been started with {@link HighLevelLogger#startAsyncTelemetry(int)},
+ * changed values are instead queued to be flushed by a background thread. Queued values are not
+ * copied, so logged arrays shouldn't be modified after being passed to this.
+ *
+ * <p>For {@code double}, {@code boolean}, {@code double[]}, and {@code String} data, the
+ * specialized {@link DoubleLogger}, {@link BooleanLogger}, {@link DoubleArrayLogger}, and {@link
+ * StringLogger} avoid the boxing and per-update allocation of this class.
  *
  * @param <T> The data type of the log entry.
  */
@@ -106,8 +117,94 @@ public class Logger<T> {
         public Logger<U> getLogger(String key, Supplier<U> lambda) {
             return new Logger<>(lambda, log, key, key, publishToNT, recordInLog);
         }
+
+        /**
+         * Constructs and returns a new {@link DoubleLogger} with the parameters given above.
+         *
+         * @param key A string identifier for the logged field.
+         * @return A new DoubleLogger.
+         */
+        public DoubleLogger getDoubleLogger(String key) {
+            return new DoubleLogger(log, key, subdirName, publishToNT, recordInLog);
+        }
+
+        /**
+         * Constructs and returns a new {@link DoubleLogger} with the parameters given above.
+         *
+         * @param key A string identifier for the logged field.
+         * @param lambda Lambda to use as initial data source.
+         * @return A new DoubleLogger.
+         */
+        public DoubleLogger getDoubleLogger(String key, DoubleSupplier lambda) {
+            return new DoubleLogger(lambda, log, key, subdirName, publishToNT, recordInLog);
+        }
+
+        /**
+         * Constructs and returns a new {@link BooleanLogger} with the parameters given above.
+         *
+         * @param key A string identifier for the logged field.
+         * @return A new BooleanLogger.
+         */
+        public BooleanLogger getBooleanLogger(String key) {
+            return new BooleanLogger(log, key, subdirName, publishToNT, recordInLog);
+        }
+
+        /**
+         * Constructs and returns a new {@link BooleanLogger} with the parameters given above.
+         *
+         * @param key A string identifier for the logged field.
+         * @param lambda Lambda to use as initial data source.
+         * @return A new BooleanLogger.
+         */
+        public BooleanLogger getBooleanLogger(String key, BooleanSupplier lambda) {
+            return new BooleanLogger(lambda, log, key, subdirName, publishToNT, recordInLog);
+        }
+
+        /**
+         * Constructs and returns a new {@link DoubleArrayLogger} with the parameters given above.
+         *
+         * @param key A string identifier for the logged field.
+         * @return A new DoubleArrayLogger.
+         */
+        public DoubleArrayLogger getDoubleArrayLogger(String key) {
+            return new DoubleArrayLogger(log, key, subdirName, publishToNT, recordInLog);
+        }
+
+        /**
+         * Constructs and returns a new {@link DoubleArrayLogger} with the parameters given above.
+         *
+         * @param key A string identifier for the logged field.
+         * @param lambda Lambda to use as initial data source.
+         * @return A new DoubleArrayLogger.
+         */
+        public DoubleArrayLogger getDoubleArrayLogger(String key, Supplier<double[]> lambda) {
+            return new DoubleArrayLogger(lambda, log, key, subdirName, publishToNT, recordInLog);
+        }
+
+        /**
+         * Constructs and returns a new {@link StringLogger} with the parameters given above.
+         *
+         * @param key A string identifier for the logged field.
+         * @return A new StringLogger.
+         */
+        public StringLogger getStringLogger(String key) {
+            return new StringLogger(log, key, subdirName, publishToNT, recordInLog);
+        }
+
+        /**
+         * Constructs and returns a new {@link StringLogger} with the parameters given above.
+         *
+         * @param key A string identifier for the logged field.
+         * @param lambda Lambda to use as initial data source.
+         * @return A new StringLogger.
+         */
+        public StringLogger getStringLogger(String key, Supplier<String> lambda) {
+            return new StringLogger(lambda, log, key, subdirName, publishToNT, recordInLog);
+        }
     }
 
+    private static final NetworkTableType[] dataTypes = NetworkTableType.values();
+
     private final DataLog log;
     private boolean publishToNT;
     private boolean recordInLog;
@@ -120,7 +217,10 @@ public class Logger<T> {
 
     private int logHandle = 0; // not a valid handle
 
-    private Object prevVal = null;
+    private ValueWriter writer = null;
+    private Class<?> writerClass = null;
+
+    private final TelemetryFlusher.Sink asyncSink = this::flush;
 
     private Supplier<T> lambda;
 
@@ -234,155 +334,315 @@ public class Logger<T> {
      *
      * <p>If this was not constructed with a lambda and other {@code update()} methods have not been
      * invoked, is a non-op.
+     *
+     * @throws InvalidParameterException If the value is of a different class than earlier values,
+     *     and is logged as a different NetworkTables type (for example, a String after a Double).
+     *     The topic and log entry keep the type of the first value logged.
      */
     public void update() {
-        Object value = lambda.get();
+        T value = lambda.get();
 
-        if (!Objects.equals(value, prevVal)) {
-            NetworkTableType dataType =
-                    NetworkTableType.getFromString(NetworkTableType.getStringFromObject(value));
+        if (value == null) return;
 
-            if (value != null) {
-                // special-case logging to match AdvantageScope expected formats
-                if (value instanceof Pose2d) {
-                    Pose2d castValue = (Pose2d) value;
+        // resolve how to write values of this type only on the first value (or if it changes)
+        if (writer == null || value.getClass() != writerClass) resolveWriter(value.getClass());
 
-                    value =
-                            new Double[] {
-                                castValue.getX(),
-                                castValue.getY(),
-                                castValue.getRotation().getRadians()
-                            };
+        writer.write(value);
+    }
 
-                    dataType = NetworkTableType.kDoubleArray;
-                }
+    private void resolveWriter(Class<?> type) {
+        LogEncoder<?> encoder = LogEncoderRegistry.get(type);
+
+        ValueWriter resolved =
+                (encoder != null)
+                        ? new EncodedWriter(encoder)
+                        : new ObjectWriter(getDataType(type));
+
+        // the publisher and log entry are typed by the first value, and can't be changed
+        if (writer != null && resolved.dataType != writer.dataType) {
+            throw new InvalidParameterException(
+                    "Logger "
+                            + logEntryIdentifier
+                            + " was given a "
+                            + type.getName()
+                            + " (logged as "
+                            + resolved.dataType.getValueStr()
+                            + "), but is already logging "
+                            + writer.dataType.getValueStr()
+                            + "!");
+        }
 
-                if (value instanceof Pose3d) {
-                    Pose3d castValue = (Pose3d) value;
-
-                    value =
-                            new Double[] {
-                                castValue.getX(),
-                                castValue.getY(),
-                                castValue.getZ(),
-                                castValue.getRotation().getAngle(), // w
-                                castValue.getRotation().getX(),
-                                castValue.getRotation().getY(),
-                                castValue.getRotation().getZ()
-                            };
-
-                    dataType = NetworkTableType.kDoubleArray;
-                }
+        writer = resolved;
+        writerClass = type;
 
-                if (value instanceof Rotation2d) {
-                    Rotation2d castValue = (Rotation2d) value;
+        if (publisher == null) {
+            publisher = ntTopic.genericPublish(writer.dataType.getValueStr());
+        }
 
-                    value = castValue.getRadians();
+        if (logHandle == 0) {
+            logHandle = log.start(logEntryIdentifier, writer.dataType.getValueStr());
+        }
+    }
 
-                    dataType = NetworkTableType.kDouble;
-                }
+    private static NetworkTableType getDataType(Class<?> type) {
+        if (type == Boolean.class) return NetworkTableType.kBoolean;
 
-                if (value instanceof Rotation3d) {
-                    Rotation3d castValue = (Rotation3d) value;
+        // don't want to accidentially lock ourselves out of
+        // floating-point numbers if first logged value is integer,
+        // so just cast all numerical types to double
+        if (Number.class.isAssignableFrom(type)) return NetworkTableType.kDouble;
 
-                    value =
-                            new Double[] {
-                                castValue.getAngle(), // w
-                                castValue.getX(),
-                                castValue.getY(),
-                                castValue.getZ()
-                            };
+        if (type == byte[].class || type == Byte[].class) return NetworkTableType.kRaw;
 
-                    dataType = NetworkTableType.kDoubleArray;
-                }
+        if (type == double[].class
+                || type == float[].class
+                || type == int[].class
+                || type == long[].class
+                || Number[].class.isAssignableFrom(type)) return NetworkTableType.kDoubleArray;
 
-                if (dataType == NetworkTableType.kUnassigned) {
-                    value = value.toString();
-                }
+        if (type == boolean[].class || type == Boolean[].class) {
+            return NetworkTableType.kBooleanArray;
+        }
 
-                // don't want to accidentially lock ourselves out of
-                // floating-point numbers if first logged value is integer,
-                // so just cast all numerical types to double
-                if (dataType == NetworkTableType.kFloat || dataType == NetworkTableType.kInteger) {
-                    value = (double) value;
-                    dataType = NetworkTableType.kDouble;
-                }
-                if (dataType == NetworkTableType.kFloatArray
-                        || dataType == NetworkTableType.kIntegerArray) {
-                    value = (double[]) value;
-                    dataType = NetworkTableType.kDoubleArray;
-                }
+        if (type == String[].class) return NetworkTableType.kStringArray;
 
-                if (publisher == null) {
-                    publisher = ntTopic.genericPublish(NetworkTableType.getStringFromObject(value));
-                }
+        // strings, and the toString() of anything else
+        return NetworkTableType.kString;
+    }
 
-                publisher.setValue(value);
+    /** Writes values of a resolved type to the data sinks. */
+    private abstract class ValueWriter {
+        final NetworkTableType dataType;
 
-                if (logHandle == 0) {
-                    logHandle = log.start(logEntryIdentifier, dataType.getValueStr());
-                }
+        ValueWriter(NetworkTableType dataType) {
+            this.dataType = dataType;
+        }
 
-                switch (dataType) {
-                    case kBoolean:
-                        log.appendBoolean(logHandle, (boolean) value, 0);
-                        break;
-                    case kDouble:
-                        log.appendDouble(logHandle, (double) value, 0);
-                        break;
-                    case kString:
-                        log.appendString(logHandle, (String) value, 0);
-                        break;
-                    case kRaw:
-                        Byte[] valueAsBytes = (Byte[]) value;
+        abstract void write(Object value);
+    }
+
+    /** Writes values through a {@link LogEncoder}, into reused buffers. */
+    private class EncodedWriter extends ValueWriter {
+        private final LogEncoder<Object> encoder;
 
-                        byte[] primitiveByteArray = new byte[valueAsBytes.length];
+        private double[] buffer;
+        private double[] prevBuffer;
+        private boolean hasPrevVal = false;
 
-                        for (int i = 0; i < valueAsBytes.length; i++)
-                            primitiveByteArray[i] = valueAsBytes[i];
+        @SuppressWarnings("unchecked")
+        EncodedWriter(LogEncoder<?> encoder) {
+            super(
+                    encoder.isScalar() && encoder.getLength() == 1
+                            ? NetworkTableType.kDouble
+                            : NetworkTableType.kDoubleArray);
 
-                        log.appendRaw(logHandle, (byte[]) value, 0);
+            this.encoder = (LogEncoder<Object>) encoder;
 
-                        break;
-                    case kBooleanArray:
-                        Boolean[] valueAsBools = (Boolean[]) value;
+            buffer = new double[encoder.getLength()];
+            prevBuffer = new double[encoder.getLength()];
+        }
 
-                        boolean[] primitiveBoolArray = new boolean[valueAsBools.length];
+        @Override
+        void write(Object value) {
+            encoder.encode(value, buffer);
 
-                        for (int i = 0; i < valueAsBools.length; i++)
-                            primitiveBoolArray[i] = valueAsBools[i];
+            if (hasPrevVal && Arrays.equals(buffer, prevBuffer)) return;
 
-                        log.appendBooleanArray(logHandle, primitiveBoolArray, 0);
+            boolean sent =
+                    (dataType == NetworkTableType.kDouble)
+                            ? send(dataType, buffer[0], null)
+                            : sendDoubleArray(buffer);
 
-                        break;
-                    case kDoubleArray:
-                        Double[] valueAsDoubles = (Double[]) value;
+            if (sent) {
+                double[] swap = prevBuffer;
+                prevBuffer = buffer;
+                buffer = swap;
 
-                        double[] primitiveDoubleArray = new double[valueAsDoubles.length];
+                hasPrevVal = true;
+            }
+        }
+    }
 
-                        for (int i = 0; i < valueAsDoubles.length; i++)
-                            primitiveDoubleArray[i] = valueAsDoubles[i];
+    /** Writes values natively supported by NetworkTables, or their {@code toString()}. */
+    private class ObjectWriter extends ValueWriter {
+        private Object prevVal = null;
 
-                        log.appendDoubleArray(logHandle, primitiveDoubleArray, 0);
+        ObjectWriter(NetworkTableType dataType) {
+            super(dataType);
+        }
 
-                        break;
-                    case kStringArray:
-                        log.appendStringArray(logHandle, (String[]) value, 0);
-                        break;
-                        // won't have non-double numerical types
-                    default:
-                        log.appendString(logHandle, value.toString(), 0);
-                        break;
-                }
+        @Override
+        void write(Object value) {
+            if (value.equals(prevVal)) return;
+
+            boolean sent;
+
+            switch (dataType) {
+                case kBoolean:
+                    sent = send(dataType, (Boolean) value ? 1 : 0, null);
+                    break;
+                case kDouble:
+                    sent = send(dataType, ((Number) value).doubleValue(), null);
+                    break;
+                case kRaw:
+                    sent = send(dataType, 0, toByteArray(value));
+                    break;
+                case kDoubleArray:
+                    sent = sendDoubleArray(toDoubleArray(value));
+                    break;
+                case kBooleanArray:
+                    sent = send(dataType, 0, toBooleanArray(value));
+                    break;
+                case kStringArray:
+                    sent = send(dataType, 0, value);
+                    break;
+                default:
+                    sent = send(NetworkTableType.kString, 0, value.toString());
+                    break;
             }
+
+            if (sent) prevVal = value;
+        }
+    }
+
+    private static byte[] toByteArray(Object value) {
+        if (value instanceof byte[]) return (byte[]) value;
+
+        Byte[] valueAsBytes = (Byte[]) value;
+
+        byte[] primitiveByteArray = new byte[valueAsBytes.length];
+
+        for (int i = 0; i < valueAsBytes.length; i++) primitiveByteArray[i] = valueAsBytes[i];
+
+        return primitiveByteArray;
+    }
+
+    private static boolean[] toBooleanArray(Object value) {
+        if (value instanceof boolean[]) return (boolean[]) value;
+
+        Boolean[] valueAsBools = (Boolean[]) value;
+
+        boolean[] primitiveBoolArray = new boolean[valueAsBools.length];
+
+        for (int i = 0; i < valueAsBools.length; i++) primitiveBoolArray[i] = valueAsBools[i];
+
+        return primitiveBoolArray;
+    }
+
+    private static double[] toDoubleArray(Object value) {
+        if (value instanceof double[]) return (double[]) value;
+
+        double[] primitiveDoubleArray;
+
+        if (value instanceof float[]) {
+            float[] valueAsFloats = (float[]) value;
+            primitiveDoubleArray = new double[valueAsFloats.length];
+
+            for (int i = 0; i < valueAsFloats.length; i++)
+                primitiveDoubleArray[i] = valueAsFloats[i];
+        } else if (value instanceof int[]) {
+            int[] valueAsInts = (int[]) value;
+            primitiveDoubleArray = new double[valueAsInts.length];
+
+            for (int i = 0; i < valueAsInts.length; i++) primitiveDoubleArray[i] = valueAsInts[i];
+        } else if (value instanceof long[]) {
+            long[] valueAsLongs = (long[]) value;
+            primitiveDoubleArray = new double[valueAsLongs.length];
+
+            for (int i = 0; i < valueAsLongs.length; i++)
+                primitiveDoubleArray[i] = valueAsLongs[i];
+        } else {
+            Number[] valueAsNumbers = (Number[]) value;
+            primitiveDoubleArray = new double[valueAsNumbers.length];
+
+            for (int i = 0; i < valueAsNumbers.length; i++)
+                primitiveDoubleArray[i] = valueAsNumbers[i].doubleValue();
+        }
+
+        return primitiveDoubleArray;
+    }
+
+    private boolean send(NetworkTableType dataType, double numericValue, Object objectValue) {
+        TelemetryFlusher flusher = HighLevelLogger.getInstance().getTelemetryFlusher();
+
+        if (flusher != null) {
+            if (flusher.offer(asyncSink, dataType.ordinal(), numericValue, objectValue)) {
+                return true;
+            }
+
+            // the queue is full, so retry on the next update
+            if (flusher.isAccepting()) return false;
+
+            // the flusher stopped after it was read, so write directly
+        }
+
+        flush(dataType.ordinal(), numericValue, objectValue, 0);
+        return true;
+    }
+
+    private boolean sendDoubleArray(double[] value) {
+        TelemetryFlusher flusher = HighLevelLogger.getInstance().getTelemetryFlusher();
+
+        if (flusher != null) {
+            if (flusher.offerArray(asyncSink, NetworkTableType.kDoubleArray.ordinal(), value)) {
+                return true;
+            }
+
+            // the queue is full, so retry on the next update
+            if (flusher.isAccepting()) return false;
+
+            // the flusher stopped after it was read, so write directly
+        }
+
+        flush(NetworkTableType.kDoubleArray.ordinal(), 0, value, 0);
+        return true;
+    }
+
+    private void flush(int tag, double numericValue, Object objectValue, long timestamp) {
+        switch (dataTypes[tag]) {
+            case kBoolean:
+                if (publishToNT) publisher.setBoolean(numericValue != 0, timestamp);
+                if (recordInLog) log.appendBoolean(logHandle, numericValue != 0, timestamp);
+                break;
+            case kDouble:
+                if (publishToNT) publisher.setDouble(numericValue, timestamp);
+                if (recordInLog) log.appendDouble(logHandle, numericValue, timestamp);
+                break;
+            case kRaw:
+                if (publishToNT) publisher.setRaw((byte[]) objectValue, timestamp);
+                if (recordInLog) log.appendRaw(logHandle, (byte[]) objectValue, timestamp);
+                break;
+            case kBooleanArray:
+                if (publishToNT) publisher.setBooleanArray((boolean[]) objectValue, timestamp);
+                if (recordInLog) {
+                    log.appendBooleanArray(logHandle, (boolean[]) objectValue, timestamp);
+                }
+                break;
+            case kDoubleArray:
+                if (publishToNT) publisher.setDoubleArray((double[]) objectValue, timestamp);
+                if (recordInLog) {
+                    log.appendDoubleArray(logHandle, (double[]) objectValue, timestamp);
+                }
+                break;
+            case kStringArray:
+                if (publishToNT) publisher.setStringArray((String[]) objectValue, timestamp);
+                if (recordInLog) {
+                    log.appendStringArray(logHandle, (String[]) objectValue, timestamp);
+                }
+                break;
+            default:
+                if (publishToNT) publisher.setString((String) objectValue, timestamp);
+                if (recordInLog) log.appendString(logHandle, (String) objectValue, timestamp);
+                break;
         }
-        prevVal = value;
     }
 
     /**
      * Updates data sinks with the given value.
      *
      * @param value Instance of type T to store internally and send to data sinks.
+     * @throws InvalidParameterException If the value is logged as a different type than earlier
+     *     values (see {@link #update()}).
      */
     public void update(T value) {
         lambda = () -> value;
@@ -0,0 +1,112 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.telemetry;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+/**
+ * Common superclass for the type-specialized loggers ({@link DoubleLogger}, {@link BooleanLogger},
+ * {@link DoubleArrayLogger}, {@link StringLogger}).
+ *
+ * <p>Unlike the generic {@link Logger}, these hold their last value as a primitive (or a reused
+ * array), resolve their NetworkTables publisher and DataLog entry once at construction, and do not
+ * allocate on the heap when {@code update()} is called.
+ *
+ * <p>Values are only flushed to NetworkTables and built-in logs when {@code update()} is called,
+ * and only if they have changed since the last flush. If asynchronous telemetry has been started
+ * with {@link HighLevelLogger#startAsyncTelemetry(int)}, changed values are instead queued to be
+ * flushed by a background thread.
+ */
+public abstract class PrimitiveLogger {
+    private boolean publishToNT;
+    private boolean recordInLog;
+
+    /** The NetworkTables sub-table this publishes into. */
+    protected final NetworkTable ntTable;
+
+    /** The key of this logger inside of {@code ntTable}. */
+    protected final String key;
+
+    /** The name of the entry this records to in the DataLog. */
+    protected final String logEntryIdentifier;
+
+    /**
+     * Constructs a PrimitiveLogger.
+     *
+     * @param key A string identifier for the logged field.
+     * @param subdirName The string name of the existing or new NetworkTables sub-table to write to.
+     * @param publishToNT Whether this should push logged values to NetworkTables.
+     * @param recordInLog Whether this should store logged values in an on-robot log file.
+     */
+    protected PrimitiveLogger(
+            String key, String subdirName, boolean publishToNT, boolean recordInLog) {
+        this.publishToNT = publishToNT;
+        this.recordInLog = recordInLog;
+        this.key = key;
+
+        logEntryIdentifier = subdirName + "_" + key;
+
+        ntTable = NetworkTableInstance.getDefault().getTable(subdirName);
+    }
+
+    /**
+     * Returns whether this is publishing values to NetworkTables.
+     *
+     * @return True new values are pushed to NetworkTables.
+     */
+    public boolean isPublishingToNT() {
+        return publishToNT;
+    }
+
+    /** Values will be pushed to NetworkTables. */
+    public void startPublishingToNT() {
+        publishToNT = true;
+    }
+
+    /** Values will not be pushed to NetworkTables. */
+    public void stopPublishingToNT() {
+        publishToNT = false;
+    }
+
+    /**
+     * Returns whether this is recording values to the on-robot log.
+     *
+     * @return True if values are being recorded to the on board data log.
+     */
+    public boolean isRecordingToLog() {
+        return recordInLog;
+    }
+
+    /** Values will be recorded to the on board data log. */
+    public void startRecordingToLog() {
+        recordInLog = true;
+    }
+
+    /** Values will not be recorded to the on board data log. */
+    public void stopRecordingToLog() {
+        recordInLog = false;
+    }
+
+    /**
+     * Updates data sinks with the current value of this logger's lambda.
+     *
+     * <p>If this was not constructed with a lambda and other {@code update()} methods have not been
+     * invoked, is a non-op.
+     */
+    public abstract void update();
+}
@@ -0,0 +1,412 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.telemetry;
+
+import edu.wpi.first.util.WPIUtilJNI;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous pipeline for telemetry, which moves NetworkTables and DataLog writes off of the
+ * thread calling {@code update()} on loggers.
+ *
+ * <p>Updates are written into a preallocated ring buffer, and a single background thread drains
+ * them in batches to their NetworkTables publishers and DataLog entries. The cost of a logger
+ * update on the calling thread is bounded to claiming a slot and a few array stores.
+ *
+ * <p>The timestamp of each update is captured when it is queued, not when it is flushed, so
+ * recorded timing is unaffected by the flush delay.
+ *
+ * <p>If the buffer is full when an update is queued, the update is dropped and counted (see {@link
+ * #getDroppedCount()}). Loggers will retry dropped values on their next {@code update()}.
+ *
+ * <p>An exception thrown while flushing an update is counted (see {@link #getFlushErrorCount()})
+ * and the update skipped, so one failing data sink can't stop the flusher thread.
+ *
+ * <p>Once the flusher has stopped, updates are no longer queued, and loggers write them
+ * synchronously instead.
+ *
+ * <p>Instances are owned by the {@link HighLevelLogger}; see {@link
+ * HighLevelLogger#startAsyncTelemetry(int)}. While a flusher is running, every {@link Logger} and
+ * {@link PrimitiveLogger} routes its updates through it.
+ */
+public class TelemetryFlusher {
+    /** Receives queued updates on the flusher thread. */
+    interface Sink {
+        /**
+         * Writes a queued update to the underlying data sinks.
+         *
+         * @param tag A sink-defined integer.
+         * @param numericValue A sink-defined double.
+         * @param objectValue A sink-defined object.
+         * @param timestampMicros The time the update was queued, in microseconds.
+         */
+        void flush(int tag, double numericValue, Object objectValue, long timestampMicros);
+    }
+
+    /** The default number of updates which can be queued at once. */
+    public static final int defaultCapacity = 4096;
+
+    private static final int batchSize = 256;
+    private static final long idleParkNanos = 1_000_000;
+
+    private final int capacity;
+    private final int mask;
+
+    private final Sink[] sinks;
+    private final int[] tags;
+    private final double[] numericValues;
+    private final Object[] objectValues;
+    private final long[] timestamps;
+    private final double[][] arrayBuffers;
+
+    // sequence number of the update held in each slot, or -1 if the slot hasn't been published
+    private final AtomicLongArray publishedSequences;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong flushedCount = new AtomicLong();
+    private final AtomicLong flushErrorCount = new AtomicLong();
+    private final AtomicInteger highWaterMark = new AtomicInteger();
+
+    // number of producers between checking accepting and publishing their update
+    private final AtomicInteger activeProducers = new AtomicInteger();
+
+    private volatile boolean accepting = false;
+    private volatile boolean running = false;
+    private boolean stopped = false;
+    private Thread thread = null;
+
+    /**
+     * Constructs a TelemetryFlusher. The flusher thread isn't started until {@link #start()} is
+     * called.
+     *
+     * @param capacity The number of updates which can be queued at once. Rounded up to the next
+     *     power of two. If less than 1, {@link #defaultCapacity} is used.
+     */
+    TelemetryFlusher(int capacity) {
+        if (capacity < 1) capacity = defaultCapacity;
+
+        this.capacity = ceilPowerOfTwo(capacity);
+        mask = this.capacity - 1;
+
+        sinks = new Sink[this.capacity];
+        tags = new int[this.capacity];
+        numericValues = new double[this.capacity];
+        objectValues = new Object[this.capacity];
+        timestamps = new long[this.capacity];
+        arrayBuffers = new double[this.capacity][];
+
+        publishedSequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) publishedSequences.set(i, -1);
+    }
+
+    private static int ceilPowerOfTwo(int value) {
+        int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+
+    /**
+     * Starts the background flusher thread, if it isn't already running. A flusher can't be
+     * restarted once stopped.
+     */
+    synchronized void start() {
+        if (running || stopped) return;
+
+        running = true;
+        accepting = true;
+
+        thread = new Thread(this::run, "TelemetryFlusher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the background flusher thread, waiting for it to flush every update queued before this
+     * was called.
+     */
+    synchronized void stop() {
+        if (!running) return;
+
+        stopped = true;
+        accepting = false;
+
+        // wait for producers which saw accepting before it was cleared to publish, so that the
+        // final drain includes their updates
+        while (activeProducers.get() != 0) Thread.onSpinWait();
+
+        running = false;
+
+        LockSupport.unpark(thread);
+
+        try {
+            thread.join();
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+        }
+
+        thread = null;
+    }
+
+    /**
+     * Returns whether the background flusher thread is running.
+     *
+     * @return Whether this is draining queued updates.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Returns whether updates are being queued. Once false after the flusher has been started,
+     * {@code offer()} only fails because the flusher has stopped, never because the queue is full.
+     *
+     * @return Whether the flusher is accepting updates.
+     */
+    public boolean isAccepting() {
+        return accepting;
+    }
+
+    /**
+     * Returns the number of updates which can be queued at once.
+     *
+     * @return The capacity of the ring buffer.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of updates queued but not yet flushed.
+     *
+     * @return The current depth of the queue.
+     */
+    public int getPendingCount() {
+        return (int) (head.get() - tail.get());
+    }
+
+    /**
+     * Returns the greatest number of updates which have been queued at once.
+     *
+     * @return The high-water mark of the queue.
+     */
+    public int getHighWaterMark() {
+        return highWaterMark.get();
+    }
+
+    /**
+     * Returns the number of updates which were dropped because the queue was full.
+     *
+     * @return The total number of dropped updates.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Returns the number of updates which have been written to their data sinks.
+     *
+     * @return The total number of flushed updates.
+     */
+    public long getFlushedCount() {
+        return flushedCount.get();
+    }
+
+    /**
+     * Returns the number of updates whose data sink threw an exception while being flushed.
+     *
+     * @return The total number of failed flushes.
+     */
+    public long getFlushErrorCount() {
+        return flushErrorCount.get();
+    }
+
+    /** Resets the dropped count, the flush error count, and the high-water mark. */
+    public void resetStatistics() {
+        droppedCount.set(0);
+        flushErrorCount.set(0);
+        highWaterMark.set(0);
+    }
+
+    /**
+     * Queues an update.
+     *
+     * @param sink The sink to flush the update to.
+     * @param tag A sink-defined integer.
+     * @param numericValue A sink-defined double.
+     * @param objectValue A sink-defined object.
+     * @return Whether the update was queued. If false, either the queue was full and the update
+     *     was dropped, or the flusher has stopped (see {@link #isAccepting()}).
+     */
+    boolean offer(Sink sink, int tag, double numericValue, Object objectValue) {
+        if (!enter()) return false;
+
+        try {
+            long sequence = claim();
+
+            if (sequence < 0) return false;
+
+            int index = (int) sequence & mask;
+
+            objectValues[index] = objectValue;
+
+            publish(index, sequence, sink, tag, numericValue);
+
+            return true;
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Queues an update of a double array. The array is copied into a buffer owned by the queue, so
+     * the caller is free to modify it after this returns.
+     *
+     * <p>The buffer of a slot is only reallocated if the length of the array changes.
+     *
+     * @param sink The sink to flush the update to. Receives the copied array as its {@code
+     *     objectValue}.
+     * @param tag A sink-defined integer.
+     * @param array The array to copy and queue.
+     * @return Whether the update was queued. If false, either the queue was full and the update
+     *     was dropped, or the flusher has stopped (see {@link #isAccepting()}).
+     */
+    boolean offerArray(Sink sink, int tag, double[] array) {
+        if (!enter()) return false;
+
+        try {
+            long sequence = claim();
+
+            if (sequence < 0) return false;
+
+            int index = (int) sequence & mask;
+
+            double[] buffer = arrayBuffers[index];
+            if (buffer == null || buffer.length != array.length) {
+                buffer = new double[array.length];
+                arrayBuffers[index] = buffer;
+            }
+
+            System.arraycopy(array, 0, buffer, 0, array.length);
+
+            objectValues[index] = buffer;
+
+            publish(index, sequence, sink, tag, 0);
+
+            return true;
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Registers a producer, if updates are being accepted. If not, waits for any stop in progress
+     * to finish flushing, so that a caller writing synchronously instead can't be overwritten by
+     * an older queued update.
+     *
+     * @return Whether the producer may queue an update. If true, the caller must decrement {@code
+     *     activeProducers} once the update has been published (or dropped).
+     */
+    private boolean enter() {
+        activeProducers.incrementAndGet();
+
+        if (accepting) return true;
+
+        activeProducers.decrementAndGet();
+
+        // stop() holds the lock until the flusher thread has finished
+        synchronized (this) {
+            return false;
+        }
+    }
+
+    private long claim() {
+        long sequence;
+
+        do {
+            sequence = head.get();
+
+            if (sequence - tail.get() >= capacity) {
+                droppedCount.incrementAndGet();
+                return -1;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+
+        int depth = (int) (sequence + 1 - tail.get());
+        if (depth > highWaterMark.get()) highWaterMark.accumulateAndGet(depth, Math::max);
+
+        return sequence;
+    }
+
+    private void publish(int index, long sequence, Sink sink, int tag, double numericValue) {
+        sinks[index] = sink;
+        tags[index] = tag;
+        numericValues[index] = numericValue;
+        timestamps[index] = WPIUtilJNI.now();
+
+        // release store, so the flusher thread sees the slot contents written above
+        publishedSequences.lazySet(index, sequence);
+    }
+
+    private void run() {
+        while (running) {
+            if (drain(batchSize) == 0) LockSupport.parkNanos(this, idleParkNanos);
+        }
+
+        // flush anything queued before stopping
+        drain(Integer.MAX_VALUE);
+    }
+
+    private int drain(int maxCount) {
+        long sequence = tail.get();
+        int count = 0;
+        int errors = 0;
+
+        while (count < maxCount) {
+            int index = (int) sequence & mask;
+
+            if (publishedSequences.get(index) != sequence) break;
+
+            Sink sink = sinks[index];
+            Object objectValue = objectValues[index];
+
+            sinks[index] = null;
+            objectValues[index] = null;
+
+            try {
+                sink.flush(tags[index], numericValues[index], objectValue, timestamps[index]);
+            } catch (RuntimeException exc) {
+                errors++;
+            }
+
+            sequence++;
+            count++;
+
+            // slot may be reused by producers once the tail has passed it
+            tail.lazySet(sequence);
+        }
+
+        if (count > errors) flushedCount.addAndGet(count - errors);
+        if (errors > 0) flushErrorCount.addAndGet(errors);
+
+        return count;
+    }
+}
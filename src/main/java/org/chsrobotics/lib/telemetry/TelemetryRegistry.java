@@ -0,0 +1,343 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.telemetry;
+
+import edu.wpi.first.util.datalog.DataLog;
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+
+/**
+ * Central owner of telemetry updates, which calls {@code update()} on registered loggers at a
+ * reduced rate, once per call of {@link #update()}.
+ *
+ * <p>Each registered logger is sampled every {@code sampleDivisor} robot loop cycles (a divisor of
+ * 1 samples every cycle). A divisor can be found from a target rate in Hz with {@link
+ * #getDivisorForRate(double)}.
+ *
+ * <p>High-priority loggers are updated first in every cycle, and all share the same phase, so a
+ * high-priority logger with a divisor of N is updated on every cycle which is a multiple of N.
+ * Low-priority loggers are instead given the phase (within their divisor) whose cycles have the
+ * fewest other loggers scheduled on them, which spreads them evenly across cycles and flattens the
+ * per-cycle cost of telemetry.
+ *
+ * <p>The time spent in each call of {@link #update()} is measured, and can be read directly or
+ * logged with {@link #autoGenerateLogs(DataLog, String, String, boolean, boolean)}.
+ *
+ * <p>This is not thread-safe; loggers should be registered and updated from the robot loop thread.
+ */
+public class TelemetryRegistry implements IntrinsicLoggable {
+    /** Priority of a registered logger. */
+    public enum PRIORITY {
+        /** Updated first, on every cycle which is a multiple of its divisor. */
+        HIGH,
+        /** Updated after high-priority loggers, on the least-loaded cycles available to it. */
+        LOW
+    }
+
+    private static final TelemetryRegistry instance = new TelemetryRegistry();
+
+    // maximum number of cycles considered when choosing the phase of a low-priority logger
+    private static final int maxPhaseHorizon = 4096;
+
+    private static class Entry {
+        final Object source;
+        final Runnable updater;
+        final int divisor;
+        final int phase;
+        final PRIORITY priority;
+
+        int countdown;
+
+        Entry(Object source, Runnable updater, int divisor, int phase, PRIORITY priority) {
+            this.source = source;
+            this.updater = updater;
+            this.divisor = divisor;
+            this.phase = phase;
+            this.priority = priority;
+        }
+    }
+
+    private final double loopPeriodSeconds;
+
+    // high-priority entries are kept before low-priority ones
+    private final ArrayList<Entry> entries = new ArrayList<>();
+
+    private long cycle = 0;
+
+    private double lastCycleTimeSeconds = 0;
+    private double maxCycleTimeSeconds = 0;
+    private int lastCycleUpdateCount = 0;
+
+    private DoubleLogger cycleTimeLogger;
+    private DoubleLogger maxCycleTimeLogger;
+    private DoubleLogger cycleUpdateCountLogger;
+
+    private boolean loggersConstructed = false;
+
+    /**
+     * Constructs a TelemetryRegistry.
+     *
+     * @param loopPeriodSeconds The period of the robot loop {@link #update()} will be called in, in
+     *     seconds. Only used to convert target rates to divisors.
+     */
+    public TelemetryRegistry(double loopPeriodSeconds) {
+        if (loopPeriodSeconds <= 0) {
+            throw new InvalidParameterException("Loop period must be positive!");
+        }
+
+        this.loopPeriodSeconds = loopPeriodSeconds;
+    }
+
+    /** Constructs a TelemetryRegistry for the default robot loop period of 20 milliseconds. */
+    public TelemetryRegistry() {
+        this(0.02);
+    }
+
+    /**
+     * Returns the program-wide TelemetryRegistry, which assumes the default robot loop period of 20
+     * milliseconds.
+     *
+     * @return The shared TelemetryRegistry.
+     */
+    public static TelemetryRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the sample divisor which most closely updates at a target rate.
+     *
+     * @param targetHz The target update rate, in Hz.
+     * @return The sample divisor, at least 1.
+     */
+    public int getDivisorForRate(double targetHz) {
+        if (targetHz <= 0) throw new InvalidParameterException("Target rate must be positive!");
+
+        return (int) Math.max(1, Math.round(1 / (targetHz * loopPeriodSeconds)));
+    }
+
+    /**
+     * Registers a Logger.
+     *
+     * @param logger The Logger to update.
+     * @param sampleDivisor The number of cycles between updates of the logger. Must be at least 1.
+     * @param priority The priority of the logger.
+     */
+    public void register(Logger<?> logger, int sampleDivisor, PRIORITY priority) {
+        add(logger, logger::update, sampleDivisor, priority);
+    }
+
+    /**
+     * Registers a PrimitiveLogger.
+     *
+     * @param logger The PrimitiveLogger to update.
+     * @param sampleDivisor The number of cycles between updates of the logger. Must be at least 1.
+     * @param priority The priority of the logger.
+     */
+    public void register(PrimitiveLogger logger, int sampleDivisor, PRIORITY priority) {
+        add(logger, logger::update, sampleDivisor, priority);
+    }
+
+    /**
+     * Registers an IntrinsicLoggable. Its loggers should already have been generated.
+     *
+     * @param loggable The IntrinsicLoggable to call {@code updateLogs()} on.
+     * @param sampleDivisor The number of cycles between updates of the loggable. Must be at least
+     *     1.
+     * @param priority The priority of the loggable.
+     */
+    public void register(IntrinsicLoggable loggable, int sampleDivisor, PRIORITY priority) {
+        add(loggable, loggable::updateLogs, sampleDivisor, priority);
+    }
+
+    /**
+     * Registers an arbitrary telemetry update.
+     *
+     * @param updater The update to run. Unregistered by passing this same reference to {@link
+     *     #unregister(Object)}.
+     * @param sampleDivisor The number of cycles between runs of the update. Must be at least 1.
+     * @param priority The priority of the update.
+     */
+    public void register(Runnable updater, int sampleDivisor, PRIORITY priority) {
+        add(updater, updater, sampleDivisor, priority);
+    }
+
+    /**
+     * Unregisters a logger, loggable, or update, if it's registered.
+     *
+     * @param source The object which was registered.
+     * @return Whether anything was unregistered.
+     */
+    public boolean unregister(Object source) {
+        return entries.removeIf((entry) -> entry.source == source);
+    }
+
+    /**
+     * Returns the number of registered loggers, loggables, and updates.
+     *
+     * @return The number of registered entries.
+     */
+    public int getRegisteredCount() {
+        return entries.size();
+    }
+
+    private void add(Object source, Runnable updater, int sampleDivisor, PRIORITY priority) {
+        if (sampleDivisor < 1) {
+            throw new InvalidParameterException("Sample divisor must be at least 1!");
+        }
+
+        unregister(source);
+
+        int phase = (priority == PRIORITY.HIGH) ? 0 : leastLoadedPhase(sampleDivisor);
+
+        Entry entry = new Entry(source, updater, sampleDivisor, phase, priority);
+
+        entry.countdown = (int) Math.floorMod(phase - cycle, (long) sampleDivisor);
+
+        if (priority == PRIORITY.HIGH) {
+            int index = 0;
+            while (index < entries.size() && entries.get(index).priority == PRIORITY.HIGH) index++;
+
+            entries.add(index, entry);
+        } else entries.add(entry);
+    }
+
+    private int leastLoadedPhase(int divisor) {
+        int maxDivisor = divisor;
+        for (Entry entry : entries) maxDivisor = Math.max(maxDivisor, entry.divisor);
+
+        int horizon = (int) Math.min(maxPhaseHorizon, (long) divisor * maxDivisor);
+        horizon = Math.max(divisor, horizon - (horizon % divisor));
+
+        int[] loads = new int[horizon];
+
+        for (Entry entry : entries) {
+            for (int i = entry.phase % entry.divisor; i < horizon; i += entry.divisor) loads[i]++;
+        }
+
+        int bestPhase = 0;
+        int bestPeak = Integer.MAX_VALUE;
+        long bestTotal = Long.MAX_VALUE;
+
+        for (int phase = 0; phase < divisor; phase++) {
+            int peak = 0;
+            long total = 0;
+
+            for (int i = phase; i < horizon; i += divisor) {
+                peak = Math.max(peak, loads[i]);
+                total += loads[i];
+            }
+
+            if (peak < bestPeak || (peak == bestPeak && total < bestTotal)) {
+                bestPhase = phase;
+                bestPeak = peak;
+                bestTotal = total;
+            }
+        }
+
+        return bestPhase;
+    }
+
+    /** Runs the telemetry updates scheduled for this cycle. Should be called once per cycle. */
+    public void update() {
+        long startNanos = System.nanoTime();
+
+        int updateCount = 0;
+
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+
+            if (entry.countdown == 0) {
+                entry.updater.run();
+                entry.countdown = entry.divisor - 1;
+
+                updateCount++;
+            } else entry.countdown--;
+        }
+
+        cycle++;
+
+        lastCycleTimeSeconds = (System.nanoTime() - startNanos) / 1e9;
+        maxCycleTimeSeconds = Math.max(maxCycleTimeSeconds, lastCycleTimeSeconds);
+        lastCycleUpdateCount = updateCount;
+    }
+
+    /**
+     * Returns the time spent in the last call of {@link #update()}.
+     *
+     * @return The time of the last cycle, in seconds.
+     */
+    public double getLastCycleTime() {
+        return lastCycleTimeSeconds;
+    }
+
+    /**
+     * Returns the greatest time spent in a call of {@link #update()} since construction or the last
+     * call of {@link #resetStatistics()}.
+     *
+     * @return The time of the longest cycle, in seconds.
+     */
+    public double getMaxCycleTime() {
+        return maxCycleTimeSeconds;
+    }
+
+    /**
+     * Returns the number of entries updated in the last call of {@link #update()}.
+     *
+     * @return The number of updates run in the last cycle.
+     */
+    public int getLastCycleUpdateCount() {
+        return lastCycleUpdateCount;
+    }
+
+    /** Resets the maximum cycle time. */
+    public void resetStatistics() {
+        maxCycleTimeSeconds = 0;
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void autoGenerateLogs(
+            DataLog log, String name, String subdirName, boolean publishToNT, boolean recordInLog) {
+        if (!loggersConstructed) {
+            cycleTimeLogger =
+                    new DoubleLogger(
+                            log, name + "/cycleTimeSeconds", subdirName, publishToNT, recordInLog);
+            maxCycleTimeLogger =
+                    new DoubleLogger(
+                            log,
+                            name + "/maxCycleTimeSeconds",
+                            subdirName,
+                            publishToNT,
+                            recordInLog);
+            cycleUpdateCountLogger =
+                    new DoubleLogger(
+                            log, name + "/cycleUpdateCount", subdirName, publishToNT, recordInLog);
+
+            loggersConstructed = true;
+        }
+    }
+
+    @Override
+    /** {@inheritDoc} */
+    public void updateLogs() {
+        if (loggersConstructed) {
+            cycleTimeLogger.update(lastCycleTimeSeconds);
+            maxCycleTimeLogger.update(maxCycleTimeSeconds);
+            cycleUpdateCountLogger.update(lastCycleUpdateCount);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.trajectory.motionProfile;
+
+import java.security.InvalidParameterException;
+import org.chsrobotics.lib.trajectory.motionProfile.MotionProfile.MutableState;
+import org.chsrobotics.lib.trajectory.motionProfile.MotionProfile.State;
+
+/**
+ * Reusable generator of time-optimal asymmetric trapezoidal motion profiles, for replanning from
+ * the current state every loop as a target moves.
+ *
+ * <p>An {@link AsymmetricTrapezoidProfile} is immutable, so following a moving target means
+ * constructing a new profile (and its phases) every loop. This instead holds its (at most four)
+ * phases in primitive arrays, which {@link #replan(double, double, double, double)} overwrites in
+ * place, and {@link #sample(double, MutableState)} reads without allocating, so replanning at any
+ * rate creates no garbage.
+ *
+ * <p>Unlike an AsymmetricTrapezoidProfile, any initial state is handled time-optimally:
+ *
+ * <ul>
+ *   <li>An initial velocity over the maximum is slowed to the maximum (at the maximum
+ *       deceleration) rather than clamped instantly.
+ *   <li>An initial velocity away from the target is reversed at the maximum acceleration.
+ *   <li>If the target would be overshot even by decelerating immediately, the profile stops past
+ *       the target (at the maximum deceleration) and comes back, ending at rest.
+ * </ul>
+ *
+ * <p>As in AsymmetricTrapezoidProfile, the target velocity is limited to the maximum velocity, and
+ * taken to be in the direction of travel. If it can't be reached in the distance available, the
+ * profile ends at the target as close to it as possible.
+ */
+public class AsymmetricTrapezoidGenerator {
+    private static final int maxPhases = 4;
+
+    private double maxVelocity;
+    private double maxAcceleration;
+    private double maxDeceleration;
+
+    private final double[] phaseTimes = new double[maxPhases];
+    private final double[] phaseStartTimes = new double[maxPhases];
+    private final double[] phaseStartPositions = new double[maxPhases];
+    private final double[] phaseAccelerations = new double[maxPhases];
+    private final double[] phaseInitialVelocities = new double[maxPhases];
+
+    private int phaseCount = 0;
+
+    private double initialPosition = 0;
+    private double initialVelocity = 0;
+
+    private double totalTime = 0;
+    private double finalPosition = 0;
+
+    /**
+     * Constructs an AsymmetricTrapezoidGenerator, initially holding an empty profile at the origin.
+     *
+     * @param constraints The constraints on generated profiles. Every value must be positive.
+     */
+    public AsymmetricTrapezoidGenerator(AsymmetricTrapezoidProfile.Constraints constraints) {
+        setConstraints(constraints);
+    }
+
+    /**
+     * Sets the constraints for subsequent calls of {@code replan()}. Does not change the current
+     * profile.
+     *
+     * @param constraints The constraints on generated profiles. Every value must be positive.
+     */
+    public void setConstraints(AsymmetricTrapezoidProfile.Constraints constraints) {
+        if (constraints.maxVelocity <= 0
+                || constraints.maxAcceleration <= 0
+                || constraints.maxDeceleration <= 0) {
+            throw new InvalidParameterException("Profile constraints must be positive!");
+        }
+
+        maxVelocity = constraints.maxVelocity;
+        maxAcceleration = constraints.maxAcceleration;
+        maxDeceleration = constraints.maxDeceleration;
+    }
+
+    /**
+     * Replaces the current profile with a time-optimal profile from one state to another.
+     *
+     * @param current The state to start from (usually the current state).
+     * @param target The desired state when the profile is complete.
+     */
+    public void replan(State current, State target) {
+        replan(current.position, current.velocity, target.position, target.velocity);
+    }
+
+    /**
+     * Replaces the current profile with a time-optimal profile from one state to another, without
+     * allocating.
+     *
+     * @param currentPosition The position to start from.
+     * @param currentVelocity The velocity to start from.
+     * @param targetPosition The desired position when the profile is complete.
+     * @param targetVelocity The desired velocity when the profile is complete.
+     */
+    public void replan(
+            double currentPosition,
+            double currentVelocity,
+            double targetPosition,
+            double targetVelocity) {
+        phaseCount = 0;
+        totalTime = 0;
+
+        initialPosition = currentPosition;
+        initialVelocity = currentVelocity;
+        finalPosition = currentPosition;
+
+        double distance = targetPosition - currentPosition;
+        int direction = distance < 0 ? -1 : 1;
+
+        // plan as if moving in the positive direction, and flip the signs of the phases if not
+        double v0 = currentVelocity * direction;
+        double v1 = Math.max(0, Math.min(targetVelocity * direction, maxVelocity));
+
+        distance = Math.abs(distance);
+
+        if (v0 > v1 && (v0 * v0 - v1 * v1) / (2 * maxDeceleration) > distance) {
+            // decelerating straight to the target velocity passes the target, so stop past it,
+            // and approach it from the other side, ending at rest
+            addPhase(-maxDeceleration * direction, v0 * direction, v0 / maxDeceleration);
+
+            distance = (v0 * v0) / (2 * maxDeceleration) - distance;
+            direction = -direction;
+            v0 = 0;
+            v1 = 0;
+        } else if (v0 > maxVelocity) {
+            // over the maximum velocity, so slow down to it first
+            addPhase(
+                    -maxDeceleration * direction,
+                    v0 * direction,
+                    (v0 - maxVelocity) / maxDeceleration);
+
+            distance -= (v0 * v0 - maxVelocity * maxVelocity) / (2 * maxDeceleration);
+            v0 = maxVelocity;
+        }
+
+        // highest velocity reachable by accelerating, then decelerating to the target velocity; the
+        // acceleration also reverses an initial velocity away from the target
+        double peakVelocity =
+                Math.sqrt(
+                        Math.max(
+                                0,
+                                (distance
+                                                + (v0 * v0) / (2 * maxAcceleration)
+                                                + (v1 * v1) / (2 * maxDeceleration))
+                                        / (1 / (2 * maxAcceleration) + 1 / (2 * maxDeceleration))));
+
+        if (peakVelocity < v1) {
+            // can't reach the target velocity in time, so accelerate the whole way
+            double finalVelocity = Math.sqrt(Math.max(0, v0 * v0 + 2 * maxAcceleration * distance));
+
+            addPhase(
+                    maxAcceleration * direction,
+                    v0 * direction,
+                    (finalVelocity - v0) / maxAcceleration);
+
+            return;
+        }
+
+        double coastTime = 0;
+
+        if (peakVelocity > maxVelocity) {
+            peakVelocity = maxVelocity;
+
+            coastTime =
+                    (distance
+                                    - (maxVelocity * maxVelocity - v0 * v0) / (2 * maxAcceleration)
+                                    - (maxVelocity * maxVelocity - v1 * v1) / (2 * maxDeceleration))
+                            / maxVelocity;
+        }
+
+        addPhase(
+                maxAcceleration * direction,
+                v0 * direction,
+                (peakVelocity - v0) / maxAcceleration);
+        addPhase(0, peakVelocity * direction, coastTime);
+        addPhase(
+                -maxDeceleration * direction,
+                peakVelocity * direction,
+                (peakVelocity - v1) / maxDeceleration);
+    }
+
+    private void addPhase(double acceleration, double initialVelocity, double time) {
+        if (!(time > 0)) return;
+
+        phaseTimes[phaseCount] = time;
+        phaseStartTimes[phaseCount] = totalTime;
+        phaseStartPositions[phaseCount] = finalPosition;
+        phaseAccelerations[phaseCount] = acceleration;
+        phaseInitialVelocities[phaseCount] = initialVelocity;
+
+        phaseCount++;
+
+        totalTime += time;
+        finalPosition += (0.5 * acceleration * time * time) + (initialVelocity * time);
+    }
+
+    /**
+     * Calculates the state of the current profile at a given time, without allocating.
+     *
+     * <p>As with {@link MotionProfile#sample(double, MutableState)}, if the time sampled is less
+     * than 0, gives the initial state, and if it is greater than the timespan of the profile, gives
+     * the final position and zero velocity.
+     *
+     * @param time The time since the beginning of the profile.
+     * @param out The MutableState to write the position and velocity of the profile into.
+     * @return {@code out}, for chaining.
+     */
+    public MutableState sample(double time, MutableState out) {
+        if (time <= 0) {
+            out.position = initialPosition;
+            out.velocity = initialVelocity;
+
+            return out;
+        }
+
+        for (int i = 0; i < phaseCount; i++) {
+            if (time < phaseStartTimes[i] + phaseTimes[i]) {
+                double phaseTime = time - phaseStartTimes[i];
+
+                out.position =
+                        phaseStartPositions[i]
+                                + (0.5 * phaseAccelerations[i] * phaseTime * phaseTime)
+                                + (phaseInitialVelocities[i] * phaseTime);
+                out.velocity = (phaseAccelerations[i] * phaseTime) + phaseInitialVelocities[i];
+
+                return out;
+            }
+        }
+
+        out.position = finalPosition;
+        out.velocity = 0;
+
+        return out;
+    }
+
+    /**
+     * Returns the total duration of the current profile.
+     *
+     * @return The sum of the durations of every phase, in seconds.
+     */
+    public double totalTime() {
+        return totalTime;
+    }
+
+    /**
+     * Returns the number of phases in the current profile.
+     *
+     * @return The number of phases, at most 4.
+     */
+    public int getPhaseCount() {
+        return phaseCount;
+    }
+
+    /**
+     * Returns a copy of the current profile as an immutable MotionProfile. This allocates, so isn't
+     * meant to be called every loop.
+     *
+     * @return A new MotionProfile with the same phases.
+     */
+    public MotionProfile toMotionProfile() {
+        ProfilePhase[] phases = new ProfilePhase[phaseCount];
+
+        for (int i = 0; i < phaseCount; i++) {
+            phases[i] =
+                    new ProfilePhase(
+                            phaseAccelerations[i], phaseInitialVelocities[i], phaseTimes[i]);
+        }
+
+        return new MotionProfile(new State(initialPosition, initialVelocity), phases);
+    }
+}
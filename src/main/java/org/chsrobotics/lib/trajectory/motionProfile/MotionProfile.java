@@ -16,9 +16,12 @@ If not, see <https://www.gnu.org/licenses/>.
 */
 package org.chsrobotics.lib.trajectory.motionProfile;
 
+import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import org.chsrobotics.lib.math.UtilityMath;
+import org.chsrobotics.lib.util.Tuple2;
 
 /**
  * A group of ProfilePhases that represents an arbitrary trajectory of compound accelerations,
@@ -33,11 +36,67 @@ import java.util.Objects;
  * <p>This class only contains constructors out of user-defined and user-calculated phases, but
  * {@link AsymmetricTrapezoidProfile} and {@link TrapezoidProfile} extend this to create profiles
  * out of constraints and desired states.
+ *
+ * <p>On the first sample, the start time and position of each phase are cached in primitive
+ * arrays, so finding the phase at a time is a binary search rather than a walk over every phase.
+ * {@link #sample(double, MutableState)} samples without allocating, and {@link
+ * #precomputeLookupTable(double)} makes finding the phase constant-time for profiles which are
+ * sampled very often.
  */
 public class MotionProfile {
+    // iterations of bisection when solving for a position in a phase with jerk, enough to converge
+    // to the precision of a double
+    private static final int bisectionIterations = 64;
+
+    // relative tolerance on the ends of a phase, so that roots exactly at a boundary aren't lost to
+    // rounding
+    private static final double rootTolerance = 1e-9;
+
     protected List<ProfilePhase> phases = new ArrayList<>();
     protected State initialState;
 
+    // per-phase data cached from phases, with positions relative to the initial position; null
+    // until first sampled
+    private double[] phaseStartTimes;
+    private double[] phaseEndTimes;
+    private double[] phaseStartPositions;
+    private double[] phaseJerks;
+    private double[] phaseAccelerations;
+    private double[] phaseInitialVelocities;
+
+    private double cachedTotalTime;
+    private double cachedTotalPosition;
+
+    // index of the phase active at the start of each time step; null if not precomputed
+    private int[] lookupTable;
+    private double lookupResolutionSeconds;
+
+    /**
+     * A reusable holder for the position and velocity of a MotionProfile, which {@link
+     * #sample(double, MutableState)} writes into instead of allocating a new State.
+     */
+    public static class MutableState {
+        public double position;
+        public double velocity;
+
+        /** Constructs a MutableState with zero position and velocity. */
+        public MutableState() {}
+
+        /**
+         * Returns an immutable copy of this.
+         *
+         * @return A new State with the same position and velocity.
+         */
+        public State toState() {
+            return new State(position, velocity);
+        }
+
+        @Override
+        public String toString() {
+            return "MutableState[position: " + position + ", velocity: " + velocity + "]";
+        }
+    }
+
     /** Holds the velocity and position states of a MotionProfile at a time in its span. */
     public static class State {
         public final double position;
@@ -135,28 +194,417 @@ public class MotionProfile {
         if (time <= 0) {
             return initialState;
         }
-        double position = initialState.position;
-        for (ProfilePhase phase : phases) {
-            if (time - phase.time < 0) {
-                return new State(
-                        position
-                                + 0.5 * phase.acceleration * Math.pow(time, 2)
-                                + phase.initialVelocity * time,
-                        time * phase.acceleration + phase.initialVelocity);
+
+        MutableState out = new MutableState();
+
+        sample(time, out);
+
+        return out.toState();
+    }
+
+    /**
+     * Calculates the current state of the profile at a given time, without allocating.
+     *
+     * <p>If the time sampled is less than 0, gives the initial state. If it is greater than the
+     * timespan of the profile, gives the aggregated position and zero velocity.
+     *
+     * @param time The time since the beginning of the profile.
+     * @param out The MutableState to write the position and velocity of the profile into.
+     * @return {@code out}, for chaining.
+     */
+    public MutableState sample(double time, MutableState out) {
+        if (time <= 0) {
+            out.position = initialState.position;
+            out.velocity = initialState.velocity;
+
+            return out;
+        }
+
+        ensureCache();
+
+        int index = phaseIndexAt(time);
+
+        if (index == phaseEndTimes.length) {
+            // case where there are no phases, or the time is greater than the length of the profile
+            out.position = initialState.position + cachedTotalPosition;
+            out.velocity = 0;
+        } else {
+            double phaseTime = time - phaseStartTimes[index];
+
+            out.position = initialState.position + positionInPhase(index, phaseTime);
+            out.velocity = velocityInPhase(index, phaseTime);
+        }
+
+        return out;
+    }
+
+    /**
+     * Calculates the states of the profile at a series of times, exactly as if {@link
+     * #sample(double)} were called on each time in turn.
+     *
+     * <p>If the times are sorted in increasing order (as when sampling a profile for visualization
+     * or simulation), the phases are walked only once, so the whole batch takes time linear in the
+     * number of times and phases. Unsorted times are still handled correctly, with a search for
+     * each time which goes backwards. No allocation is done per sample.
+     *
+     * @param times The times since the beginning of the profile to sample at.
+     * @param positionsOut The array to write the position of the profile at each time into.
+     * @param velocitiesOut The array to write the velocity of the profile at each time into.
+     * @throws InvalidParameterException If the arrays are not all the same length.
+     */
+    public void sample(double[] times, double[] positionsOut, double[] velocitiesOut) {
+        if (positionsOut.length != times.length || velocitiesOut.length != times.length) {
+            throw new InvalidParameterException("Batch arrays must all be the same length!");
+        }
+
+        ensureCache();
+
+        int phaseCount = phaseEndTimes.length;
+        double initialPosition = initialState.position;
+
+        int index = 0;
+        double lastTime = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0; i < times.length; i++) {
+            double time = times[i];
+
+            if (time <= 0) {
+                positionsOut[i] = initialPosition;
+                velocitiesOut[i] = initialState.velocity;
+
+                continue;
+            }
+
+            // continue walking from the last phase if sorted, otherwise search again
+            if (time < lastTime) index = phaseIndexAt(time);
+            else while (index < phaseCount && phaseEndTimes[index] <= time) index++;
+
+            lastTime = time;
+
+            if (index == phaseCount) {
+                positionsOut[i] = initialPosition + cachedTotalPosition;
+                velocitiesOut[i] = 0;
             } else {
-                time -= phase.time;
-                position += phase.position;
+                double phaseTime = time - phaseStartTimes[index];
+
+                positionsOut[i] = initialPosition + positionInPhase(index, phaseTime);
+                velocitiesOut[i] = velocityInPhase(index, phaseTime);
             }
         }
-        // case where there are no phases, or the time is greater than the length of the profile
-        return new State(position, 0);
     }
 
+    /**
+     * Returns the total duration of the profile.
+     *
+     * @return The sum of the durations of every phase, in seconds.
+     */
     public double totalTime() {
+        ensureCache();
+
+        return cachedTotalTime;
+    }
+
+    /**
+     * Finds the earliest time at which the profile reaches a position, without sampling.
+     *
+     * <p>Within each phase of constant acceleration, the position is a quadratic in time, which is
+     * solved in closed form. Phases with jerk (as in an {@link SCurveProfile}) are cubic, and are
+     * solved by bisection between the points where the velocity changes sign. Either way, this
+     * takes time linear in the number of phases, with no calls of {@code sample()}.
+     *
+     * @param position The position to find.
+     * @return The earliest time since the beginning of the profile at which {@code sample()} gives
+     *     that position, or {@code NaN} if it never does.
+     */
+    public double timeAtPosition(double position) {
+        double target = position - initialState.position;
+
+        if (target == 0) return 0;
+
+        ensureCache();
+
+        for (int i = 0; i < phaseEndTimes.length; i++) {
+            double phaseTime = timeAtPositionInPhase(i, target);
+
+            if (!Double.isNaN(phaseTime)) return phaseStartTimes[i] + phaseTime;
+        }
+
+        return Double.NaN;
+    }
+
+    /**
+     * Finds the earliest time at which the profile reaches a velocity, without sampling.
+     *
+     * <p>Within each phase, the velocity is linear in time (or quadratic, for phases with jerk),
+     * which is solved in closed form, so this takes time linear in the number of phases.
+     *
+     * @param velocity The velocity to find.
+     * @return The earliest time since the beginning of the profile at which {@code sample()} gives
+     *     that velocity, or {@code NaN} if it never does. As the profile gives zero velocity after
+     *     its end, a velocity of 0 is always reached, at the latest at {@link #totalTime()}.
+     */
+    public double timeAtVelocity(double velocity) {
+        if (velocity == initialState.velocity) return 0;
+
+        ensureCache();
+
+        double tolerance = rootTolerance * Math.max(1, Math.abs(velocity));
+
+        for (int i = 0; i < phaseEndTimes.length; i++) {
+            double phaseTime =
+                    earliestZero(
+                            0.5 * phaseJerks[i],
+                            phaseAccelerations[i],
+                            phaseInitialVelocities[i] - velocity,
+                            phaseEndTimes[i] - phaseStartTimes[i],
+                            tolerance);
+
+            if (!Double.isNaN(phaseTime)) return phaseStartTimes[i] + phaseTime;
+        }
+
+        return (velocity == 0) ? cachedTotalTime : Double.NaN;
+    }
+
+    /**
+     * Precomputes a table of which phase is active at each step in time, so that sampling the
+     * profile takes constant time regardless of the number of phases. Samples are still exact; the
+     * table only replaces the search for the phase.
+     *
+     * <p>This is only worthwhile for profiles with many phases which are sampled very often, as
+     * the table takes memory proportional to the duration of the profile over the resolution.
+     *
+     * @param resolutionSeconds The length of each step of the table, in seconds. Steps much shorter
+     *     than the shortest phase give no further speedup. Must be positive.
+     * @throws InvalidParameterException If the resolution is not positive.
+     */
+    public void precomputeLookupTable(double resolutionSeconds) {
+        if (resolutionSeconds <= 0) {
+            throw new InvalidParameterException("Lookup table resolution must be positive!");
+        }
+
+        ensureCache();
+
+        int steps = (int) Math.ceil(cachedTotalTime / resolutionSeconds) + 1;
+
+        // look up without the table while building it
+        lookupTable = null;
+
+        int[] table = new int[steps];
+
+        for (int i = 0; i < steps; i++) table[i] = phaseIndexAt(i * resolutionSeconds);
+
+        lookupTable = table;
+        lookupResolutionSeconds = resolutionSeconds;
+    }
+
+    /**
+     * Discards the cached per-phase data and lookup table, so that they're rebuilt from {@code
+     * phases} on the next sample. Subclasses which modify {@code phases} after the profile may have
+     * been sampled must call this.
+     */
+    protected void invalidateCache() {
+        phaseEndTimes = null;
+        lookupTable = null;
+    }
+
+    private void ensureCache() {
+        if (phaseEndTimes != null && phaseEndTimes.length == phases.size()) return;
+
+        int count = phases.size();
+
+        phaseStartTimes = new double[count];
+        phaseEndTimes = new double[count];
+        phaseStartPositions = new double[count];
+        phaseJerks = new double[count];
+        phaseAccelerations = new double[count];
+        phaseInitialVelocities = new double[count];
+
         double time = 0;
+        double position = 0;
+
+        for (int i = 0; i < count; i++) {
+            ProfilePhase phase = phases.get(i);
+
+            phaseStartTimes[i] = time;
+            phaseStartPositions[i] = position;
+            phaseJerks[i] = phase.jerk;
+            phaseAccelerations[i] = phase.acceleration;
+            phaseInitialVelocities[i] = phase.initialVelocity;
+
+            time += phase.time;
+            position += phase.position;
+
+            phaseEndTimes[i] = time;
+        }
+
+        cachedTotalTime = time;
+        cachedTotalPosition = position;
+
+        lookupTable = null;
+    }
+
+    /** Returns the position relative to the initial position, a time into a phase. */
+    private double positionInPhase(int index, double phaseTime) {
+        double jerk = phaseJerks[index];
+        double acceleration = phaseAccelerations[index];
+        double initialVelocity = phaseInitialVelocities[index];
+
+        return phaseStartPositions[index]
+                + (jerk * phaseTime * phaseTime * phaseTime / 6)
+                + (0.5 * acceleration * phaseTime * phaseTime)
+                + (initialVelocity * phaseTime);
+    }
+
+    /** Returns the velocity a time into a phase. */
+    private double velocityInPhase(int index, double phaseTime) {
+        return (0.5 * phaseJerks[index] * phaseTime * phaseTime)
+                + (phaseTime * phaseAccelerations[index])
+                + phaseInitialVelocities[index];
+    }
+
+    /**
+     * Returns the earliest time into a phase at which the position relative to the initial
+     * position reaches a target, or NaN if it doesn't within the phase.
+     */
+    private double timeAtPositionInPhase(int index, double target) {
+        double duration = phaseEndTimes[index] - phaseStartTimes[index];
+        double tolerance = rootTolerance * Math.max(1, Math.abs(target));
+
+        double jerk = phaseJerks[index];
+        double acceleration = phaseAccelerations[index];
+        double initialVelocity = phaseInitialVelocities[index];
+
+        if (jerk == 0) {
+            return earliestZero(
+                    0.5 * acceleration,
+                    initialVelocity,
+                    phaseStartPositions[index] - target,
+                    duration,
+                    tolerance);
+        }
+
+        // the position is cubic, but monotonic between the zeros of the velocity, so bisect on the
+        // first of those intervals which crosses the target
+        Tuple2<Double> turns =
+                UtilityMath.quadraticZeros(0.5 * jerk, acceleration, initialVelocity);
+
+        double[] bounds = {
+            Math.min(turns.firstValue(), turns.secondValue()),
+            Math.max(turns.firstValue(), turns.secondValue()),
+            duration
+        };
+
+        double start = 0;
+
+        for (double end : bounds) {
+            // skips the NaN bounds when the velocity never changes sign
+            if (!(end > start) || end > duration) continue;
 
-        for (ProfilePhase phase : phases) time += phase.time;
+            double time = bisectPosition(index, target, start, end, tolerance);
+
+            if (!Double.isNaN(time)) return time;
+
+            start = end;
+        }
+
+        return Double.NaN;
+    }
+
+    /**
+     * Returns the time within an interval of a phase, over which the position is monotonic, at
+     * which the position reaches a target, or NaN if it doesn't within the interval.
+     */
+    private double bisectPosition(
+            int index, double target, double low, double high, double tolerance) {
+        double lowError = positionInPhase(index, low) - target;
+        double highError = positionInPhase(index, high) - target;
+
+        if (Math.abs(lowError) <= tolerance) return low;
+        if (Math.abs(highError) <= tolerance) return high;
+        if (lowError * highError > 0) return Double.NaN;
+
+        for (int i = 0; i < bisectionIterations; i++) {
+            double middle = (low + high) / 2;
+            double middleError = positionInPhase(index, middle) - target;
+
+            if (middleError * lowError > 0) {
+                low = middle;
+                lowError = middleError;
+            } else high = middle;
+        }
+
+        return (low + high) / 2;
+    }
+
+    /**
+     * Returns the earliest time within a phase at which ax^2 + bx + c is zero, or NaN if it isn't
+     * zero within the phase. A zero at the turning point which rounding error put just out of
+     * reach (such as a profile's final position, where it comes to rest) is still found.
+     */
+    private static double earliestZero(
+            double a, double b, double c, double duration, double tolerance) {
+        if (a == 0) {
+            if (b != 0) return inPhase(-c / b, duration);
+
+            return (Math.abs(c) <= tolerance) ? 0 : Double.NaN;
+        }
+
+        Tuple2<Double> roots = UtilityMath.quadraticZeros(a, b, c);
+
+        if (Double.isNaN(roots.firstValue())) {
+            double vertex = -b / (2 * a);
+            double value = (((a * vertex) + b) * vertex) + c;
+
+            return (Math.abs(value) <= tolerance) ? inPhase(vertex, duration) : Double.NaN;
+        }
+
+        double first = inPhase(roots.firstValue(), duration);
+        double second = inPhase(roots.secondValue(), duration);
+
+        if (Double.isNaN(first)) return second;
+        if (Double.isNaN(second)) return first;
+
+        return Math.min(first, second);
+    }
+
+    /**
+     * Returns a time clamped into a phase if it's within (or within rounding error of) the phase,
+     * or NaN if it isn't.
+     */
+    private static double inPhase(double time, double duration) {
+        double tolerance = rootTolerance * Math.max(1, duration);
+
+        if (!(time >= -tolerance && time <= duration + tolerance)) return Double.NaN;
+
+        return Math.max(0, Math.min(time, duration));
+    }
+
+    /** Returns the index of the first phase which ends after a time, or the number of phases. */
+    private int phaseIndexAt(double time) {
+        if (lookupTable != null) {
+            int step = (int) (time / lookupResolutionSeconds);
+
+            if (step >= lookupTable.length) return phaseEndTimes.length;
+
+            // the table gives the phase at the start of the step, which is at most a few phases
+            // before the phase at this time
+            int index = lookupTable[step];
+
+            while (index < phaseEndTimes.length && phaseEndTimes[index] <= time) index++;
+
+            return index;
+        }
+
+        int low = 0;
+        int high = phaseEndTimes.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (phaseEndTimes[middle] <= time) low = middle + 1;
+            else high = middle;
+        }
 
-        return time;
+        return low;
     }
 }
@@ -18,10 +18,16 @@ package org.chsrobotics.lib.trajectory.motionProfile;
 
 import java.util.Objects;
 
-/** Holds constant-acceleration kinematic rates and time. */
+/**
+ * Holds constant-acceleration (or constant-jerk) kinematic rates and time.
+ *
+ * <p>For a phase with non-zero jerk, {@code acceleration} is the acceleration at the start of the
+ * phase, which then changes at the rate of {@code jerk}.
+ */
 public class ProfilePhase {
     public final double time;
     public final double position;
+    public final double jerk;
     public final double acceleration;
     public final double initialVelocity;
 
@@ -33,11 +39,12 @@ public class ProfilePhase {
      * @param time The duration of the phase.
      */
     public ProfilePhase(double acceleration, double initialVelocity, double time) {
-        double displacement = (0.5 * (acceleration) * (time * time)) + time * initialVelocity;
-        this.time = time;
-        this.position = displacement;
-        this.acceleration = acceleration;
-        this.initialVelocity = initialVelocity;
+        this(
+                time,
+                displacement(0, acceleration, initialVelocity, time),
+                0,
+                acceleration,
+                initialVelocity);
     }
 
     /**
@@ -50,12 +57,66 @@ public class ProfilePhase {
      */
     protected ProfilePhase(
             double time, double position, double acceleration, double initialVelocity) {
+        this(time, position, 0, acceleration, initialVelocity);
+    }
+
+    private ProfilePhase(
+            double time,
+            double position,
+            double jerk,
+            double acceleration,
+            double initialVelocity) {
         this.time = time;
         this.position = position;
+        this.jerk = jerk;
         this.acceleration = acceleration;
         this.initialVelocity = initialVelocity;
     }
 
+    /**
+     * Constructs a ProfilePhase with a constant rate of change of acceleration (jerk).
+     *
+     * @param jerk The jerk throughout this phase.
+     * @param initialAcceleration The acceleration at the start of the phase.
+     * @param initialVelocity The velocity at the start of the phase.
+     * @param time The duration of the phase.
+     * @return A new ProfilePhase.
+     */
+    public static ProfilePhase withJerk(
+            double jerk, double initialAcceleration, double initialVelocity, double time) {
+        return new ProfilePhase(
+                time,
+                displacement(jerk, initialAcceleration, initialVelocity, time),
+                jerk,
+                initialAcceleration,
+                initialVelocity);
+    }
+
+    private static double displacement(
+            double jerk, double acceleration, double initialVelocity, double time) {
+        return (jerk * time * time * time / 6)
+                + (0.5 * (acceleration) * (time * time))
+                + time * initialVelocity;
+    }
+
+    /**
+     * Returns the acceleration at the end of the phase.
+     *
+     * @return The final acceleration.
+     */
+    public double finalAcceleration() {
+        return acceleration + jerk * time;
+    }
+
+    /**
+     * Returns the velocity at the end of the phase.
+     *
+     * @return The final velocity.
+     */
+    public double finalVelocity() {
+        return initialVelocity + (acceleration * time) + (0.5 * jerk * time * time);
+    }
+
     @Override
     public boolean equals(Object other) {
         double epsilon = 0.0001;
@@ -63,6 +124,7 @@ public class ProfilePhase {
             ProfilePhase rhs = (ProfilePhase) other;
             return this.time == rhs.time
                     && Math.abs(this.position - rhs.position) < epsilon
+                    && Math.abs(this.jerk - rhs.jerk) < epsilon
                     && Math.abs(this.acceleration - rhs.acceleration) < epsilon
                     && Math.abs(this.initialVelocity - rhs.initialVelocity) < epsilon;
         } else {
@@ -72,7 +134,7 @@ public class ProfilePhase {
 
     @Override
     public int hashCode() {
-        return Objects.hash(time, position, acceleration, initialVelocity);
+        return Objects.hash(time, position, jerk, acceleration, initialVelocity);
     }
 
     @Override
@@ -81,6 +143,8 @@ public class ProfilePhase {
                 + time
                 + ", position: "
                 + position
+                + ", jerk: "
+                + jerk
                 + ", acceleration: "
                 + acceleration
                 + ", initialVelocity:"
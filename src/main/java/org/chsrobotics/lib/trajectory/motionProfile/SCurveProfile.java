@@ -0,0 +1,338 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.trajectory.motionProfile;
+
+import java.security.InvalidParameterException;
+import java.util.Objects;
+
+/**
+ * A MotionProfile between two states which limits jerk (the rate of change of acceleration), as
+ * well as velocity and acceleration.
+ *
+ * <p>Unlike a {@link TrapezoidProfile}, whose acceleration jumps between its limits and zero, the
+ * acceleration of this profile ramps at a bounded rate. The velocity forms an "S" shape on a graph
+ * during each change in speed. This excites far less vibration in compliant mechanisms (arms,
+ * elevators), which usually lets them run with higher constraints overall.
+ *
+ * <p>A full profile has seven phases: jerk up to the maximum acceleration, hold it, jerk down to
+ * coasting at the maximum velocity, then the same in reverse to decelerate. Phases are dropped or
+ * shortened when the constraints can't be reached in the distance available. The times of each
+ * phase are found in closed form for the common cases (coasting at the maximum velocity, both
+ * changes in speed reaching the maximum acceleration, or starting and ending at rest), and with a
+ * short bisection otherwise, so generating a profile is cheap enough to do every loop.
+ *
+ * <p>The acceleration of the profile starts and ends at zero. The initial and target velocities
+ * are limited to the maximum velocity, as in {@link AsymmetricTrapezoidProfile}. If the target
+ * can't be reached at the target velocity without overshooting, the profile stops, and returns to
+ * end at the target at rest. If the target velocity can't be reached in the distance available,
+ * the profile ends at the target as close to that velocity as possible.
+ */
+public class SCurveProfile extends MotionProfile {
+    /** Data class to hold the maximum allowed rates for the output of an SCurveProfile. */
+    public static class Constraints {
+        public final double maxVelocity;
+        public final double maxAcceleration;
+        public final double maxJerk;
+
+        /**
+         * Constructs Constraints for an SCurveProfile.
+         *
+         * @param maxVelocity maximum allowed velocity. Must be positive.
+         * @param maxAcceleration maximum allowed acceleration (both directions). Must be positive.
+         * @param maxJerk maximum allowed jerk (both directions). Must be positive.
+         */
+        public Constraints(double maxVelocity, double maxAcceleration, double maxJerk) {
+            if (maxVelocity <= 0 || maxAcceleration <= 0 || maxJerk <= 0) {
+                throw new InvalidParameterException("S-curve constraints must be positive!");
+            }
+
+            this.maxVelocity = maxVelocity;
+            this.maxAcceleration = maxAcceleration;
+            this.maxJerk = maxJerk;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            double epsilon = 0.0001;
+            if (other instanceof Constraints) {
+                Constraints rhs = (Constraints) other;
+                return Math.abs(this.maxVelocity - rhs.maxVelocity) < epsilon
+                        && Math.abs(this.maxAcceleration - rhs.maxAcceleration) < epsilon
+                        && Math.abs(this.maxJerk - rhs.maxJerk) < epsilon;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(maxVelocity, maxAcceleration, maxJerk);
+        }
+
+        @Override
+        public String toString() {
+            return "SCurveProfileConstraints[maxVelocity: "
+                    + maxVelocity
+                    + ", maxAcceleration: "
+                    + maxAcceleration
+                    + ", maxJerk: "
+                    + maxJerk
+                    + "]";
+        }
+    }
+
+    // iterations of bisection when the peak velocity has no closed form, enough to converge to
+    // the precision of a double
+    private static final int bisectionIterations = 64;
+
+    // relative tolerance on distances, so that a target exactly at the minimum distance isn't
+    // mistaken for an overshoot from rounding
+    private static final double distanceTolerance = 1e-9;
+
+    private final double maxVelocity;
+    private final double maxAcceleration;
+    private final double maxJerk;
+
+    /**
+     * Constructs an SCurveProfile with an initial position and velocity of 0,0.
+     *
+     * @param constraints The constraints on the profile, like maximum velocity.
+     * @param target The desired state when the profile is complete.
+     */
+    public SCurveProfile(Constraints constraints, State target) {
+        this(constraints, target, new State(0, 0));
+    }
+
+    /**
+     * Constructs an SCurveProfile.
+     *
+     * @param constraints The constraints on the profile, like maximum velocity.
+     * @param target The desired state when the profile is complete.
+     * @param initial The initial state (usually the current state).
+     */
+    public SCurveProfile(Constraints constraints, State target, State initial) {
+        super(initial);
+
+        maxVelocity = constraints.maxVelocity;
+        maxAcceleration = constraints.maxAcceleration;
+        maxJerk = constraints.maxJerk;
+
+        // plan as if moving in the positive direction, and flip the signs of the phases if not
+        double distance = target.position - initial.position;
+        int direction = distance < 0 ? -1 : 1;
+
+        double initialVelocity =
+                Math.max(-maxVelocity, Math.min(initial.velocity * direction, maxVelocity));
+        // target velocity will always be in the correct direction
+        double targetVelocity = Math.max(0, Math.min(target.velocity * direction, maxVelocity));
+
+        initialState = new State(initial.position, initialVelocity * direction);
+
+        plan(Math.abs(distance), initialVelocity, targetVelocity, direction);
+    }
+
+    /**
+     * Adds the phases to travel a distance in a direction, starting and ending at velocities along
+     * that direction.
+     */
+    private void plan(
+            double distance, double initialVelocity, double targetVelocity, int direction) {
+        // if moving away from the target, stop first
+        if (initialVelocity < 0) {
+            distance -= velocityChangeDistance(initialVelocity, 0);
+
+            addVelocityChange(initialVelocity, 0, direction);
+            initialVelocity = 0;
+        }
+
+        double minDistance = velocityChangeDistance(initialVelocity, targetVelocity);
+
+        if (distance < minDistance - (distanceTolerance * Math.max(1, minDistance))) {
+            if (initialVelocity > targetVelocity) {
+                // can't slow down to the target velocity in the distance, so stop first
+                double remaining = distance - velocityChangeDistance(initialVelocity, 0);
+
+                addVelocityChange(initialVelocity, 0, direction);
+
+                if (remaining >= 0) {
+                    // with limited jerk, slowing down to a lower velocity can cover more distance
+                    // than stopping, so the target may still be ahead
+                    plan(remaining, 0, targetVelocity, direction);
+                } else {
+                    // stopped past the target, so come back
+                    plan(-remaining, 0, 0, -direction);
+                }
+            } else {
+                // can't speed up to the target velocity in time, so get as close as possible
+                addVelocityChange(
+                        initialVelocity,
+                        reachableVelocity(initialVelocity, targetVelocity, distance),
+                        direction);
+            }
+
+            return;
+        }
+
+        double peakVelocity = peakVelocity(distance, initialVelocity, targetVelocity);
+
+        double coastTime =
+                (distance
+                                - velocityChangeDistance(initialVelocity, peakVelocity)
+                                - velocityChangeDistance(peakVelocity, targetVelocity))
+                        / peakVelocity;
+
+        addVelocityChange(initialVelocity, peakVelocity, direction);
+
+        if (coastTime > 0) phases.add(new ProfilePhase(0, peakVelocity * direction, coastTime));
+
+        addVelocityChange(peakVelocity, targetVelocity, direction);
+    }
+
+    /**
+     * Returns the highest velocity to reach between the start and end of a move, no greater than
+     * the maximum velocity, such that the changes to and from it cover no more than the distance.
+     */
+    private double peakVelocity(double distance, double initialVelocity, double targetVelocity) {
+        double low = Math.max(initialVelocity, targetVelocity);
+
+        if (peakDistance(maxVelocity, initialVelocity, targetVelocity) <= distance) {
+            return maxVelocity;
+        }
+
+        double rampVelocity = maxAcceleration * maxAcceleration / maxJerk;
+
+        // if both changes in speed reach the maximum acceleration, the distance is quadratic in the
+        // peak velocity
+        double c =
+                ((initialVelocity + targetVelocity) * rampVelocity / 2)
+                        - (((initialVelocity * initialVelocity) + (targetVelocity * targetVelocity))
+                                / 2)
+                        - (maxAcceleration * distance);
+        double discriminant = (rampVelocity * rampVelocity) - (4 * c);
+
+        if (discriminant >= 0) {
+            double peak = (-rampVelocity + Math.sqrt(discriminant)) / 2;
+
+            if (peak - initialVelocity >= rampVelocity && peak - targetVelocity >= rampVelocity) {
+                return peak;
+            }
+        }
+
+        // from rest to rest without reaching the maximum acceleration, the distance is
+        // 2 * peak * sqrt(peak / jerk)
+        if (initialVelocity == 0 && targetVelocity == 0) {
+            double peak = Math.cbrt(distance * distance * maxJerk / 4);
+
+            if (peak <= rampVelocity) return peak;
+        }
+
+        // otherwise, the distance increases monotonically with the peak velocity, so bisect
+        double high = maxVelocity;
+
+        for (int i = 0; i < bisectionIterations; i++) {
+            double middle = (low + high) / 2;
+
+            if (peakDistance(middle, initialVelocity, targetVelocity) <= distance) low = middle;
+            else high = middle;
+        }
+
+        return low;
+    }
+
+    /** Returns the highest velocity which can be reached within a distance, up to a target. */
+    private double reachableVelocity(
+            double initialVelocity, double targetVelocity, double distance) {
+        double low = initialVelocity;
+        double high = targetVelocity;
+
+        for (int i = 0; i < bisectionIterations; i++) {
+            double middle = (low + high) / 2;
+
+            if (velocityChangeDistance(initialVelocity, middle) <= distance) low = middle;
+            else high = middle;
+        }
+
+        return low;
+    }
+
+    private double peakDistance(
+            double peakVelocity, double initialVelocity, double targetVelocity) {
+        return velocityChangeDistance(initialVelocity, peakVelocity)
+                + velocityChangeDistance(peakVelocity, targetVelocity);
+    }
+
+    /** Returns the time to change velocity by an amount, at the limits of acceleration and jerk. */
+    private double velocityChangeTime(double velocityChange) {
+        double change = Math.abs(velocityChange);
+
+        if (change * maxJerk < maxAcceleration * maxAcceleration) {
+            // never reaches the maximum acceleration
+            return 2 * Math.sqrt(change / maxJerk);
+        } else return (maxAcceleration / maxJerk) + (change / maxAcceleration);
+    }
+
+    /** Returns the (signed) distance covered while changing from one velocity to another. */
+    private double velocityChangeDistance(double fromVelocity, double toVelocity) {
+        // the velocity is symmetric about the midpoint in time of the change, so its average is
+        // the average of the endpoints
+        return 0.5 * (fromVelocity + toVelocity) * velocityChangeTime(toVelocity - fromVelocity);
+    }
+
+    /**
+     * Adds the phases to change from one velocity to another, jerking up to (at most) the maximum
+     * acceleration, holding it, and jerking back down.
+     */
+    private void addVelocityChange(double fromVelocity, double toVelocity, int direction) {
+        double change = toVelocity - fromVelocity;
+
+        if (change == 0) return;
+
+        double sign = Math.signum(change) * direction;
+        double magnitude = Math.abs(change);
+
+        double jerkTime;
+        double holdTime;
+        double peakAcceleration;
+
+        if (magnitude * maxJerk < maxAcceleration * maxAcceleration) {
+            jerkTime = Math.sqrt(magnitude / maxJerk);
+            holdTime = 0;
+            peakAcceleration = maxJerk * jerkTime;
+        } else {
+            jerkTime = maxAcceleration / maxJerk;
+            holdTime = (magnitude / maxAcceleration) - jerkTime;
+            peakAcceleration = maxAcceleration;
+        }
+
+        ProfilePhase jerkUp =
+                ProfilePhase.withJerk(sign * maxJerk, 0, fromVelocity * direction, jerkTime);
+        phases.add(jerkUp);
+
+        double velocity = jerkUp.finalVelocity();
+
+        if (holdTime > 0) {
+            ProfilePhase hold = new ProfilePhase(sign * peakAcceleration, velocity, holdTime);
+            phases.add(hold);
+
+            velocity = hold.finalVelocity();
+        }
+
+        phases.add(
+                ProfilePhase.withJerk(
+                        -sign * maxJerk, sign * peakAcceleration, velocity, jerkTime));
+    }
+}
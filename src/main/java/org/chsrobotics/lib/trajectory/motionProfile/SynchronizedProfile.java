@@ -0,0 +1,143 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.trajectory.motionProfile;
+
+import java.security.InvalidParameterException;
+import org.chsrobotics.lib.trajectory.motionProfile.MotionProfile.MutableState;
+import org.chsrobotics.lib.trajectory.motionProfile.MotionProfile.State;
+
+/**
+ * Set of MotionProfiles for several axes (like the joints of an arm), stretched in time so that
+ * every axis starts and finishes together.
+ *
+ * <p>Independent profiles for each axis each finish as soon as their own constraints allow, so a
+ * coordinated move follows a curved path, with the shorter moves finishing early. This slows every
+ * axis down to the duration of the slowest one, so that (for moves from and to rest) the axes
+ * move in proportion to each other throughout, along a straight line in joint space.
+ *
+ * <p>Each axis is stretched by uniformly scaling its time: an axis with a duration {@code T_i} is
+ * sampled at {@code t * T_i / T}, and its velocity scaled by {@code T_i / T}, where {@code T} is
+ * the longest duration. This keeps the shape of every profile, and only ever lowers its velocity
+ * and acceleration, so every axis stays within its own constraints. Nonzero initial and final
+ * velocities are scaled the same way, so this is intended for moves which start and end at rest.
+ */
+public class SynchronizedProfile {
+    private final MotionProfile[] axes;
+
+    // ratio of each axis's own duration to the synchronized duration
+    private final double[] timeScales;
+
+    private final double totalTime;
+
+    /**
+     * Constructs a SynchronizedProfile.
+     *
+     * @param axes The profiles of each axis, each as if it were moving alone. Must not be empty.
+     */
+    public SynchronizedProfile(MotionProfile... axes) {
+        if (axes.length == 0) {
+            throw new InvalidParameterException("Must have at least one axis!");
+        }
+
+        this.axes = axes.clone();
+
+        double longest = 0;
+
+        for (MotionProfile axis : axes) longest = Math.max(longest, axis.totalTime());
+
+        totalTime = longest;
+
+        timeScales = new double[axes.length];
+
+        for (int i = 0; i < axes.length; i++) {
+            timeScales[i] = (totalTime == 0) ? 1 : axes[i].totalTime() / totalTime;
+        }
+    }
+
+    /**
+     * Returns the number of axes in the profile.
+     *
+     * @return The number of axes.
+     */
+    public int getAxisCount() {
+        return axes.length;
+    }
+
+    /**
+     * Returns the (unstretched) profile of an axis.
+     *
+     * @param axis The index of the axis, in the order given at construction.
+     * @return The MotionProfile of that axis.
+     */
+    public MotionProfile getAxis(int axis) {
+        return axes[axis];
+    }
+
+    /**
+     * Returns the duration of the profile, which all axes share.
+     *
+     * @return The duration of the longest axis, in seconds.
+     */
+    public double totalTime() {
+        return totalTime;
+    }
+
+    /**
+     * Calculates the states of every axis at a given time.
+     *
+     * @param time The time since the beginning of the profile.
+     * @return The position and velocity of each axis at that time, in the order given at
+     *     construction.
+     */
+    public State[] sample(double time) {
+        State[] states = new State[axes.length];
+        MutableState out = new MutableState();
+
+        for (int i = 0; i < axes.length; i++) states[i] = sampleAxis(i, time, out).toState();
+
+        return states;
+    }
+
+    /**
+     * Calculates the states of every axis at a given time, without allocating.
+     *
+     * <p>As with {@link MotionProfile#sample(double, MutableState)}, if the time sampled is less
+     * than 0, gives the initial states, and if it is greater than the timespan of the profile,
+     * gives the final positions and zero velocity.
+     *
+     * @param time The time since the beginning of the profile.
+     * @param out The MutableStates to write the position and velocity of each axis into, in the
+     *     order given at construction.
+     * @throws InvalidParameterException If the length of {@code out} is not the number of axes.
+     */
+    public void sample(double time, MutableState[] out) {
+        if (out.length != axes.length) {
+            throw new InvalidParameterException("Output array must have one state per axis!");
+        }
+
+        for (int i = 0; i < axes.length; i++) sampleAxis(i, time, out[i]);
+    }
+
+    private MutableState sampleAxis(int axis, double time, MutableState out) {
+        double scale = timeScales[axis];
+
+        axes[axis].sample(time * scale, out);
+        out.velocity *= scale;
+
+        return out;
+    }
+}
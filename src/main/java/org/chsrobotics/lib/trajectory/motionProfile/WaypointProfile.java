@@ -0,0 +1,198 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.trajectory.motionProfile;
+
+import java.security.InvalidParameterException;
+
+/**
+ * A MotionProfile which passes through a sequence of waypoints, without stopping at any waypoint
+ * where the direction of travel doesn't change, and ends at rest at the last waypoint.
+ *
+ * <p>Each segment between waypoints is a trapezoidal profile, like a {@link TrapezoidProfile}, but
+ * instead of starting and ending at rest, the velocity carries through each waypoint. The velocity
+ * at each waypoint is the highest for which every segment is still possible within the
+ * constraints, found with one forward pass (the fastest each waypoint can be reached by
+ * accelerating from the previous one) and one backward pass (the fastest each waypoint can be
+ * passed while still slowing down in time for the next), so generating a profile takes time linear
+ * in the number of waypoints.
+ *
+ * <p>Where the direction of travel reverses at a waypoint, the velocity there is zero. As in {@link
+ * AsymmetricTrapezoidProfile}, the initial velocity is limited to the maximum velocity, and also
+ * to the highest velocity from which the profile can still slow down in time for the waypoints
+ * ahead.
+ */
+public class WaypointProfile extends MotionProfile {
+    private final double maxVelocity;
+    private final double maxAcceleration;
+
+    private final double[] waypointVelocities;
+
+    /**
+     * Constructs a WaypointProfile.
+     *
+     * @param constraints The constraints on the profile, like maximum velocity. Must be positive.
+     * @param initial The initial state (usually the current state).
+     * @param waypoints The positions to pass through, in order. The profile ends at rest at the
+     *     last one. Must not be empty.
+     */
+    public WaypointProfile(
+            TrapezoidProfile.Constraints constraints, State initial, double... waypoints) {
+        super(initial);
+
+        if (constraints.maxVelocity <= 0 || constraints.maxAcceleration <= 0) {
+            throw new InvalidParameterException("Profile constraints must be positive!");
+        }
+
+        if (waypoints.length == 0) {
+            throw new InvalidParameterException("Must have at least one waypoint!");
+        }
+
+        maxVelocity = constraints.maxVelocity;
+        maxAcceleration = constraints.maxAcceleration;
+
+        // signed lengths of each segment, skipping waypoints which repeat the last position, and
+        // which segment ends at each waypoint
+        double[] lengths = new double[waypoints.length];
+        int[] waypointSegments = new int[waypoints.length];
+
+        int count = 0;
+        double lastPosition = initial.position;
+
+        for (int i = 0; i < waypoints.length; i++) {
+            if (waypoints[i] != lastPosition) {
+                lengths[count] = waypoints[i] - lastPosition;
+                lastPosition = waypoints[i];
+
+                count++;
+            }
+
+            waypointSegments[i] = count;
+        }
+
+        waypointVelocities = new double[waypoints.length];
+
+        if (count == 0) return;
+
+        // speeds[i] is the speed along segment i at its start, with speeds[count] the final speed;
+        // only the initial speed can be negative (moving away from the first waypoint)
+        double[] speeds = new double[count + 1];
+
+        speeds[0] =
+                Math.max(
+                        -maxVelocity,
+                        Math.min(initial.velocity * Math.signum(lengths[0]), maxVelocity));
+
+        // forward pass: the fastest each waypoint can be reached from the last
+        for (int i = 0; i < count; i++) {
+            boolean continues =
+                    (i + 1 < count) && (Math.signum(lengths[i + 1]) == Math.signum(lengths[i]));
+
+            speeds[i + 1] =
+                    Math.min(
+                            continues ? maxVelocity : 0,
+                            Math.sqrt(
+                                    (speeds[i] * speeds[i])
+                                            + (2 * maxAcceleration * Math.abs(lengths[i]))));
+        }
+
+        // backward pass: the fastest each waypoint can be passed while slowing down for the next
+        for (int i = count - 1; i >= 0; i--) {
+            double limit =
+                    Math.sqrt(
+                            (speeds[i + 1] * speeds[i + 1])
+                                    + (2 * maxAcceleration * Math.abs(lengths[i])));
+
+            if (speeds[i] > limit) speeds[i] = limit;
+        }
+
+        initialState = new State(initial.position, speeds[0] * Math.signum(lengths[0]));
+
+        for (int i = 0; i < count; i++) {
+            addSegment(
+                    Math.abs(lengths[i]), speeds[i], speeds[i + 1], (int) Math.signum(lengths[i]));
+        }
+
+        for (int i = 0; i < waypoints.length; i++) {
+            int segment = waypointSegments[i];
+
+            waypointVelocities[i] =
+                    (segment == 0)
+                            ? initialState.velocity
+                            : speeds[segment] * Math.signum(lengths[segment - 1]);
+        }
+    }
+
+    /**
+     * Constructs a WaypointProfile with an initial position and velocity of 0,0.
+     *
+     * @param constraints The constraints on the profile, like maximum velocity. Must be positive.
+     * @param waypoints The positions to pass through, in order. The profile ends at rest at the
+     *     last one. Must not be empty.
+     */
+    public WaypointProfile(TrapezoidProfile.Constraints constraints, double... waypoints) {
+        this(constraints, new State(0, 0), waypoints);
+    }
+
+    /**
+     * Adds the phases of a trapezoidal segment along a direction, between speeds which the
+     * segment's length allows reaching.
+     */
+    private void addSegment(double length, double startSpeed, double endSpeed, int direction) {
+        double peakSpeed =
+                Math.sqrt(
+                        (maxAcceleration * length)
+                                + (((startSpeed * startSpeed) + (endSpeed * endSpeed)) / 2));
+
+        // guard against rounding pushing the peak below the start or end
+        peakSpeed = Math.max(Math.max(startSpeed, endSpeed), Math.min(peakSpeed, maxVelocity));
+
+        double accelTime = (peakSpeed - startSpeed) / maxAcceleration;
+        double decelTime = (peakSpeed - endSpeed) / maxAcceleration;
+
+        double coastTime =
+                (length
+                                - (((peakSpeed * peakSpeed) - (startSpeed * startSpeed))
+                                        / (2 * maxAcceleration))
+                                - (((peakSpeed * peakSpeed) - (endSpeed * endSpeed))
+                                        / (2 * maxAcceleration)))
+                        / peakSpeed;
+
+        if (accelTime > 0) {
+            phases.add(
+                    new ProfilePhase(
+                            maxAcceleration * direction, startSpeed * direction, accelTime));
+        }
+
+        if (coastTime > 0) phases.add(new ProfilePhase(0, peakSpeed * direction, coastTime));
+
+        if (decelTime > 0) {
+            phases.add(
+                    new ProfilePhase(
+                            -maxAcceleration * direction, peakSpeed * direction, decelTime));
+        }
+    }
+
+    /**
+     * Returns the velocity of the profile as it passes each waypoint.
+     *
+     * @return The velocity at each waypoint, in the order given at construction. The last is
+     *     always 0.
+     */
+    public double[] getWaypointVelocities() {
+        return waypointVelocities.clone();
+    }
+}
@@ -0,0 +1,203 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.util;
+
+/**
+ * Circular buffer of primitive {@code double}s, with a cap to the number of stored values. Once
+ * full, pushing a value evicts the oldest.
+ *
+ * <p>Pushing, evicting, and indexed access are all constant-time, and (for a bounded buffer) never
+ * allocate. Unlike {@link SizedStack}, this does not box values and is not synchronized, so it
+ * should only be accessed from one thread at a time.
+ */
+public class DoubleRingBuffer {
+    private static final int initialUnboundedCapacity = 16;
+
+    private final boolean bounded;
+
+    private double[] data;
+
+    // index in data of the oldest value
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * Constructs a DoubleRingBuffer.
+     *
+     * @param capacity The maximum number of values which this can hold. If less than or equal to 0,
+     *     this will never evict values, and instead grow as needed.
+     */
+    public DoubleRingBuffer(int capacity) {
+        bounded = capacity > 0;
+
+        data = new double[bounded ? capacity : initialUnboundedCapacity];
+    }
+
+    /**
+     * Adds a value to the buffer, evicting the oldest value if the buffer is full.
+     *
+     * @param value The value to add.
+     * @return The value which was evicted, or {@code 0} if none was. Whether a value will be
+     *     evicted can be checked beforehand with {@link #isFull()}.
+     */
+    public double push(double value) {
+        if (size == data.length) {
+            if (bounded) {
+                double evicted = data[head];
+
+                data[head] = value;
+                head = (head + 1 == data.length) ? 0 : head + 1;
+
+                return evicted;
+            } else grow();
+        }
+
+        data[physicalIndex(size)] = value;
+        size++;
+
+        return 0;
+    }
+
+    /**
+     * Returns a value in the buffer.
+     *
+     * @param index The index of the value, where 0 is the oldest value and {@code size() - 1} is
+     *     the newest.
+     * @return The value at that index.
+     * @throws IndexOutOfBoundsException If the index is negative or not less than {@code size()}.
+     */
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                    "Index " + index + " out of bounds for size " + size);
+        }
+
+        return data[physicalIndex(index)];
+    }
+
+    /**
+     * Returns the oldest value in the buffer.
+     *
+     * @return The oldest value.
+     * @throws IndexOutOfBoundsException If the buffer is empty.
+     */
+    public double getOldest() {
+        return get(0);
+    }
+
+    /**
+     * Returns the newest value in the buffer.
+     *
+     * @return The most recently pushed value.
+     * @throws IndexOutOfBoundsException If the buffer is empty.
+     */
+    public double getNewest() {
+        return get(size - 1);
+    }
+
+    /**
+     * Returns the sum of the values in the buffer, each multiplied by a weight, as for an FIR
+     * filter or convolution.
+     *
+     * @param weights The weight of each value, indexed as in {@link #get(int)} (oldest first).
+     *     Must be at least {@code size()} long; extra weights are ignored.
+     * @return The weighted sum of the values.
+     * @throws IndexOutOfBoundsException If there are fewer weights than values.
+     */
+    public double weightedSum(double[] weights) {
+        if (weights.length < size) {
+            throw new IndexOutOfBoundsException(
+                    "Only " + weights.length + " weights for size " + size);
+        }
+
+        // the values wrap around the end of the array at most once, so sum in two runs
+        int firstRun = Math.min(size, data.length - head);
+
+        double sum = 0;
+
+        for (int i = 0; i < firstRun; i++) sum += weights[i] * data[head + i];
+        for (int i = firstRun; i < size; i++) sum += weights[i] * data[i - firstRun];
+
+        return sum;
+    }
+
+    /**
+     * Returns the number of values in the buffer.
+     *
+     * @return The number of stored values.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the buffer holds no values.
+     *
+     * @return Whether the buffer is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns whether the next push will evict a value. Always false for an unbounded buffer.
+     *
+     * @return Whether the buffer is full.
+     */
+    public boolean isFull() {
+        return bounded && size == data.length;
+    }
+
+    /**
+     * Returns whether this evicts values once full.
+     *
+     * @return Whether this has a maximum capacity.
+     */
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    /**
+     * Returns the maximum number of values this can hold.
+     *
+     * @return The capacity, or {@code 0} if this is unbounded.
+     */
+    public int getCapacity() {
+        return bounded ? data.length : 0;
+    }
+
+    /** Removes all values from the buffer. */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private int physicalIndex(int index) {
+        int physical = head + index;
+
+        return (physical >= data.length) ? physical - data.length : physical;
+    }
+
+    private void grow() {
+        double[] newData = new double[data.length * 2];
+
+        for (int i = 0; i < size; i++) newData[i] = data[physicalIndex(i)];
+
+        data = newData;
+        head = 0;
+    }
+}
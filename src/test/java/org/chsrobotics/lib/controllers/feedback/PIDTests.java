@@ -78,4 +78,41 @@ public class PIDTests {
         controller.calculate(99.5, 1);
         assertEquals(true, controller.atSetpoint());
     }
+
+    @Test
+    public void PIDFiniteIntegrationWindowWorks() {
+        PID controller = new PID(0, 1, 0, 3, 0);
+
+        assertEquals(1, controller.calculate(-1, 1), epsilon);
+        assertEquals(3, controller.calculate(-2, 1), epsilon);
+        assertEquals(6, controller.calculate(-3, 1), epsilon);
+        assertEquals(9, controller.calculate(-4, 1), epsilon);
+
+        // run through enough windows to resync the running sum several times
+        for (int i = 0; i < 10; i++) controller.calculate(-1e6, 1);
+        for (int i = 0; i < 3; i++) controller.calculate(-0.001, 1);
+
+        assertEquals(0.003, controller.getIntegralAccumulation(), 1e-12);
+    }
+
+    @Test
+    public void PIDIntegralRecoversFromNonFiniteError() {
+        PID controller = new PID(0, 1, 0, 3, 0);
+
+        // fills the window, and resyncs the running sum
+        for (int i = 0; i < 3; i++) controller.calculate(-1, 1);
+
+        // so the NaN enters just after a resync
+        assertEquals(Double.NaN, controller.calculate(Double.NaN, 1), 0);
+        assertEquals(Double.NaN, controller.getIntegralAccumulation(), 0);
+
+        controller.calculate(-2, 1);
+        controller.calculate(-2, 1);
+
+        assertEquals(Double.NaN, controller.getIntegralAccumulation(), 0);
+
+        // exactly one window later, the NaN has left
+        assertEquals(6, controller.calculate(-2, 1), epsilon);
+        assertEquals(6, controller.getIntegralAccumulation(), epsilon);
+    }
 }
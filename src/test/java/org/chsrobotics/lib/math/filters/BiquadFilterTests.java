@@ -0,0 +1,144 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BiquadFilterTests {
+    private final double epsilon = 0.0001;
+
+    private final double sampleRateHz = 50;
+
+    // steady-state amplitude of the filter's response to a sine wave, from the RMS over a whole
+    // number of cycles
+    private double amplitudeAt(BiquadFilter filter, double frequencyHz) {
+        filter.reset();
+
+        double sumOfSquares = 0;
+
+        for (int i = 0; i < 2000; i++) {
+            double output =
+                    filter.calculate(Math.sin(2 * Math.PI * frequencyHz * i / sampleRateHz));
+
+            if (i >= 1000) sumOfSquares += output * output;
+        }
+
+        return Math.sqrt(2 * sumOfSquares / 1000);
+    }
+
+    @Test
+    public void BiquadFilterButterworthLowPassWorks() {
+        BiquadFilter filter = BiquadFilter.butterworthLowPass(4, 5, sampleRateHz);
+
+        assertEquals(2, filter.getSectionCount());
+
+        // unity gain at DC
+        for (int i = 0; i < 500; i++) filter.calculate(3);
+        assertEquals(3, filter.getCurrentOutput(), epsilon);
+
+        // -3 dB at the cutoff
+        assertEquals(Math.sqrt(0.5), amplitudeAt(filter, 5), 0.01);
+
+        // 4th order rolls off at 24 dB per octave
+        assertTrue(amplitudeAt(filter, 15) < 0.01);
+    }
+
+    @Test
+    public void BiquadFilterOddOrderWorks() {
+        BiquadFilter filter = BiquadFilter.butterworthLowPass(3, 5, sampleRateHz);
+
+        assertEquals(2, filter.getSectionCount());
+        assertEquals(Math.sqrt(0.5), amplitudeAt(filter, 5), 0.01);
+
+        BiquadFilter first = BiquadFilter.butterworthLowPass(1, 5, sampleRateHz);
+        BiquadFilter highPass = BiquadFilter.butterworthHighPass(1, 5, sampleRateHz);
+
+        assertEquals(Math.sqrt(0.5), amplitudeAt(first, 5), 0.01);
+        assertEquals(Math.sqrt(0.5), amplitudeAt(highPass, 5), 0.01);
+    }
+
+    @Test
+    public void BiquadFilterButterworthHighPassWorks() {
+        BiquadFilter filter = BiquadFilter.butterworthHighPass(2, 2, sampleRateHz);
+
+        // rejects DC
+        for (int i = 0; i < 500; i++) filter.calculate(3);
+        assertEquals(0, filter.getCurrentOutput(), epsilon);
+
+        assertEquals(Math.sqrt(0.5), amplitudeAt(filter, 2), 0.01);
+        assertEquals(1, amplitudeAt(filter, 15), 0.01);
+    }
+
+    @Test
+    public void BiquadFilterBandPassWorks() {
+        BiquadFilter filter = BiquadFilter.butterworthBandPass(2, 1, 10, sampleRateHz);
+
+        assertEquals(2, filter.getSectionCount());
+
+        assertEquals(1, amplitudeAt(filter, 3), 0.05);
+        assertTrue(amplitudeAt(filter, 0.1) < 0.02);
+        assertTrue(amplitudeAt(filter, 24) < 0.05);
+    }
+
+    @Test
+    public void BiquadFilterNotchWorks() {
+        BiquadFilter filter = BiquadFilter.notch(10, 2, sampleRateHz);
+
+        assertEquals(0, amplitudeAt(filter, 10), 0.001);
+        assertEquals(1, amplitudeAt(filter, 1), 0.02);
+
+        for (int i = 0; i < 500; i++) filter.calculate(3);
+        assertEquals(3, filter.getCurrentOutput(), epsilon);
+    }
+
+    @Test
+    public void BiquadFilterBatchMatchesScalar() {
+        BiquadFilter scalar = BiquadFilter.butterworthLowPass(5, 3, sampleRateHz);
+        BiquadFilter batch = BiquadFilter.butterworthLowPass(5, 3, sampleRateHz);
+
+        double[] values = {3, -1, 4, 1, -5, 9, 2, -6, 5, 3};
+        double[] outputs = new double[values.length];
+
+        batch.calculate(values, null, outputs);
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(scalar.calculate(values[i]), outputs[i], 1e-12);
+        }
+
+        assertEquals(scalar.getCurrentOutput(), batch.getCurrentOutput(), 1e-12);
+
+        // in place
+        batch.calculate(values, null, values);
+        assertEquals(scalar.calculate(3), values[0], 1e-12);
+    }
+
+    @Test
+    public void BiquadFilterResetWorks() {
+        BiquadFilter filter = BiquadFilter.butterworthLowPass(2, 5, sampleRateHz);
+
+        double first = filter.calculate(1);
+        filter.calculate(7);
+
+        filter.reset();
+
+        assertEquals(0, filter.getCurrentOutput(), 0);
+        assertEquals(first, filter.calculate(1), 0);
+    }
+}
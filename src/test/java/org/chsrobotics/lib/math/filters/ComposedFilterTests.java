@@ -0,0 +1,77 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.Test;
+
+public class ComposedFilterTests {
+    private final double epsilon = 0.0001;
+
+    private final double[] values = {3, -1, 4, 1, -5, 9, 2, -6, 5, 3};
+    private final double[] dts = {0.02, 0.5, 0, 1, 0.02, 0.1, 0.02, 2, 0.3, 0.02};
+
+    private void assertBatchMatchesScalar(Supplier<ComposedFilter> factory) {
+        ComposedFilter scalarFilter = factory.get();
+        ComposedFilter batchFilter = factory.get();
+
+        double[] outputs = new double[values.length];
+        batchFilter.calculate(values, dts, outputs);
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(scalarFilter.calculate(values[i], dts[i]), outputs[i], epsilon);
+        }
+
+        assertEquals(scalarFilter.getCurrentOutput(), batchFilter.getCurrentOutput(), epsilon);
+    }
+
+    @Test
+    public void ComposedFilterBatchMatchesScalar() {
+        assertBatchMatchesScalar(
+                () ->
+                        new ComposedFilter(
+                                List.of(
+                                        new RateLimiter(4),
+                                        new ExponentialMovingAverage(0.3),
+                                        new DifferentiatingFilter())));
+    }
+
+    @Test
+    public void ComposedFilterBatchMatchesScalarWithRepeatedInstance() {
+        assertBatchMatchesScalar(
+                () -> {
+                    ExponentialMovingAverage average = new ExponentialMovingAverage(0.5);
+
+                    return new ComposedFilter(List.of(average, average));
+                });
+
+        // also when the repeated instance is nested inside another stage
+        assertBatchMatchesScalar(
+                () -> {
+                    ExponentialMovingAverage average = new ExponentialMovingAverage(0.5);
+
+                    return new ComposedFilter(
+                            List.of(
+                                    average,
+                                    new RateLimiter(2),
+                                    Filter.scalarMultiply(average, 2)));
+                });
+    }
+}
@@ -54,4 +54,22 @@ public class DifferentiatingFilterTests {
         assertEquals(1, filter.calculate(3, 1), epsilon);
         assertEquals(-4, filter.calculate(1, 0.5), epsilon);
     }
+
+    @Test
+    public void DifferentiatingFilterBatchMatchesScalar() {
+        DifferentiatingFilter scalarFilter = new DifferentiatingFilter();
+        DifferentiatingFilter batchFilter = new DifferentiatingFilter();
+
+        double[] values = {3, -1, 4, 1, -5, 9, 2, -6, 5, 3};
+        double[] dts = {0.02, 0.5, 0, 1, 0.02, 0.1, 0.02, 2, 0.3, 0.02};
+
+        double[] outputs = new double[values.length];
+        batchFilter.calculate(values, dts, outputs);
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(scalarFilter.calculate(values[i], dts[i]), outputs[i], epsilon);
+        }
+
+        assertEquals(scalarFilter.getCurrentOutput(), batchFilter.getCurrentOutput(), epsilon);
+    }
 }
@@ -32,4 +32,58 @@ public class ExponentialMovingAverageTests {
         assertEquals(2.875, movingAverage.calculate(5), epsilon);
         assertEquals(1.4375, movingAverage.calculate(0), epsilon);
     }
+
+    @Test
+    public void ExponentialMovingAverageBatchMatchesScalar() {
+        ExponentialMovingAverage scalarFilter = new ExponentialMovingAverage(0.3);
+        ExponentialMovingAverage batchFilter = new ExponentialMovingAverage(0.3);
+
+        double[] values = {3, -1, 4, 1, -5, 9, 2, -6, 5, 3};
+        double[] dts = {0.02, 0.5, 0, 1, 0.02, 0.1, 0.02, 2, 0.3, 0.02};
+
+        double[] outputs = new double[values.length];
+        batchFilter.calculate(values, dts, outputs);
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(scalarFilter.calculate(values[i], dts[i]), outputs[i], epsilon);
+        }
+
+        assertEquals(scalarFilter.getCurrentOutput(), batchFilter.getCurrentOutput(), epsilon);
+    }
+
+    @Test
+    public void ExponentialMovingAverageTimeConstantHonorsDt() {
+        ExponentialMovingAverage filter = ExponentialMovingAverage.withTimeConstant(0.1);
+
+        // one time constant reaches 1 - 1/e of a step
+        assertEquals(1 - Math.exp(-1), filter.calculate(1, 0.1), epsilon);
+
+        // two half-steps are the same as one full step
+        ExponentialMovingAverage halfSteps = ExponentialMovingAverage.withTimeConstant(0.1);
+        halfSteps.calculate(1, 0.05);
+        assertEquals(1 - Math.exp(-1), halfSteps.calculate(1, 0.05), epsilon);
+
+        assertEquals(1 - Math.exp(-1), filter.calculate(5, 0), epsilon);
+    }
+
+    @Test
+    public void ExponentialMovingAverageTimestampedMatchesDt() {
+        ExponentialMovingAverage scalarFilter = ExponentialMovingAverage.withTimeConstant(0.2);
+        ExponentialMovingAverage batchFilter = ExponentialMovingAverage.withTimeConstant(0.2);
+
+        double[] values = {3, -1, 4, 1, -5, 9};
+        double[] timestamps = {1, 1.02, 1.05, 1.05, 1.3, 1.32};
+
+        double[] outputs = new double[values.length];
+        batchFilter.calculateTimestamped(values, timestamps, outputs);
+
+        assertEquals(scalarFilter.calculate(values[0]), outputs[0], epsilon);
+
+        for (int i = 1; i < values.length; i++) {
+            assertEquals(
+                    scalarFilter.calculate(values[i], timestamps[i] - timestamps[i - 1]),
+                    outputs[i],
+                    epsilon);
+        }
+    }
 }
@@ -0,0 +1,76 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class FilterBankTests {
+    private final double epsilon = 0.0001;
+
+    private final double[][] samples = {
+        {3, -1, 4},
+        {1, -5, 9},
+        {2, -6, 5},
+        {3, 5, -8}
+    };
+
+    private void assertBankMatchesFilters(FilterBank bank, Filter[] filters, double dtSeconds) {
+        double[] outputs = new double[bank.getChannelCount()];
+
+        for (double[] sample : samples) {
+            bank.calculate(sample, dtSeconds, outputs);
+
+            for (int i = 0; i < filters.length; i++) {
+                assertEquals(filters[i].calculate(sample[i], dtSeconds), outputs[i], epsilon);
+                assertEquals(filters[i].getCurrentOutput(), bank.getCurrentOutput(i), epsilon);
+            }
+        }
+    }
+
+    @Test
+    public void ExponentialMovingAverageBankMatchesFilters() {
+        assertBankMatchesFilters(
+                new ExponentialMovingAverageBank(3, 0.3),
+                new Filter[] {
+                    new ExponentialMovingAverage(0.3),
+                    new ExponentialMovingAverage(0.3),
+                    new ExponentialMovingAverage(0.3)
+                },
+                0.02);
+    }
+
+    @Test
+    public void RateLimiterBankMatchesFilters() {
+        assertBankMatchesFilters(
+                new RateLimiterBank(3, 4),
+                new Filter[] {new RateLimiter(4), new RateLimiter(4), new RateLimiter(4)},
+                0.5);
+    }
+
+    @Test
+    public void FilterBankResetsChannel() {
+        RateLimiterBank bank = new RateLimiterBank(2, 0);
+
+        bank.calculate(new double[] {1, 2}, new double[2]);
+        bank.reset(0);
+
+        assertEquals(0, bank.getCurrentOutput(0), epsilon);
+        assertEquals(2, bank.getCurrentOutput(1), epsilon);
+    }
+}
@@ -0,0 +1,167 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import org.chsrobotics.lib.math.filters.MovingAverageFilter.MEAN_IMPLEMENTATION;
+import org.junit.Test;
+
+public class FusedFilterTests {
+    private final double epsilon = 0.0001;
+
+    private final double[] values = {3, -1, 4, 1, -5, 9, 2, -6, 5, 3};
+    private final double[] dts = {0.02, 0.5, 0, 1, 0.02, 0.1, 0.02, 2, 0.3, 0.02};
+
+    private Filter createTree() {
+        return Filter.add(
+                Filter.scalarMultiply(
+                        new ComposedFilter(
+                                List.of(
+                                        new RateLimiter(4),
+                                        Filter.scalarMultiply(new NullFilter(), 2),
+                                        new ExponentialMovingAverage(0.3))),
+                        0.5),
+                Filter.add(
+                        Filter.scalarMultiply(new IntegratingFilter(), 0.1),
+                        new ComposedFilter(
+                                List.of(
+                                        new DifferentiatingFilter(),
+                                        new ThresholdFilter(3, true),
+                                        new MovingAverageFilter(
+                                                3, MEAN_IMPLEMENTATION.ARITHMETIC)))));
+    }
+
+    @Test
+    public void FusedFilterMatchesTree() {
+        Filter tree = createTree();
+        FusedFilter fused = FusedFilter.compile(createTree());
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(tree.calculate(values[i], dts[i]), fused.calculate(values[i], dts[i]), 0);
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(tree.calculate(values[i]), fused.calculate(values[i]), epsilon);
+        }
+
+        tree.reset();
+        fused.reset();
+
+        double[] outputs = new double[values.length];
+        fused.calculate(values, dts, outputs);
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(tree.calculate(values[i], dts[i]), outputs[i], epsilon);
+        }
+    }
+
+    @Test
+    public void FusedFilterSharesRepeatedInstances() {
+        ExponentialMovingAverage average = new ExponentialMovingAverage(0.4);
+        RateLimiter limiter = new RateLimiter(3);
+        IntegratingFilter integrator = new IntegratingFilter();
+        MovingAverageFilter window = new MovingAverageFilter(2, MEAN_IMPLEMENTATION.ARITHMETIC);
+
+        // every instance is used twice, so its state is updated twice per sample
+        Filter tree =
+                Filter.add(
+                        new ComposedFilter(List.of(average, limiter, average, window)),
+                        new ComposedFilter(List.of(integrator, limiter, window, integrator)));
+
+        FusedFilter fused = FusedFilter.compile(tree);
+
+        // an identical tree to compare against, as the fused filter calls the original window
+        ExponentialMovingAverage referenceAverage = new ExponentialMovingAverage(0.4);
+        RateLimiter referenceLimiter = new RateLimiter(3);
+        IntegratingFilter referenceIntegrator = new IntegratingFilter();
+        MovingAverageFilter referenceWindow =
+                new MovingAverageFilter(2, MEAN_IMPLEMENTATION.ARITHMETIC);
+
+        Filter reference =
+                Filter.add(
+                        new ComposedFilter(
+                                List.of(
+                                        referenceAverage,
+                                        referenceLimiter,
+                                        referenceAverage,
+                                        referenceWindow)),
+                        new ComposedFilter(
+                                List.of(
+                                        referenceIntegrator,
+                                        referenceLimiter,
+                                        referenceWindow,
+                                        referenceIntegrator)));
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(
+                    reference.calculate(values[i], dts[i]),
+                    fused.calculate(values[i], dts[i]),
+                    epsilon);
+        }
+    }
+
+    @Test
+    public void FusedFilterMatchesTreeWithNonFiniteValues() {
+        double[] nonFinite = {1, Double.POSITIVE_INFINITY, 2, Double.NEGATIVE_INFINITY, 3};
+
+        IntegratingFilter integrator = new IntegratingFilter();
+        FusedFilter fused = FusedFilter.compile(new IntegratingFilter());
+
+        for (double value : nonFinite) {
+            assertEquals(integrator.calculate(value, 0.5), fused.calculate(value, 0.5), 0);
+        }
+
+        integrator.reset();
+        fused.reset();
+
+        for (double value : values) {
+            assertEquals(integrator.calculate(value, 0.5), fused.calculate(value, 0.5), 0);
+        }
+    }
+
+    @Test
+    public void FusedFilterFoldsGains() {
+        FusedFilter fused =
+                FusedFilter.compile(
+                        Filter.scalarMultiply(
+                                Filter.scalarMultiply(
+                                        new ComposedFilter(
+                                                List.of(new NullFilter(), new NullFilter())),
+                                        4),
+                                0.25));
+
+        assertEquals(0, fused.getStageCount());
+        assertEquals(7, fused.calculate(7), epsilon);
+
+        FusedFilter scaled =
+                FusedFilter.compile(
+                        Filter.scalarMultiply(Filter.scalarMultiply(new NullFilter(), 3), 2));
+
+        assertEquals(1, scaled.getStageCount());
+        assertEquals(12, scaled.calculate(2), epsilon);
+
+        // folded gains are only equal to the tree's up to rounding
+        Filter tree = Filter.scalarMultiply(Filter.scalarMultiply(new NullFilter(), 0.1), 0.3);
+        FusedFilter folded = FusedFilter.compile(tree);
+
+        for (double value : values) {
+            assertEquals(tree.calculate(value), folded.calculate(value), epsilon);
+        }
+    }
+}
@@ -43,4 +43,58 @@ public class IntegratingFilterTests {
         assertEquals(-1.5, filter.calculate(0, 1), epsilon);
         assertEquals(-0.5, filter.calculate(1, 1), epsilon);
     }
+
+    @Test
+    public void IntegratingFilterIndefiniteWindowStaysAccurate() {
+        IntegratingFilter filter = new IntegratingFilter();
+
+        filter.calculate(1e8, 1);
+        filter.calculate(0, 1);
+
+        // each trapezoid would be lost to rounding against a naive sum of this magnitude
+        for (int i = 0; i < 100000; i++) filter.calculate(2e-9, 0.5);
+
+        assertEquals(1e8 + 1e-4 - 5e-10, filter.getCurrentOutput(), 1e-7);
+    }
+
+    @Test
+    public void IntegratingFilterRecoversFromNonFiniteValues() {
+        IntegratingFilter filter = new IntegratingFilter(2);
+
+        assertEquals(Double.POSITIVE_INFINITY, filter.calculate(Double.POSITIVE_INFINITY, 1), 0);
+        assertEquals(Double.POSITIVE_INFINITY, filter.calculate(1, 1), 0);
+        assertEquals(Double.POSITIVE_INFINITY, filter.calculate(1, 1), 0);
+
+        // finite again once every non-finite trapezoid has left the window
+        assertEquals(2, filter.calculate(1, 1), epsilon);
+
+        assertEquals(Double.NaN, filter.calculate(Double.NaN, 1), 0);
+        assertEquals(Double.NaN, filter.calculate(3, 1), 0);
+        assertEquals(Double.NaN, filter.calculate(3, 1), 0);
+        assertEquals(6, filter.calculate(3, 1), epsilon);
+
+        IntegratingFilter indefinite = new IntegratingFilter();
+
+        indefinite.calculate(Double.POSITIVE_INFINITY, 1);
+        assertEquals(Double.POSITIVE_INFINITY, indefinite.calculate(0, 1), 0);
+        assertEquals(Double.NaN, indefinite.calculate(Double.NEGATIVE_INFINITY, 1), 0);
+    }
+
+    @Test
+    public void IntegratingFilterBatchMatchesScalar() {
+        IntegratingFilter scalarFilter = new IntegratingFilter(4);
+        IntegratingFilter batchFilter = new IntegratingFilter(4);
+
+        double[] values = {3, -1, 4, 1, -5, 9, 2, -6, 5, 3};
+        double[] dts = {0.02, 0.5, 0, 1, 0.02, 0.1, 0.02, 2, 0.3, 0.02};
+
+        double[] outputs = new double[values.length];
+        batchFilter.calculate(values, dts, outputs);
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(scalarFilter.calculate(values[i], dts[i]), outputs[i], epsilon);
+        }
+
+        assertEquals(scalarFilter.getCurrentOutput(), batchFilter.getCurrentOutput(), epsilon);
+    }
 }
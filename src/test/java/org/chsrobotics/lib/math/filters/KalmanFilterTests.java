@@ -0,0 +1,138 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class KalmanFilterTests {
+    private final double epsilon = 0.0001;
+
+    private final double dt = 0.02;
+
+    @Test
+    public void ConstantVelocityKalmanFilterTracksRamp() {
+        ConstantVelocityKalmanFilter filter = new ConstantVelocityKalmanFilter(1, 0.01, dt);
+
+        assertEquals(0, filter.getCurrentOutput(), epsilon);
+
+        double position = 0;
+
+        for (int i = 0; i < 2000; i++) {
+            position = 5 + 3 * i * dt;
+
+            filter.calculate(position);
+        }
+
+        // no steady-state error on a constant velocity
+        assertEquals(position, filter.getCurrentOutput(), epsilon);
+        assertEquals(3, filter.getVelocity(), epsilon);
+
+        filter.reset();
+
+        assertEquals(0, filter.getCurrentOutput(), epsilon);
+        assertEquals(0, filter.getVelocity(), epsilon);
+        assertEquals(7, filter.calculate(7), epsilon);
+    }
+
+    @Test
+    public void ConstantVelocityKalmanFilterGainsAreSteadyState() {
+        ConstantVelocityKalmanFilter fixed = new ConstantVelocityKalmanFilter(2, 0.05, dt);
+
+        // with the measurement noise fixed, the covariance converges to the steady state, after
+        // which the two filters should respond to residuals identically
+        AdaptiveKalmanFilter full = new AdaptiveKalmanFilter(2, 0.05, 0);
+
+        for (int i = 0; i < 2000; i++) full.calculate(0, dt);
+
+        fixed.calculate(0, dt);
+
+        double fullPosition = full.calculate(1, dt);
+        double fixedPosition = fixed.calculate(1, dt);
+
+        assertEquals(fixed.getPositionGain(), fixedPosition, epsilon);
+        assertEquals(fullPosition, fixedPosition, epsilon);
+        assertEquals(full.getVelocity(), fixed.getVelocity(), epsilon);
+        assertEquals(fixed.getVelocityGain(), fixed.getVelocity(), epsilon);
+    }
+
+    @Test
+    public void ConstantVelocityKalmanFilterRejectsNoise() {
+        Random random = new Random(997);
+
+        ConstantVelocityKalmanFilter filter = new ConstantVelocityKalmanFilter(1, 0.01, dt);
+        DifferentiatingFilter difference = new DifferentiatingFilter();
+
+        double filterError = 0;
+        double differenceError = 0;
+
+        for (int i = 0; i < 1000; i++) {
+            double value = 2 * i * dt + random.nextGaussian() * 0.01;
+
+            filter.calculate(value, dt);
+            double differenceRate = difference.calculate(value, dt);
+
+            if (i >= 500) {
+                filterError += Math.abs(filter.getVelocity() - 2);
+                differenceError += Math.abs(differenceRate - 2);
+            }
+        }
+
+        assertTrue(filterError * 4 < differenceError);
+    }
+
+    @Test
+    public void AdaptiveKalmanFilterEstimatesMeasurementNoise() {
+        Random random = new Random(997);
+
+        // initial estimate far too low
+        AdaptiveKalmanFilter filter = new AdaptiveKalmanFilter(0.5, 0.001, 0.01);
+
+        for (int i = 0; i < 5000; i++) {
+            filter.calculate(1.5 * i * dt + random.nextGaussian() * 0.1, dt);
+        }
+
+        assertEquals(0.1, filter.getMeasurementStdDev(), 0.02);
+        assertEquals(1.5, filter.getVelocity(), 0.3);
+
+        filter.reset();
+
+        assertEquals(0.001, filter.getMeasurementStdDev(), epsilon);
+        assertEquals(0, filter.getCurrentOutput(), epsilon);
+    }
+
+    @Test
+    public void AdaptiveKalmanFilterHandlesVaryingDt() {
+        AdaptiveKalmanFilter filter = new AdaptiveKalmanFilter(1, 0.01, 0.05);
+
+        double[] dts = {0.02, 0.05, 0.01, 0.03, 0.02};
+
+        double t = 0;
+
+        for (int i = 0; i < 1000; i++) {
+            t += dts[i % dts.length];
+
+            filter.calculate(-4 * t, dts[i % dts.length]);
+        }
+
+        assertEquals(-4 * t, filter.getCurrentOutput(), epsilon);
+        assertEquals(-4, filter.getVelocity(), epsilon);
+    }
+}
@@ -18,6 +18,10 @@ package org.chsrobotics.lib.math.filters;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.chsrobotics.lib.math.UtilityMath;
 import org.chsrobotics.lib.math.filters.MovingAverageFilter.MEAN_IMPLEMENTATION;
 import org.junit.Test;
 
@@ -46,4 +50,108 @@ public class MovingAverageTests {
         assertEquals(-3, filter.calculate(0), epsilon);
         assertEquals(-1, filter.calculate(3), epsilon);
     }
+
+    @Test
+    public void MovingAverageFilterMatchesUtilityMathMeans() {
+        Random random = new Random(997);
+
+        for (int window : new int[] {0, 1, 5, 64}) {
+            MovingAverageFilter arithmetic =
+                    new MovingAverageFilter(window, MEAN_IMPLEMENTATION.ARITHMETIC);
+            MovingAverageFilter geometric =
+                    new MovingAverageFilter(window, MEAN_IMPLEMENTATION.GEOMETRIC);
+            MovingAverageFilter harmonic =
+                    new MovingAverageFilter(window, MEAN_IMPLEMENTATION.HARMONIC);
+
+            List<Double> values = new ArrayList<>();
+
+            for (int i = 0; i < 500; i++) {
+                // positive, so the geometric mean is defined
+                double value = 0.1 + random.nextDouble() * 10;
+
+                values.add(value);
+                if (window > 0 && values.size() > window) values.remove(0);
+
+                assertEquals(
+                        UtilityMath.arithmeticMean(values),
+                        arithmetic.calculate(value),
+                        epsilon);
+                assertEquals(
+                        UtilityMath.geometricMean(values), geometric.calculate(value), epsilon);
+                assertEquals(
+                        UtilityMath.harmonicMean(values), harmonic.calculate(value), epsilon);
+            }
+        }
+    }
+
+    @Test
+    public void MovingAverageFilterHandlesSignsAndZeros() {
+        MovingAverageFilter geometric = new MovingAverageFilter(2, MEAN_IMPLEMENTATION.GEOMETRIC);
+
+        assertEquals(-4, geometric.calculate(-4), epsilon);
+        assertEquals(2, geometric.calculate(-1), epsilon);
+        assertEquals(0, geometric.calculate(0), epsilon);
+        assertEquals(0, geometric.calculate(-9), epsilon);
+        assertEquals(3, geometric.calculate(-1), epsilon);
+        assertEquals(Double.NaN, geometric.calculate(2), epsilon);
+
+        MovingAverageFilter harmonic = new MovingAverageFilter(2, MEAN_IMPLEMENTATION.HARMONIC);
+
+        assertEquals(0, harmonic.calculate(0), epsilon);
+        assertEquals(4, harmonic.calculate(2), epsilon);
+        assertEquals(8, harmonic.calculate(-4), epsilon);
+
+        MovingAverageFilter arithmetic = new MovingAverageFilter(2, MEAN_IMPLEMENTATION.ARITHMETIC);
+
+        arithmetic.calculate(Double.NaN);
+        arithmetic.calculate(1);
+        assertEquals(2, arithmetic.calculate(3), epsilon);
+    }
+
+    @Test
+    public void MovingAverageFilterHandlesNonFiniteValues() {
+        MovingAverageFilter arithmetic = new MovingAverageFilter(3, MEAN_IMPLEMENTATION.ARITHMETIC);
+
+        assertEquals(Double.POSITIVE_INFINITY, arithmetic.calculate(Double.POSITIVE_INFINITY), 0);
+        assertEquals(Double.POSITIVE_INFINITY, arithmetic.calculate(2), 0);
+        assertEquals(Double.NaN, arithmetic.calculate(Double.NEGATIVE_INFINITY), 0);
+        assertEquals(Double.NEGATIVE_INFINITY, arithmetic.calculate(4), 0);
+        assertEquals(Double.NaN, arithmetic.calculate(Double.NaN), 0);
+        assertEquals(Double.NaN, arithmetic.calculate(6), 0);
+        assertEquals(Double.NaN, arithmetic.calculate(8), 0);
+
+        // finite again once every non-finite value has left the window
+        assertEquals(8, arithmetic.calculate(10), epsilon);
+
+        MovingAverageFilter harmonic = new MovingAverageFilter(2, MEAN_IMPLEMENTATION.HARMONIC);
+
+        // the reciprocal of the smallest subnormal is infinite
+        assertEquals(0, harmonic.calculate(Double.MIN_VALUE), 0);
+        assertEquals(0, harmonic.calculate(2), 0);
+        assertEquals(2, harmonic.calculate(2), epsilon);
+
+        MovingAverageFilter geometric = new MovingAverageFilter(2, MEAN_IMPLEMENTATION.GEOMETRIC);
+
+        assertEquals(Double.POSITIVE_INFINITY, geometric.calculate(Double.POSITIVE_INFINITY), 0);
+        assertEquals(Double.POSITIVE_INFINITY, geometric.calculate(4), 0);
+        assertEquals(8, geometric.calculate(16), epsilon);
+    }
+
+    @Test
+    public void MovingAverageFilterBatchMatchesScalar() {
+        MovingAverageFilter scalarFilter = new MovingAverageFilter(4, MEAN_IMPLEMENTATION.HARMONIC);
+        MovingAverageFilter batchFilter = new MovingAverageFilter(4, MEAN_IMPLEMENTATION.HARMONIC);
+
+        double[] values = {3, -1, 4, 1, -5, 9, 2, -6, 5, 3};
+        double[] dts = {0.02, 0.5, 0, 1, 0.02, 0.1, 0.02, 2, 0.3, 0.02};
+
+        double[] outputs = new double[values.length];
+        batchFilter.calculate(values, dts, outputs);
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(scalarFilter.calculate(values[i], dts[i]), outputs[i], epsilon);
+        }
+
+        assertEquals(scalarFilter.getCurrentOutput(), batchFilter.getCurrentOutput(), epsilon);
+    }
 }
@@ -0,0 +1,94 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class MovingExtremumFilterTests {
+    private final double epsilon = 0.0001;
+
+    @Test
+    public void MovingMaxFilterWorks() {
+        MovingMaxFilter filter = new MovingMaxFilter(3);
+
+        assertEquals(0, filter.getCurrentOutput(), epsilon);
+        assertEquals(-4, filter.calculate(-4), epsilon);
+        assertEquals(5, filter.calculate(5), epsilon);
+        assertEquals(5, filter.calculate(1), epsilon);
+        assertEquals(5, filter.calculate(2), epsilon);
+        assertEquals(2, filter.calculate(0), epsilon);
+
+        filter.reset();
+
+        assertEquals(0, filter.getCurrentOutput(), epsilon);
+        assertEquals(-1, filter.calculate(-1), epsilon);
+    }
+
+    @Test
+    public void MovingMinFilterWorks() {
+        MovingMinFilter filter = new MovingMinFilter(2);
+
+        assertEquals(3, filter.calculate(3), epsilon);
+        assertEquals(1, filter.calculate(1), epsilon);
+        assertEquals(1, filter.calculate(4), epsilon);
+        assertEquals(4, filter.calculate(6), epsilon);
+    }
+
+    @Test
+    public void MovingExtremumFilterIndefiniteWorks() {
+        MovingMinFilter min = new MovingMinFilter(0);
+        MovingMaxFilter max = new MovingMaxFilter(-1);
+
+        double[] values = {3, 5, -2, 4, 1};
+        double[] expectedMins = {3, 3, -2, -2, -2};
+        double[] expectedMaxes = {3, 5, 5, 5, 5};
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(expectedMins[i], min.calculate(values[i]), epsilon);
+            assertEquals(expectedMaxes[i], max.calculate(values[i]), epsilon);
+        }
+    }
+
+    @Test
+    public void MovingExtremumFilterMatchesWindowScan() {
+        Random random = new Random(997);
+
+        for (int window : new int[] {1, 2, 7, 40}) {
+            MovingMinFilter min = new MovingMinFilter(window);
+            MovingMaxFilter max = new MovingMaxFilter(window);
+            double[] history = new double[500];
+
+            for (int i = 0; i < history.length; i++) {
+                history[i] = Math.round(random.nextGaussian() * 10);
+
+                double expectedMin = Double.POSITIVE_INFINITY;
+                double expectedMax = Double.NEGATIVE_INFINITY;
+
+                for (int j = Math.max(0, i - window + 1); j <= i; j++) {
+                    expectedMin = Math.min(expectedMin, history[j]);
+                    expectedMax = Math.max(expectedMax, history[j]);
+                }
+
+                assertEquals(expectedMin, min.calculate(history[i]), epsilon);
+                assertEquals(expectedMax, max.calculate(history[i]), epsilon);
+            }
+        }
+    }
+}
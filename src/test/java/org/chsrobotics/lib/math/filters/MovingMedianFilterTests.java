@@ -0,0 +1,73 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class MovingMedianFilterTests {
+    private final double epsilon = 0.0001;
+
+    @Test
+    public void MovingMedianFilterWorks() {
+        MovingMedianFilter filter = new MovingMedianFilter(3);
+
+        assertEquals(0, filter.getCurrentOutput(), epsilon);
+        assertEquals(4, filter.calculate(4), epsilon);
+        assertEquals(3, filter.calculate(2), epsilon);
+        assertEquals(2, filter.calculate(1), epsilon);
+
+        // spike rejected
+        assertEquals(2, filter.calculate(100), epsilon);
+        assertEquals(3, filter.calculate(3), epsilon);
+        assertEquals(3, filter.calculate(-5), epsilon);
+        assertEquals(3, filter.getCurrentOutput(), epsilon);
+
+        filter.reset();
+
+        assertEquals(0, filter.getCurrentOutput(), epsilon);
+        assertEquals(7, filter.calculate(7), epsilon);
+    }
+
+    @Test
+    public void MovingMedianFilterMatchesSortedWindow() {
+        Random random = new Random(997);
+
+        for (int window : new int[] {1, 2, 5, 8, 33}) {
+            MovingMedianFilter filter = new MovingMedianFilter(window);
+            double[] history = new double[500];
+
+            for (int i = 0; i < history.length; i++) {
+                // rounded, so the window has repeated values
+                history[i] = Math.round(random.nextGaussian() * 10);
+
+                int start = Math.max(0, i - window + 1);
+                double[] sorted = Arrays.copyOfRange(history, start, i + 1);
+                Arrays.sort(sorted);
+
+                int n = sorted.length;
+                double expected =
+                        (n % 2 == 1) ? sorted[n / 2] : (sorted[n / 2 - 1] + sorted[n / 2]) / 2;
+
+                assertEquals(expected, filter.calculate(history[i]), epsilon);
+            }
+        }
+    }
+}
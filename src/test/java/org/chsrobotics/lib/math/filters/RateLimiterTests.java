@@ -32,4 +32,22 @@ public class RateLimiterTests {
         assertEquals(2, limiter.calculate(-5, 1), epsilon);
         assertEquals(0, limiter.calculate(0, 1), epsilon);
     }
+
+    @Test
+    public void RateLimiterBatchMatchesScalar() {
+        RateLimiter scalarFilter = new RateLimiter(4);
+        RateLimiter batchFilter = new RateLimiter(4);
+
+        double[] values = {3, -1, 4, 1, -5, 9, 2, -6, 5, 3};
+        double[] dts = {0.02, 0.5, 0, 1, 0.02, 0.1, 0.02, 2, 0.3, 0.02};
+
+        double[] outputs = new double[values.length];
+        batchFilter.calculate(values, dts, outputs);
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(scalarFilter.calculate(values[i], dts[i]), outputs[i], epsilon);
+        }
+
+        assertEquals(scalarFilter.getCurrentOutput(), batchFilter.getCurrentOutput(), epsilon);
+    }
 }
@@ -0,0 +1,99 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.math.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class SavitzkyGolayFilterTests {
+    private final double epsilon = 0.0001;
+
+    private final double dt = 0.02;
+
+    private double quadratic(double t) {
+        return 3 * t * t + 2 * t + 1;
+    }
+
+    @Test
+    public void SavitzkyGolayFilterFitsPolynomialsExactly() {
+        SavitzkyGolayFilter smoothing = new SavitzkyGolayFilter(7, 2, 0);
+        SavitzkyGolayFilter velocity = new SavitzkyGolayFilter(7, 2, 1);
+        SavitzkyGolayFilter acceleration = new SavitzkyGolayFilter(7, 2, 2);
+
+        for (int i = 0; i < 30; i++) {
+            double t = i * dt;
+            double value = quadratic(t);
+
+            double smoothed = smoothing.calculate(value);
+            double rate = velocity.calculate(value, dt);
+            double rateOfRate = acceleration.calculate(value, dt);
+
+            // a quadratic is fit exactly once there are enough values for the degree
+            if (i >= 2) {
+                assertEquals(value, smoothed, epsilon);
+                assertEquals(6 * t + 2, rate, epsilon);
+                assertEquals(6, rateOfRate, epsilon);
+            }
+        }
+    }
+
+    @Test
+    public void SavitzkyGolayFilterPartialWindowWorks() {
+        SavitzkyGolayFilter velocity = new SavitzkyGolayFilter(5, 2, 1);
+
+        // too few values for a slope
+        assertEquals(0, velocity.calculate(4), epsilon);
+
+        // line through two values
+        assertEquals(50, velocity.calculate(5), epsilon);
+
+        velocity.reset();
+
+        assertEquals(0, velocity.getCurrentOutput(), epsilon);
+        assertEquals(0, velocity.calculate(4), epsilon);
+        assertEquals(0, velocity.calculate(5, 0), epsilon);
+    }
+
+    @Test
+    public void SavitzkyGolayFilterRejectsNoiseBetterThanDifference() {
+        Random random = new Random(997);
+
+        SavitzkyGolayFilter savitzkyGolay = new SavitzkyGolayFilter(15, 2, 1);
+        DifferentiatingFilter difference = new DifferentiatingFilter();
+
+        double savitzkyGolayError = 0;
+        double differenceError = 0;
+
+        for (int i = 0; i < 500; i++) {
+            // constant velocity of 2 units per second, with measurement noise
+            double value = 2 * i * dt + random.nextGaussian() * 0.01;
+
+            double savitzkyGolayRate = savitzkyGolay.calculate(value, dt);
+            double differenceRate = difference.calculate(value, dt);
+
+            if (i >= 15) {
+                savitzkyGolayError += Math.abs(savitzkyGolayRate - 2);
+                differenceError += Math.abs(differenceRate - 2);
+            }
+        }
+
+        assertTrue(savitzkyGolayError * 4 < differenceError);
+    }
+}
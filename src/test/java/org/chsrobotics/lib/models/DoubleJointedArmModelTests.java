@@ -0,0 +1,159 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.models;
+
+import static org.junit.Assert.assertEquals;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.Vector;
+import edu.wpi.first.math.numbers.N2;
+import edu.wpi.first.math.system.plant.DCMotor;
+import org.junit.Test;
+
+public class DoubleJointedArmModelTests {
+    private final double epsilon = 0.0001;
+
+    private final DoubleJointedArmModel model =
+            new DoubleJointedArmModel(
+                    3,
+                    0.4,
+                    0.2,
+                    0.9,
+                    DCMotor.getNEO(2).withReduction(100),
+                    2,
+                    0.3,
+                    0.1,
+                    DCMotor.getNEO(1).withReduction(60),
+                    1);
+
+    @Test
+    public void DoubleJointedArmModelPrimitiveFeedforwardMatches() {
+        double[] voltages = new double[2];
+
+        model.feedforward(0.3, -0.5, 1, 0.5, 2, -1, voltages);
+
+        Vector<N2> expected =
+                model.feedforward(
+                        VecBuilder.fill(0.3, -0.5),
+                        VecBuilder.fill(1, 0.5),
+                        VecBuilder.fill(2, -1));
+
+        assertEquals(expected.get(0, 0), voltages[0], epsilon);
+        assertEquals(expected.get(1, 0), voltages[1], epsilon);
+    }
+
+    @Test
+    public void DoubleJointedArmModelPrimitiveSimulateMatches() {
+        Matrix<N2, N2> state = new Matrix<>(N2.instance, N2.instance);
+        state.set(0, 0, 0.3);
+        state.set(0, 1, 0.2);
+        state.set(1, 0, -0.5);
+        state.set(1, 1, 1);
+
+        double[] primitiveState = {0.3, 0.2, -0.5, 1};
+
+        for (int i = 0; i < 50; i++) {
+            state = model.simulate(state, VecBuilder.fill(4, -2), 0.02);
+
+            // in place
+            model.simulate(primitiveState, 4, -2, 0.02, primitiveState);
+        }
+
+        assertEquals(state.get(0, 0), primitiveState[0], epsilon);
+        assertEquals(state.get(0, 1), primitiveState[1], epsilon);
+        assertEquals(state.get(1, 0), primitiveState[2], epsilon);
+        assertEquals(state.get(1, 1), primitiveState[3], epsilon);
+    }
+
+    @Test
+    public void DoubleJointedArmModelSimulateIsAccurate() {
+        double[] coarse = {0.3, 0.2, -0.5, 1};
+        double[] fine = coarse.clone();
+
+        model.simulate(coarse, 4, -2, 0.1, coarse);
+
+        for (int i = 0; i < 1000; i++) model.simulate(fine, 4, -2, 0.0001, fine);
+
+        for (int i = 0; i < 4; i++) assertEquals(fine[i], coarse[i], epsilon);
+    }
+
+    @Test
+    public void DoubleJointedArmModelFeedforwardHoldsPosition() {
+        double[] voltages = new double[2];
+
+        model.feedforward(0.3, 0, 0, 0, 0, 0, voltages);
+
+        double[] state = {0.3, 0, 0, 0};
+
+        model.simulate(state, voltages[0], voltages[1], 0.02, state);
+
+        assertEquals(0.3, state[0], epsilon);
+        assertEquals(0, state[1], epsilon);
+        assertEquals(0, state[2], epsilon);
+        assertEquals(0, state[3], epsilon);
+    }
+
+    @Test
+    public void DoubleJointedArmModelDynamicsMatchHandComputed() {
+        DCMotor localDrive = DCMotor.getNEO(2).withReduction(100);
+        DCMotor distalDrive = DCMotor.getNEO(1).withReduction(60);
+
+        // local arm 1 m long, no gravity
+        DoubleJointedArmModel simpleModel =
+                new DoubleJointedArmModel(
+                        2, 0.5, 0.1, 1, localDrive, 1, 0.4, 0.05, distalDrive, 0);
+
+        double localAngle = 0.3;
+        double distalAngle = -0.5;
+        double localVelocity = 1;
+        double distalVelocity = 0.5;
+
+        double cos = Math.cos(distalAngle);
+        double sin = Math.sin(distalAngle);
+
+        // inertia matrix
+        double m00 = (2 * 0.5 * 0.5) + (1 * (1 + (0.4 * 0.4))) + 0.1 + 0.05 + (2 * 0.4 * cos);
+        double m01 = (0.4 * 0.4) + 0.05 + (0.4 * cos);
+        double m10 = (0.4 * 0.4) + 0.05 + (0.4 * cos);
+        double m11 = (0.4 * 0.4) + 0.05;
+
+        // motor torques, less the Coriolis and centrifugal torques
+        double localTorque =
+                localDrive.getTorque(localDrive.getCurrent(localVelocity, 2))
+                        + (0.4 * distalVelocity * localVelocity)
+                        + (0.4 * sin * (localVelocity + distalVelocity) * distalVelocity);
+        double distalTorque =
+                distalDrive.getTorque(distalDrive.getCurrent(distalVelocity, -1))
+                        - (0.4 * sin * distalVelocity * localVelocity);
+
+        double determinant = (m00 * m11) - (m01 * m10);
+
+        double localAcceleration = ((m11 * localTorque) - (m01 * distalTorque)) / determinant;
+        double distalAcceleration = ((m00 * distalTorque) - (m10 * localTorque)) / determinant;
+
+        double dt = 1e-8;
+        double[] state = {localAngle, distalAngle, localVelocity, distalVelocity};
+
+        simpleModel.simulate(state, 2, -1, dt, state);
+
+        assertEquals(localVelocity, (state[0] - localAngle) / dt, epsilon);
+        assertEquals(distalVelocity, (state[1] - distalAngle) / dt, epsilon);
+        assertEquals(localAcceleration, (state[2] - localVelocity) / dt, 0.001);
+        assertEquals(distalAcceleration, (state[3] - distalVelocity) / dt, 0.001);
+    }
+}
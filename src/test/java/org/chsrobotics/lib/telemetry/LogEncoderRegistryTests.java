@@ -0,0 +1,124 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.telemetry;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import org.junit.Test;
+
+public class LogEncoderRegistryTests {
+    private final double epsilon = 0.0001;
+
+    private interface Tagged {}
+
+    private static class Base {}
+
+    private static class Derived extends Base implements Tagged {}
+
+    private static class Unrelated implements Tagged {}
+
+    private static class Unregistered {}
+
+    private static class ConstantEncoder implements LogEncoder<Object> {
+        private final double value;
+
+        ConstantEncoder(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public int getLength() {
+            return 1;
+        }
+
+        @Override
+        public void encode(Object value, double[] buffer) {
+            buffer[0] = this.value;
+        }
+    }
+
+    @Test
+    public void LogEncoderRegistryPrefersNearestType() {
+        ConstantEncoder baseEncoder = new ConstantEncoder(1);
+        ConstantEncoder interfaceEncoder = new ConstantEncoder(2);
+
+        LogEncoderRegistry.register(Base.class, baseEncoder);
+        LogEncoderRegistry.register(Tagged.class, interfaceEncoder);
+
+        // a superclass is preferred over an interface
+        assertSame(baseEncoder, LogEncoderRegistry.get(Base.class));
+        assertSame(baseEncoder, LogEncoderRegistry.get(Derived.class));
+        assertSame(interfaceEncoder, LogEncoderRegistry.get(Unrelated.class));
+
+        // and an exact match over both
+        ConstantEncoder derivedEncoder = new ConstantEncoder(3);
+        LogEncoderRegistry.register(Derived.class, derivedEncoder);
+
+        assertSame(derivedEncoder, LogEncoderRegistry.get(Derived.class));
+        assertSame(baseEncoder, LogEncoderRegistry.get(Base.class));
+
+        assertNull(LogEncoderRegistry.get(Unregistered.class));
+    }
+
+    @Test
+    public void LogEncoderRegistryResolvesAgainAfterRegister() {
+        class Late {}
+
+        assertNull(LogEncoderRegistry.get(Late.class));
+
+        ConstantEncoder encoder = new ConstantEncoder(4);
+        LogEncoderRegistry.register(Late.class, encoder);
+
+        // the cached miss is discarded
+        assertSame(encoder, LogEncoderRegistry.get(Late.class));
+
+        ConstantEncoder replacement = new ConstantEncoder(5);
+        LogEncoderRegistry.register(Late.class, replacement);
+
+        assertSame(replacement, LogEncoderRegistry.get(Late.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void LogEncoderRegistryEncodesBuiltInTypes() {
+        LogEncoder<Object> poseEncoder = (LogEncoder<Object>) LogEncoderRegistry.get(Pose2d.class);
+
+        assertEquals(3, poseEncoder.getLength());
+
+        double[] poseBuffer = new double[3];
+        poseEncoder.encode(new Pose2d(1, -2, new Rotation2d(0.5)), poseBuffer);
+
+        assertArrayEquals(new double[] {1, -2, 0.5}, poseBuffer, epsilon);
+
+        LogEncoder<Object> rotationEncoder =
+                (LogEncoder<Object>) LogEncoderRegistry.get(Rotation2d.class);
+
+        assertEquals(1, rotationEncoder.getLength());
+        assertTrue(rotationEncoder.isScalar());
+
+        double[] rotationBuffer = new double[1];
+        rotationEncoder.encode(new Rotation2d(-1.25), rotationBuffer);
+
+        assertEquals(-1.25, rotationBuffer[0], epsilon);
+    }
+}
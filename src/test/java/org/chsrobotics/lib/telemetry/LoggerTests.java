@@ -0,0 +1,41 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.telemetry;
+
+import edu.wpi.first.util.datalog.DataLog;
+import java.security.InvalidParameterException;
+import org.junit.Test;
+
+public class LoggerTests {
+    @Test
+    public void LoggerAcceptsTypesLoggedTheSame() {
+        Logger<Object> logger = new Logger<>(new DataLog(), "same", "loggerTests", false, false);
+
+        // every number is logged as a double
+        logger.update(1);
+        logger.update(2.5);
+        logger.update(3L);
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void LoggerRejectsChangedType() {
+        Logger<Object> logger = new Logger<>(new DataLog(), "changed", "loggerTests", false, false);
+
+        logger.update(1.0);
+        logger.update("one");
+    }
+}
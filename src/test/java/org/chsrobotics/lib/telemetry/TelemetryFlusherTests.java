@@ -0,0 +1,196 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.telemetry;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+public class TelemetryFlusherTests {
+    private final double epsilon = 0.0001;
+
+    private static class RecordingSink implements TelemetryFlusher.Sink {
+        final List<Integer> tags = new ArrayList<>();
+        final List<Double> numericValues = new ArrayList<>();
+        final List<Object> objectValues = new ArrayList<>();
+
+        @Override
+        public void flush(int tag, double numericValue, Object objectValue, long timestampMicros) {
+            tags.add(tag);
+            numericValues.add(numericValue);
+            objectValues.add(objectValue);
+        }
+    }
+
+    // blocks inside the first flush until released, so that updates pile up in the queue
+    private static class BlockingSink extends RecordingSink {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void flush(int tag, double numericValue, Object objectValue, long timestampMicros) {
+            entered.countDown();
+
+            try {
+                release.await();
+            } catch (InterruptedException exc) {
+                Thread.currentThread().interrupt();
+            }
+
+            super.flush(tag, numericValue, objectValue, timestampMicros);
+        }
+    }
+
+    @Test
+    public void TelemetryFlusherPreservesOrder() {
+        TelemetryFlusher flusher = new TelemetryFlusher(128);
+        RecordingSink sink = new RecordingSink();
+
+        flusher.start();
+
+        for (int i = 0; i < 100; i++) assertTrue(flusher.offer(sink, i, i * 0.5, "value" + i));
+
+        flusher.stop();
+
+        assertEquals(100, sink.tags.size());
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, (int) sink.tags.get(i));
+            assertEquals(i * 0.5, sink.numericValues.get(i), epsilon);
+            assertEquals("value" + i, sink.objectValues.get(i));
+        }
+
+        assertEquals(100, flusher.getFlushedCount());
+        assertEquals(0, flusher.getDroppedCount());
+    }
+
+    @Test
+    public void TelemetryFlusherDropsWhenFull() throws InterruptedException {
+        TelemetryFlusher flusher = new TelemetryFlusher(4);
+        BlockingSink sink = new BlockingSink();
+
+        flusher.start();
+
+        assertTrue(flusher.offer(sink, 0, 0, null));
+        sink.entered.await();
+
+        // the first update holds its slot until its flush returns
+        for (int i = 1; i < 4; i++) assertTrue(flusher.offer(sink, i, 0, null));
+
+        assertFalse(flusher.offer(sink, 4, 0, null));
+        assertFalse(flusher.offerArray(sink, 5, new double[] {1, 2}));
+
+        assertEquals(2, flusher.getDroppedCount());
+        assertEquals(4, flusher.getHighWaterMark());
+
+        sink.release.countDown();
+        flusher.stop();
+
+        assertEquals(List.of(0, 1, 2, 3), sink.tags);
+        assertEquals(4, flusher.getFlushedCount());
+        assertEquals(0, flusher.getPendingCount());
+    }
+
+    @Test
+    public void TelemetryFlusherDrainsOnStop() throws InterruptedException {
+        TelemetryFlusher flusher = new TelemetryFlusher(8);
+        BlockingSink sink = new BlockingSink();
+
+        flusher.start();
+
+        assertTrue(flusher.offer(sink, 0, 0, null));
+        sink.entered.await();
+
+        double[] array = {1, 2, 3};
+
+        assertTrue(flusher.offerArray(sink, 1, array));
+        assertTrue(flusher.offer(sink, 2, 0, null));
+
+        // the queued copy isn't affected by later changes to the array
+        array[0] = 10;
+
+        sink.release.countDown();
+        flusher.stop();
+
+        assertFalse(flusher.isRunning());
+        assertEquals(List.of(0, 1, 2), sink.tags);
+        assertArrayEquals(new double[] {1, 2, 3}, (double[]) sink.objectValues.get(1), epsilon);
+    }
+
+    @Test
+    public void TelemetryFlusherCountsFlushErrors() {
+        TelemetryFlusher flusher = new TelemetryFlusher(8);
+        RecordingSink sink = new RecordingSink();
+
+        TelemetryFlusher.Sink throwing =
+                (tag, numericValue, objectValue, timestampMicros) -> {
+                    throw new IllegalStateException();
+                };
+
+        flusher.start();
+
+        flusher.offer(sink, 0, 0, null);
+        flusher.offer(throwing, 1, 0, null);
+        flusher.offer(sink, 2, 0, null);
+        flusher.offer(throwing, 3, 0, null);
+        flusher.offer(sink, 4, 0, null);
+
+        flusher.stop();
+
+        // updates after a failed flush are still written
+        assertEquals(List.of(0, 2, 4), sink.tags);
+        assertEquals(3, flusher.getFlushedCount());
+        assertEquals(2, flusher.getFlushErrorCount());
+
+        flusher.resetStatistics();
+
+        assertEquals(0, flusher.getFlushErrorCount());
+    }
+
+    @Test
+    public void TelemetryFlusherRejectsAfterStop() {
+        TelemetryFlusher flusher = new TelemetryFlusher(8);
+        RecordingSink sink = new RecordingSink();
+
+        assertFalse(flusher.isAccepting());
+
+        flusher.start();
+
+        assertTrue(flusher.isAccepting());
+
+        flusher.stop();
+
+        assertFalse(flusher.isAccepting());
+        assertFalse(flusher.offer(sink, 0, 0, null));
+        assertFalse(flusher.offerArray(sink, 1, new double[] {1}));
+
+        // a stopped flusher can't be restarted
+        flusher.start();
+
+        assertFalse(flusher.isRunning());
+        assertFalse(flusher.offer(sink, 2, 0, null));
+
+        assertTrue(sink.tags.isEmpty());
+        assertEquals(0, flusher.getDroppedCount());
+    }
+}
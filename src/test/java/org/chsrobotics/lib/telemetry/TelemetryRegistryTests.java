@@ -0,0 +1,85 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.telemetry;
+
+import static org.junit.Assert.assertEquals;
+
+import org.chsrobotics.lib.telemetry.TelemetryRegistry.PRIORITY;
+import org.junit.Test;
+
+public class TelemetryRegistryTests {
+    @Test
+    public void TelemetryRegistryDivisorFromRate() {
+        TelemetryRegistry registry = new TelemetryRegistry(0.02);
+
+        assertEquals(1, registry.getDivisorForRate(50));
+        assertEquals(1, registry.getDivisorForRate(100));
+        assertEquals(5, registry.getDivisorForRate(10));
+        assertEquals(50, registry.getDivisorForRate(1));
+    }
+
+    @Test
+    public void TelemetryRegistryRespectsDivisors() {
+        TelemetryRegistry registry = new TelemetryRegistry();
+
+        int[] counts = new int[2];
+
+        registry.register(() -> counts[0]++, 1, PRIORITY.HIGH);
+        registry.register(() -> counts[1]++, 4, PRIORITY.HIGH);
+
+        for (int i = 0; i < 20; i++) registry.update();
+
+        assertEquals(20, counts[0]);
+        assertEquals(5, counts[1]);
+    }
+
+    @Test
+    public void TelemetryRegistrySpreadsLowPriority() {
+        TelemetryRegistry registry = new TelemetryRegistry();
+
+        int[] counts = new int[8];
+
+        for (int i = 0; i < 8; i++) {
+            int index = i;
+            registry.register(() -> counts[index]++, 4, PRIORITY.LOW);
+        }
+
+        for (int i = 0; i < 8; i++) {
+            registry.update();
+            assertEquals(2, registry.getLastCycleUpdateCount());
+        }
+
+        for (int count : counts) assertEquals(2, count);
+    }
+
+    @Test
+    public void TelemetryRegistryUnregisters() {
+        TelemetryRegistry registry = new TelemetryRegistry();
+
+        int[] count = new int[1];
+        Runnable updater = () -> count[0]++;
+
+        registry.register(updater, 1, PRIORITY.LOW);
+        registry.update();
+
+        assertEquals(true, registry.unregister(updater));
+        registry.update();
+
+        assertEquals(1, count[0]);
+        assertEquals(0, registry.getRegisteredCount());
+    }
+}
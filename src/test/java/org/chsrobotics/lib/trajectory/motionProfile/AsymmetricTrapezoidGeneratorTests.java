@@ -0,0 +1,211 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.trajectory.motionProfile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.chsrobotics.lib.trajectory.motionProfile.MotionProfile.MutableState;
+import org.chsrobotics.lib.trajectory.motionProfile.MotionProfile.State;
+import org.junit.Test;
+
+public class AsymmetricTrapezoidGeneratorTests {
+    private final double epsilon = 0.0001;
+
+    private final AsymmetricTrapezoidProfile.Constraints constraints =
+            new AsymmetricTrapezoidProfile.Constraints(2, 1, 0.5);
+
+    // checks that the profile is continuous, within the constraints, and reaches the target
+    private void assertValid(
+            AsymmetricTrapezoidGenerator generator,
+            State initial,
+            State target,
+            double endVelocity) {
+        MutableState state = new MutableState();
+        MutableState previous = generator.sample(0, new MutableState());
+
+        assertEquals(initial.position, previous.position, epsilon);
+        assertEquals(initial.velocity, previous.velocity, epsilon);
+
+        double step = 0.001;
+        double end = generator.totalTime();
+
+        for (double t = step; t < end; t += step) {
+            generator.sample(t, state);
+
+            double acceleration = (state.velocity - previous.velocity) / step;
+
+            double maxSpeed = Math.max(Math.abs(previous.velocity), Math.abs(state.velocity));
+
+            assertTrue(Math.abs(acceleration) <= constraints.maxAcceleration + epsilon);
+            assertEquals(previous.position, state.position, (step * maxSpeed) + epsilon);
+
+            if (Math.abs(previous.velocity) <= constraints.maxVelocity) {
+                assertTrue(Math.abs(state.velocity) <= constraints.maxVelocity + epsilon);
+            }
+
+            previous.position = state.position;
+            previous.velocity = state.velocity;
+        }
+
+        generator.sample(end - 1e-9, state);
+
+        assertEquals(target.position, state.position, epsilon);
+        assertEquals(endVelocity, state.velocity, epsilon);
+
+        assertEquals(target.position, generator.sample(end + 1, state).position, epsilon);
+    }
+
+    @Test
+    public void AsymmetricTrapezoidGeneratorMatchesProfileFromRest() {
+        AsymmetricTrapezoidGenerator generator = new AsymmetricTrapezoidGenerator(constraints);
+
+        State[] targets = {new State(10, 0), new State(1, 0), new State(-6, 0), new State(0.2, 0)};
+
+        for (State target : targets) {
+            generator.replan(new State(0, 0), target);
+
+            AsymmetricTrapezoidProfile profile =
+                    new AsymmetricTrapezoidProfile(constraints, target);
+
+            assertEquals(profile.totalTime(), generator.totalTime(), epsilon);
+
+            for (double t = 0; t < profile.totalTime() + 1; t += 0.1) {
+                MutableState state = generator.sample(t, new MutableState());
+
+                assertEquals(profile.sample(t).position, state.position, epsilon);
+                assertEquals(profile.sample(t).velocity, state.velocity, epsilon);
+            }
+        }
+    }
+
+    @Test
+    public void AsymmetricTrapezoidGeneratorSlowsFromOverSpeed() {
+        AsymmetricTrapezoidGenerator generator = new AsymmetricTrapezoidGenerator(constraints);
+
+        State initial = new State(0, 3);
+        State target = new State(20, 0);
+
+        generator.replan(initial, target);
+
+        // slow down, coast, and slow down again
+        assertEquals(3, generator.getPhaseCount());
+        assertValid(generator, initial, target, 0);
+
+        // decelerates to the maximum velocity, rather than jumping to it
+        assertEquals(2.5, generator.sample(1, new MutableState()).velocity, epsilon);
+    }
+
+    @Test
+    public void AsymmetricTrapezoidGeneratorReversesWrongDirectionVelocity() {
+        AsymmetricTrapezoidGenerator generator = new AsymmetricTrapezoidGenerator(constraints);
+
+        State initial = new State(0, -1);
+        State target = new State(10, 0);
+
+        generator.replan(initial, target);
+
+        assertValid(generator, initial, target, 0);
+
+        // keeps moving away until the velocity reverses
+        assertEquals(-0.5, generator.sample(1, new MutableState()).position, epsilon);
+        assertEquals(0, generator.sample(1, new MutableState()).velocity, epsilon);
+    }
+
+    @Test
+    public void AsymmetricTrapezoidGeneratorReturnsFromOvershoot() {
+        AsymmetricTrapezoidGenerator generator = new AsymmetricTrapezoidGenerator(constraints);
+
+        State initial = new State(0, 2);
+        State target = new State(1, 0);
+
+        generator.replan(initial, target);
+
+        assertValid(generator, initial, target, 0);
+
+        // stops 4 units along (past the target) before coming back
+        MutableState stop = generator.sample(4, new MutableState());
+
+        assertEquals(4, stop.position, epsilon);
+        assertEquals(0, stop.velocity, epsilon);
+
+        // same in the negative direction
+        initial = new State(0, -2);
+        target = new State(-1, 0);
+
+        generator.replan(initial, target);
+
+        assertValid(generator, initial, target, 0);
+    }
+
+    @Test
+    public void AsymmetricTrapezoidGeneratorUnreachableTargetVelocity() {
+        AsymmetricTrapezoidGenerator generator = new AsymmetricTrapezoidGenerator(constraints);
+
+        State initial = new State(0, 0);
+        State target = new State(0.5, 2);
+
+        generator.replan(initial, target);
+
+        assertEquals(1, generator.getPhaseCount());
+        assertValid(generator, initial, target, 1);
+    }
+
+    @Test
+    public void AsymmetricTrapezoidGeneratorReusableAcrossReplans() {
+        AsymmetricTrapezoidGenerator generator = new AsymmetricTrapezoidGenerator(constraints);
+        MutableState state = new MutableState();
+
+        // follow a moving target, replanning from the sampled state each loop
+        for (int i = 0; i < 500; i++) {
+            double targetPosition = 5 * Math.sin(i * 0.02);
+
+            generator.replan(state.position, state.velocity, targetPosition, 0);
+            generator.sample(0.02, state);
+
+            assertTrue(Math.abs(state.velocity) <= constraints.maxVelocity + epsilon);
+        }
+
+        // then hold a fixed target, which it settles onto exactly
+        for (int i = 0; i < 1000; i++) {
+            generator.replan(state.position, state.velocity, 3, 0);
+            generator.sample(0.02, state);
+        }
+
+        assertEquals(3, state.position, epsilon);
+        assertEquals(0, state.velocity, epsilon);
+    }
+
+    @Test
+    public void AsymmetricTrapezoidGeneratorToMotionProfileMatches() {
+        AsymmetricTrapezoidGenerator generator = new AsymmetricTrapezoidGenerator(constraints);
+
+        generator.replan(new State(1, 3), new State(-2, 0));
+
+        MotionProfile profile = generator.toMotionProfile();
+
+        assertEquals(generator.getPhaseCount(), profile.getPhases().size());
+        assertEquals(generator.totalTime(), profile.totalTime(), epsilon);
+
+        for (double t = -1; t < generator.totalTime() + 1; t += 0.05) {
+            MutableState state = generator.sample(t, new MutableState());
+
+            assertEquals(profile.sample(t).position, state.position, epsilon);
+            assertEquals(profile.sample(t).velocity, state.velocity, epsilon);
+        }
+    }
+}
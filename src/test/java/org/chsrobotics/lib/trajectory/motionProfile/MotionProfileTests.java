@@ -17,7 +17,10 @@ If not, see <https://www.gnu.org/licenses/>.
 package org.chsrobotics.lib.trajectory.motionProfile;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import org.chsrobotics.lib.trajectory.motionProfile.MotionProfile.MutableState;
 import org.chsrobotics.lib.trajectory.motionProfile.MotionProfile.State;
 import org.junit.Test;
 
@@ -70,4 +73,205 @@ public class MotionProfileTests {
 
         assertEquals(new State(8, 4), profile.sample(4));
     }
+
+    // the original linear walk over the phases, as a reference
+    private State sampleByWalking(MotionProfile profile, double time) {
+        if (time <= 0) return profile.sample(time);
+
+        double position = profile.sample(0).position;
+
+        for (ProfilePhase phase : profile.getPhases()) {
+            if (time - phase.time < 0) {
+                return new State(
+                        position
+                                + 0.5 * phase.acceleration * time * time
+                                + phase.initialVelocity * time,
+                        time * phase.acceleration + phase.initialVelocity);
+            } else {
+                time -= phase.time;
+                position += phase.position;
+            }
+        }
+
+        return new State(position, 0);
+    }
+
+    private MotionProfile createManyPhaseProfile() {
+        ProfilePhase[] phases = new ProfilePhase[40];
+
+        double velocity = 0;
+
+        for (int i = 0; i < phases.length; i++) {
+            double acceleration = (i % 3) - 1;
+            double time = 0.05 + (i % 7) * 0.1;
+
+            phases[i] = new ProfilePhase(acceleration, velocity, time);
+            velocity += acceleration * time;
+        }
+
+        return new MotionProfile(new State(2, 0), phases);
+    }
+
+    @Test
+    public void MotionProfileSampleMatchesLinearWalk() {
+        MotionProfile profile = createManyPhaseProfile();
+
+        for (double time = -0.5; time < profile.totalTime() + 1; time += 0.013) {
+            assertEquals(sampleByWalking(profile, time), profile.sample(time));
+        }
+    }
+
+    @Test
+    public void MotionProfileMutableSampleWorks() {
+        MotionProfile profile = createManyPhaseProfile();
+        MutableState out = new MutableState();
+
+        for (double time = -0.5; time < profile.totalTime() + 1; time += 0.013) {
+            assertSame(out, profile.sample(time, out));
+
+            State expected = profile.sample(time);
+
+            assertEquals(expected.position, out.position, epsilon);
+            assertEquals(expected.velocity, out.velocity, epsilon);
+        }
+    }
+
+    @Test
+    public void MotionProfileLookupTableMatchesSearch() {
+        MotionProfile profile = createManyPhaseProfile();
+        MotionProfile withTable = createManyPhaseProfile();
+
+        // both coarser and finer than the phases
+        for (double resolution : new double[] {0.3, 0.01}) {
+            withTable.precomputeLookupTable(resolution);
+
+            for (double time = -0.5; time < profile.totalTime() + 1; time += 0.007) {
+                assertEquals(profile.sample(time), withTable.sample(time));
+            }
+        }
+
+        assertEquals(profile.totalTime(), withTable.totalTime(), epsilon);
+    }
+
+    @Test
+    public void MotionProfileBatchSampleMatchesScalar() {
+        MotionProfile profile = createManyPhaseProfile();
+
+        // sorted, then jumping backwards and repeating
+        double[] times = new double[400];
+        for (int i = 0; i < 300; i++) times[i] = -0.5 + i * 0.03;
+        for (int i = 300; i < 400; i++) times[i] = ((i * 37) % 100) * 0.08;
+
+        double[] positions = new double[times.length];
+        double[] velocities = new double[times.length];
+
+        profile.sample(times, positions, velocities);
+
+        for (int i = 0; i < times.length; i++) {
+            State expected = profile.sample(times[i]);
+
+            assertEquals(expected.position, positions[i], epsilon);
+            assertEquals(expected.velocity, velocities[i], epsilon);
+        }
+    }
+
+    // earliest time the profile crosses a position or velocity, found by sampling finely
+    private double firstCrossingBySampling(MotionProfile profile, double value, boolean velocity) {
+        double step = 0.0001;
+        double last = velocity ? profile.sample(0).velocity : profile.sample(0).position;
+
+        for (double t = step; t <= profile.totalTime() + step; t += step) {
+            State state = profile.sample(t);
+            double current = velocity ? state.velocity : state.position;
+
+            if ((last - value) * (current - value) <= 0) return t;
+
+            last = current;
+        }
+
+        return Double.NaN;
+    }
+
+    @Test
+    public void MotionProfileTimeAtPositionWorks() {
+        TrapezoidProfile profile =
+                new TrapezoidProfile(new TrapezoidProfile.Constraints(2, 1), new State(10, 0));
+
+        assertEquals(0, profile.timeAtPosition(0), epsilon);
+        assertEquals(2, profile.timeAtPosition(2), epsilon);
+        assertEquals(4, profile.timeAtPosition(6), epsilon);
+        assertEquals(profile.totalTime(), profile.timeAtPosition(10), epsilon);
+
+        for (double x = 0.25; x < 10; x += 0.5) {
+            assertEquals(x, profile.sample(profile.timeAtPosition(x)).position, epsilon);
+        }
+
+        assertTrue(Double.isNaN(profile.timeAtPosition(11)));
+        assertTrue(Double.isNaN(profile.timeAtPosition(-1)));
+    }
+
+    @Test
+    public void MotionProfileTimeAtPositionFindsEarliest() {
+        // passes position 1 on the way out, then again coming back
+        AsymmetricTrapezoidGenerator generator =
+                new AsymmetricTrapezoidGenerator(
+                        new AsymmetricTrapezoidProfile.Constraints(2, 1, 0.5));
+        generator.replan(0, 2, 1, 0);
+
+        MotionProfile profile = generator.toMotionProfile();
+
+        for (double x : new double[] {0.5, 1, 3, 4}) {
+            assertEquals(
+                    firstCrossingBySampling(profile, x, false), profile.timeAtPosition(x), 0.001);
+        }
+
+        // stops at 4 before coming back
+        assertEquals(4, profile.timeAtPosition(4), 0.001);
+        assertTrue(Double.isNaN(profile.timeAtPosition(5)));
+    }
+
+    @Test
+    public void MotionProfileTimeAtPositionWithJerkWorks() {
+        SCurveProfile profile =
+                new SCurveProfile(
+                        new SCurveProfile.Constraints(3, 2, 5), new State(10, 0), new State(2, -1));
+
+        // moves away to 1.55 before turning around
+        for (double x : new double[] {1.9, 1.6, 2, 4, 9.9, 10}) {
+            double time = profile.timeAtPosition(x);
+
+            assertEquals(firstCrossingBySampling(profile, x, false), time, 0.001);
+            assertEquals(x, profile.sample(time).position, epsilon);
+        }
+
+        assertEquals(1.55, profile.sample(profile.timeAtVelocity(0)).position, epsilon);
+        assertTrue(Double.isNaN(profile.timeAtPosition(1.5)));
+    }
+
+    @Test
+    public void MotionProfileTimeAtVelocityWorks() {
+        TrapezoidProfile trapezoid =
+                new TrapezoidProfile(new TrapezoidProfile.Constraints(2, 1), new State(10, 0));
+
+        assertEquals(0, trapezoid.timeAtVelocity(0), epsilon);
+        assertEquals(1, trapezoid.timeAtVelocity(1), epsilon);
+        assertEquals(2, trapezoid.timeAtVelocity(2), epsilon);
+        assertTrue(Double.isNaN(trapezoid.timeAtVelocity(3)));
+        assertTrue(Double.isNaN(trapezoid.timeAtVelocity(-1)));
+
+        SCurveProfile sCurve =
+                new SCurveProfile(new SCurveProfile.Constraints(3, 2, 5), new State(10, 0));
+
+        for (double v : new double[] {0.1, 1, 2.5, 3}) {
+            double time = sCurve.timeAtVelocity(v);
+
+            assertEquals(firstCrossingBySampling(sCurve, v, true), time, 0.001);
+            assertEquals(v, sCurve.sample(time).velocity, epsilon);
+        }
+
+        // zero velocity after the end
+        MotionProfile moving = new MotionProfile(new State(0, 1), new ProfilePhase(0, 1, 2));
+
+        assertEquals(2, moving.timeAtVelocity(0), epsilon);
+    }
 }
@@ -0,0 +1,190 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.trajectory.motionProfile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.chsrobotics.lib.trajectory.motionProfile.MotionProfile.State;
+import org.junit.Test;
+
+public class SCurveProfileTests {
+    private final double epsilon = 0.0001;
+
+    private final SCurveProfile.Constraints constraints = new SCurveProfile.Constraints(3, 2, 5);
+
+    // checks that the phases are continuous, within the constraints, and reach the target
+    private void assertValid(
+            SCurveProfile profile, State initial, State target, double endVelocity) {
+        List<ProfilePhase> phases = profile.getPhases();
+
+        double acceleration = 0;
+        double velocity = profile.sample(0).velocity;
+        double position = initial.position;
+
+        for (ProfilePhase phase : phases) {
+            assertTrue(phase.time > 0);
+            assertTrue(Math.abs(phase.jerk) <= constraints.maxJerk + epsilon);
+
+            assertEquals(acceleration, phase.acceleration, epsilon);
+            assertEquals(velocity, phase.initialVelocity, epsilon);
+
+            acceleration = phase.finalAcceleration();
+            velocity = phase.finalVelocity();
+            position += phase.position;
+
+            assertTrue(Math.abs(acceleration) <= constraints.maxAcceleration + epsilon);
+            assertTrue(Math.abs(velocity) <= constraints.maxVelocity + epsilon);
+        }
+
+        assertEquals(0, acceleration, epsilon);
+        assertEquals(endVelocity, velocity, epsilon);
+        assertEquals(target.position, position, epsilon);
+
+        double end = profile.totalTime();
+
+        assertEquals(target.position, profile.sample(end + 1).position, epsilon);
+        assertEquals(endVelocity, profile.sample(end - 1e-9).velocity, epsilon);
+    }
+
+    @Test
+    public void SCurveProfileLongMoveHasSevenPhases() {
+        State target = new State(10, 0);
+        SCurveProfile profile = new SCurveProfile(constraints, target);
+
+        assertEquals(7, profile.getPhases().size());
+        assertValid(profile, new State(0, 0), target, 0);
+
+        // coasts at the maximum velocity
+        assertEquals(3, profile.getPhases().get(3).initialVelocity, epsilon);
+        assertEquals(0, profile.getPhases().get(3).acceleration, epsilon);
+    }
+
+    @Test
+    public void SCurveProfileShortMovesWork() {
+        // reaches the maximum acceleration, but not velocity
+        State medium = new State(3, 0);
+        SCurveProfile mediumProfile = new SCurveProfile(constraints, medium);
+
+        assertEquals(6, mediumProfile.getPhases().size());
+        assertValid(mediumProfile, new State(0, 0), medium, 0);
+
+        // reaches neither
+        State small = new State(0.2, 0);
+        SCurveProfile smallProfile = new SCurveProfile(constraints, small);
+
+        assertEquals(4, smallProfile.getPhases().size());
+        assertValid(smallProfile, new State(0, 0), small, 0);
+    }
+
+    @Test
+    public void SCurveProfileHandlesNegativeDirection() {
+        State initial = new State(4, 0);
+        State target = new State(-6, 0);
+        SCurveProfile profile = new SCurveProfile(constraints, target, initial);
+
+        assertValid(profile, initial, target, 0);
+        assertEquals(-3, profile.getPhases().get(3).initialVelocity, epsilon);
+    }
+
+    @Test
+    public void SCurveProfileHandlesMovingEndpoints() {
+        double[][] cases = {
+            // initial position, initial velocity, target position, target velocity
+            {0, 1, 10, 2},
+            {0, 2.5, 3, 0.5},
+            {1, 0.5, 1.4, 0.2},
+            {-2, 1, 2, 3},
+        };
+
+        for (double[] testCase : cases) {
+            State initial = new State(testCase[0], testCase[1]);
+            State target = new State(testCase[2], testCase[3]);
+
+            SCurveProfile profile = new SCurveProfile(constraints, target, initial);
+
+            assertValid(profile, initial, target, testCase[3]);
+        }
+    }
+
+    @Test
+    public void SCurveProfileStopsWhenMovingAway() {
+        State initial = new State(0, -2);
+        State target = new State(5, 0);
+        SCurveProfile profile = new SCurveProfile(constraints, target, initial);
+
+        assertValid(profile, initial, target, 0);
+        assertTrue(profile.sample(0.5).position < 0);
+    }
+
+    @Test
+    public void SCurveProfileReturnsAfterOvershoot() {
+        // too fast to stop in time
+        State initial = new State(0, 3);
+        State target = new State(0.5, 0);
+        SCurveProfile profile = new SCurveProfile(constraints, target, initial);
+
+        assertValid(profile, initial, target, 0);
+        assertTrue(profile.sample(1.5).position > 0.5);
+    }
+
+    @Test
+    public void SCurveProfileReachesTargetWhenStoppingFallsShort() {
+        // slowing down to the target velocity covers more distance than stopping, so the target
+        // is still ahead after stopping
+        State initial = new State(0, 2.4313);
+        State target = new State(1.9826, 0.5543);
+        SCurveProfile profile = new SCurveProfile(constraints, target, initial);
+
+        List<ProfilePhase> phases = profile.getPhases();
+        double endVelocity = phases.get(phases.size() - 1).finalVelocity();
+
+        assertTrue(endVelocity > 0);
+        assertTrue(endVelocity <= target.velocity + epsilon);
+        assertValid(profile, initial, target, endVelocity);
+    }
+
+    @Test
+    public void SCurveProfileHandlesUnreachableTargetVelocity() {
+        State initial = new State(0, 0);
+        State target = new State(0.1, 3);
+        SCurveProfile profile = new SCurveProfile(constraints, target, initial);
+
+        double endVelocity = profile.getPhases().get(1).finalVelocity();
+
+        assertTrue(endVelocity < 3);
+        assertValid(profile, initial, target, endVelocity);
+    }
+
+    @Test
+    public void SCurveProfileAccelerationIsContinuous() {
+        SCurveProfile profile = new SCurveProfile(constraints, new State(10, 0));
+
+        double dt = 0.001;
+        double lastAcceleration = 0;
+
+        for (double time = 0; time < profile.totalTime(); time += dt) {
+            double acceleration =
+                    (profile.sample(time + dt).velocity - profile.sample(time).velocity) / dt;
+
+            assertTrue(Math.abs(acceleration - lastAcceleration) <= 2 * constraints.maxJerk * dt);
+
+            lastAcceleration = acceleration;
+        }
+    }
+}
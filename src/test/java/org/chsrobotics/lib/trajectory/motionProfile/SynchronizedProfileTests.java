@@ -0,0 +1,117 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.trajectory.motionProfile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.chsrobotics.lib.trajectory.motionProfile.MotionProfile.MutableState;
+import org.chsrobotics.lib.trajectory.motionProfile.MotionProfile.State;
+import org.junit.Test;
+
+public class SynchronizedProfileTests {
+    private final double epsilon = 0.0001;
+
+    private final TrapezoidProfile.Constraints constraints = new TrapezoidProfile.Constraints(2, 1);
+
+    private final TrapezoidProfile longAxis = new TrapezoidProfile(constraints, new State(10, 0));
+    private final TrapezoidProfile shortAxis =
+            new TrapezoidProfile(constraints, new State(-2, 0), new State(1, 0));
+
+    @Test
+    public void SynchronizedProfileFinishesTogether() {
+        SynchronizedProfile profile = new SynchronizedProfile(longAxis, shortAxis);
+
+        assertEquals(2, profile.getAxisCount());
+        assertEquals(longAxis.totalTime(), profile.totalTime(), epsilon);
+
+        MutableState[] states = {new MutableState(), new MutableState()};
+
+        profile.sample(0, states);
+
+        assertEquals(0, states[0].position, epsilon);
+        assertEquals(1, states[1].position, epsilon);
+
+        // the short axis is still moving until the long axis finishes
+        profile.sample(profile.totalTime() - 0.1, states);
+
+        assertTrue(states[1].position > -2 + epsilon);
+        assertTrue(states[1].velocity < 0);
+
+        profile.sample(profile.totalTime() + 1, states);
+
+        assertEquals(10, states[0].position, epsilon);
+        assertEquals(0, states[0].velocity, epsilon);
+        assertEquals(-2, states[1].position, epsilon);
+        assertEquals(0, states[1].velocity, epsilon);
+    }
+
+    @Test
+    public void SynchronizedProfileMovesInProportion() {
+        SynchronizedProfile profile = new SynchronizedProfile(longAxis, shortAxis);
+
+        MutableState[] states = {new MutableState(), new MutableState()};
+
+        for (double t = 0; t < profile.totalTime(); t += 0.05) {
+            profile.sample(t, states);
+
+            // the longest axis is unchanged
+            assertEquals(longAxis.sample(t).position, states[0].position, epsilon);
+            assertEquals(longAxis.sample(t).velocity, states[0].velocity, epsilon);
+
+            // the shorter axis is stretched, and never exceeds its constraints
+            double scale = shortAxis.totalTime() / profile.totalTime();
+
+            assertEquals(shortAxis.sample(t * scale).position, states[1].position, epsilon);
+            assertTrue(Math.abs(states[1].velocity) <= constraints.maxVelocity * scale + epsilon);
+        }
+    }
+
+    @Test
+    public void SynchronizedProfileAllocatingSampleMatches() {
+        SynchronizedProfile profile = new SynchronizedProfile(longAxis, shortAxis, longAxis);
+
+        MutableState[] states = {new MutableState(), new MutableState(), new MutableState()};
+
+        for (double t = -1; t < profile.totalTime() + 1; t += 0.25) {
+            State[] sampled = profile.sample(t);
+            profile.sample(t, states);
+
+            for (int i = 0; i < states.length; i++) {
+                assertEquals(states[i].position, sampled[i].position, epsilon);
+                assertEquals(states[i].velocity, sampled[i].velocity, epsilon);
+            }
+        }
+    }
+
+    @Test
+    public void SynchronizedProfileEmptyAxes() {
+        SynchronizedProfile profile =
+                new SynchronizedProfile(
+                        new TrapezoidProfile(constraints, new State(0, 0)),
+                        new TrapezoidProfile(constraints, new State(3, 0), new State(3, 0)));
+
+        assertEquals(0, profile.totalTime(), epsilon);
+
+        MutableState[] states = {new MutableState(), new MutableState()};
+
+        profile.sample(1, states);
+
+        assertEquals(0, states[0].position, epsilon);
+        assertEquals(3, states[1].position, epsilon);
+    }
+}
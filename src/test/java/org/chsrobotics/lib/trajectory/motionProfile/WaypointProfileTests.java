@@ -0,0 +1,148 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.trajectory.motionProfile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.chsrobotics.lib.trajectory.motionProfile.MotionProfile.State;
+import org.junit.Test;
+
+public class WaypointProfileTests {
+    private final double epsilon = 0.0001;
+
+    private final TrapezoidProfile.Constraints constraints = new TrapezoidProfile.Constraints(2, 1);
+
+    // checks that the phases are continuous, within the constraints, and end at rest at the target
+    private void assertValid(WaypointProfile profile, double target) {
+        double velocity = profile.sample(0).velocity;
+        double position = profile.sample(0).position;
+
+        for (ProfilePhase phase : profile.getPhases()) {
+            assertTrue(phase.time > 0);
+            assertTrue(Math.abs(phase.acceleration) <= constraints.maxAcceleration + epsilon);
+
+            assertEquals(velocity, phase.initialVelocity, epsilon);
+
+            velocity = phase.finalVelocity();
+            position += phase.position;
+
+            assertTrue(Math.abs(velocity) <= constraints.maxVelocity + epsilon);
+        }
+
+        assertEquals(0, velocity, epsilon);
+        assertEquals(target, position, epsilon);
+        assertEquals(target, profile.sample(profile.totalTime() + 1).position, epsilon);
+    }
+
+    @Test
+    public void WaypointProfileDoesNotStopAlongOneDirection() {
+        WaypointProfile profile = new WaypointProfile(constraints, 2, 5, 10);
+
+        assertValid(profile, 10);
+
+        double[] velocities = profile.getWaypointVelocities();
+
+        assertEquals(2, velocities[0], epsilon);
+        assertEquals(2, velocities[1], epsilon);
+        assertEquals(0, velocities[2], epsilon);
+
+        // as fast as going straight to the end
+        TrapezoidProfile direct = new TrapezoidProfile(constraints, new State(10, 0));
+
+        assertEquals(direct.totalTime(), profile.totalTime(), epsilon);
+
+        // and faster than stopping at each waypoint
+        double stopping =
+                new TrapezoidProfile(constraints, new State(2, 0)).totalTime()
+                        + new TrapezoidProfile(constraints, new State(3, 0)).totalTime()
+                        + new TrapezoidProfile(constraints, new State(5, 0)).totalTime();
+
+        assertTrue(profile.totalTime() < stopping);
+    }
+
+    @Test
+    public void WaypointProfileBlendsShortSegments() {
+        WaypointProfile profile = new WaypointProfile(constraints, -0.5, -1, -1.5, -4);
+
+        assertValid(profile, -4);
+
+        // accelerating from rest, limited by the distance covered
+        double[] velocities = profile.getWaypointVelocities();
+
+        assertEquals(-1, velocities[0], epsilon);
+        assertEquals(-Math.sqrt(2), velocities[1], epsilon);
+        assertEquals(-Math.sqrt(3), velocities[2], epsilon);
+    }
+
+    @Test
+    public void WaypointProfileStopsWhereDirectionReverses() {
+        WaypointProfile profile = new WaypointProfile(constraints, new State(1, 0), 5, 2, 3);
+
+        assertValid(profile, 3);
+
+        double[] velocities = profile.getWaypointVelocities();
+
+        assertEquals(0, velocities[0], epsilon);
+        assertEquals(0, velocities[1], epsilon);
+
+        // reaches the first waypoint at rest
+        double firstTime = new TrapezoidProfile(constraints, new State(4, 0)).totalTime();
+
+        assertEquals(5, profile.sample(firstTime).position, epsilon);
+        assertEquals(0, profile.sample(firstTime).velocity, epsilon);
+    }
+
+    @Test
+    public void WaypointProfileSlowsForLaterWaypoints() {
+        // must already be slowing down through the first waypoint to stop at the second
+        WaypointProfile profile = new WaypointProfile(constraints, 4, 4.5);
+
+        assertValid(profile, 4.5);
+
+        assertEquals(1, profile.getWaypointVelocities()[0], epsilon);
+    }
+
+    @Test
+    public void WaypointProfileLimitsInitialVelocity() {
+        WaypointProfile profile = new WaypointProfile(constraints, new State(0, 3), 0.5);
+
+        // can't stop within the distance from any faster
+        assertEquals(1, profile.sample(0).velocity, epsilon);
+        assertValid(profile, 0.5);
+
+        // moving away is kept, and reversed
+        profile = new WaypointProfile(constraints, new State(0, -1), 3, 6);
+
+        assertEquals(-1, profile.sample(0).velocity, epsilon);
+        assertValid(profile, 6);
+    }
+
+    @Test
+    public void WaypointProfileSkipsRepeatedWaypoints() {
+        WaypointProfile repeated = new WaypointProfile(constraints, 0, 3, 3, 6);
+        WaypointProfile plain = new WaypointProfile(constraints, 3, 6);
+
+        assertEquals(plain.getPhases(), repeated.getPhases());
+
+        double[] velocities = repeated.getWaypointVelocities();
+
+        assertEquals(0, velocities[0], epsilon);
+        assertEquals(velocities[1], velocities[2], epsilon);
+        assertEquals(plain.getWaypointVelocities()[0], velocities[1], epsilon);
+    }
+}
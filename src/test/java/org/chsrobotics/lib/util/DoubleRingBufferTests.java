@@ -0,0 +1,90 @@
+/**
+Copyright 2023 FRC Team 997
+
+This program is free software: 
+you can redistribute it and/or modify it under the terms of the 
+GNU General Public License as published by the Free Software Foundation, 
+either version 3 of the License, or (at your option) any later version.
+
+This program is distributed in the hope that it will be useful, 
+but WITHOUT ANY WARRANTY; without even the implied warranty of 
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+See the GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License along with SpartanLib2. 
+If not, see <https://www.gnu.org/licenses/>.
+*/
+package org.chsrobotics.lib.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class DoubleRingBufferTests {
+    @Test
+    public void DoubleRingBufferEvictsOldest() {
+        DoubleRingBuffer buffer = new DoubleRingBuffer(3);
+
+        assertEquals(0, buffer.push(1), 0);
+        assertEquals(0, buffer.push(2), 0);
+        assertEquals(0, buffer.push(3), 0);
+
+        assertEquals(true, buffer.isFull());
+
+        assertEquals(1, buffer.push(4), 0);
+        assertEquals(2, buffer.push(5), 0);
+
+        assertEquals(3, buffer.size());
+        assertEquals(3, buffer.getOldest(), 0);
+        assertEquals(4, buffer.get(1), 0);
+        assertEquals(5, buffer.getNewest(), 0);
+    }
+
+    @Test
+    public void DoubleRingBufferUnboundedGrows() {
+        DoubleRingBuffer buffer = new DoubleRingBuffer(0);
+
+        for (int i = 0; i < 100; i++) assertEquals(0, buffer.push(i), 0);
+
+        assertEquals(false, buffer.isFull());
+        assertEquals(100, buffer.size());
+
+        for (int i = 0; i < 100; i++) assertEquals(i, buffer.get(i), 0);
+    }
+
+    @Test
+    public void DoubleRingBufferClears() {
+        DoubleRingBuffer buffer = new DoubleRingBuffer(2);
+
+        buffer.push(1);
+        buffer.push(2);
+        buffer.push(3);
+        buffer.clear();
+
+        assertEquals(true, buffer.isEmpty());
+
+        buffer.push(4);
+
+        assertEquals(4, buffer.getOldest(), 0);
+    }
+
+    @Test
+    public void DoubleRingBufferWeightedSumWorks() {
+        DoubleRingBuffer buffer = new DoubleRingBuffer(3);
+
+        double[] weights = {1, 10, 100, 1000};
+
+        assertEquals(0, buffer.weightedSum(weights), 0);
+
+        buffer.push(1);
+        buffer.push(2);
+
+        assertEquals(21, buffer.weightedSum(weights), 0);
+
+        // wrapped around the end of the array
+        buffer.push(3);
+        buffer.push(4);
+
+        assertEquals(432, buffer.weightedSum(weights), 0);
+    }
+}